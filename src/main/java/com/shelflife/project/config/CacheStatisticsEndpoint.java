@@ -0,0 +1,55 @@
+package com.shelflife.project.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Second-level cache statistics, exposed at /actuator/hibernatecache.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class CacheStatisticsEndpoint {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", stats.getSecondLevelCacheHitCount());
+        result.put("misses", stats.getSecondLevelCacheMissCount());
+        result.put("puts", stats.getSecondLevelCachePutCount());
+        result.put("queryCacheHits", stats.getQueryCacheHitCount());
+        result.put("queryCacheMisses", stats.getQueryCacheMissCount());
+        result.put("naturalIdCacheHits", stats.getNaturalIdCacheHitCount());
+        result.put("naturalIdCacheMisses", stats.getNaturalIdCacheMissCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = stats.getCacheRegionStatistics(name);
+            if (region == null)
+                continue;
+
+            regions.put(name, Map.of(
+                    "hits", region.getHitCount(),
+                    "misses", region.getMissCount(),
+                    "puts", region.getPutCount(),
+                    "elements", region.getElementCountInMemory()));
+        }
+        result.put("regions", regions);
+
+        return result;
+    }
+}
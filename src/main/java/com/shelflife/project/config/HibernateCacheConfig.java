@@ -0,0 +1,88 @@
+package com.shelflife.project.config;
+
+import java.time.Duration;
+
+import javax.cache.CacheManager;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.User;
+
+/**
+ * Builds the JCache (Ehcache) manager backing the Hibernate second-level
+ * cache, so region sizes and TTLs come from application properties.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USER_REGION = User.class.getName();
+    public static final String USER_NATURAL_ID_REGION = USER_REGION + "##NaturalId";
+    public static final String PRODUCT_REGION = Product.class.getName();
+    public static final String QUERY_REGION = "default-query-results-region";
+    public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${app.cache.user.max-entries:10000}")
+    private long userMaxEntries;
+
+    @Value("${app.cache.user.ttl:10m}")
+    private Duration userTtl;
+
+    @Value("${app.cache.product.max-entries:10000}")
+    private long productMaxEntries;
+
+    @Value("${app.cache.product.ttl:1h}")
+    private Duration productTtl;
+
+    @Value("${app.cache.query.max-entries:1000}")
+    private long queryMaxEntries;
+
+    @Value("${app.cache.query.ttl:5m}")
+    private Duration queryTtl;
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager() {
+        // Own provider instance, so every application context gets its own manager
+        EhcacheCachingProvider provider = new EhcacheCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        cacheManager.createCache(USER_REGION, region(userMaxEntries, userTtl));
+        cacheManager.createCache(USER_NATURAL_ID_REGION, region(userMaxEntries, userTtl));
+        cacheManager.createCache(PRODUCT_REGION, region(productMaxEntries, productTtl));
+        cacheManager.createCache(QUERY_REGION, region(queryMaxEntries, queryTtl));
+
+        // Timestamps must outlive every cached query result, so they never expire
+        cacheManager.createCache(TIMESTAMPS_REGION, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(queryMaxEntries))));
+
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.put("hibernate.generate_statistics", true);
+        };
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> region(long maxEntries, Duration ttl) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.shelflife.project.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import com.shelflife.project.idempotency.IdempotencyFilter;
+import com.shelflife.project.idempotency.IdempotencyStore;
+
+@Configuration
+public class IdempotencyConfig {
+
+    // Login and logout are left out on purpose, their cookies must not be replayed
+    @Value("${app.idempotency.paths:/api/auth/signup,/api/auth/password,/api/users/bulk/*}")
+    private List<String> paths;
+
+    @Value("${app.idempotency.max-body-size:256KB}")
+    private DataSize maxBodySize;
+
+    // Runs after the security filter chain, which needs to know the caller
+    @Bean
+    FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, Math.toIntExact(maxBodySize.toBytes())));
+        registration.setUrlPatterns(paths);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
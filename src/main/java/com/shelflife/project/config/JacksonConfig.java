@@ -0,0 +1,31 @@
+package com.shelflife.project.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.shelflife.project.json.PrecomputedJsonHttpMessageConverter;
+
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig {
+
+    // Replaces reflective accessor calls with generated lambdas, picked up by the auto-configured JsonMapper
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public WebMvcConfigurer precomputedJsonConverter(JsonMapper mapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+                builder.addCustomConverter(new PrecomputedJsonHttpMessageConverter(mapper));
+            }
+        };
+    }
+}
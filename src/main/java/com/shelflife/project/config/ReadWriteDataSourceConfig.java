@@ -0,0 +1,82 @@
+package com.shelflife.project.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.transaction.autoconfigure.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.shelflife.project.datasource.ReadWriteRoutingDataSource;
+import com.shelflife.project.datasource.ReplicaCacheModeTransactionManager;
+import com.shelflife.project.datasource.ReplicaStickinessFilter;
+import com.shelflife.project.datasource.ReplicaStickinessTaskDecorator;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Enabled by setting app.datasource.replica.jdbc-url. The replica pool starts
+ * from the spring.datasource credentials, anything under
+ * app.datasource.replica.* (username, password, maximum-pool-size, ...)
+ * overrides them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Replaces the auto-configured JpaTransactionManager
+    @Bean
+    PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReplicaCacheModeTransactionManager transactionManager = new ReplicaCacheModeTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter() {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration = new FilterRegistrationBean<>(
+                new ReplicaStickinessFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Picked up by the auto-configured task scheduler, so every @Scheduled job
+    // starts and ends unpinned like a request
+    @Bean
+    TaskDecorator replicaStickinessTaskDecorator() {
+        return new ReplicaStickinessTaskDecorator();
+    }
+}
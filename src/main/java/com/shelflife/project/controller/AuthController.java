@@ -1,6 +1,5 @@
 package com.shelflife.project.controller;
 
-import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.shelflife.project.dto.ChangePasswordRequest;
 import com.shelflife.project.dto.LoginRequest;
@@ -19,6 +19,7 @@ import com.shelflife.project.dto.SignUpRequest;
 import com.shelflife.project.exception.EmailExistsException;
 import com.shelflife.project.exception.InvalidPasswordException;
 import com.shelflife.project.exception.PasswordsDontMatchException;
+import com.shelflife.project.json.ErrorBody;
 import com.shelflife.project.model.User;
 import com.shelflife.project.service.UserService;
 
@@ -49,7 +50,7 @@ public class AuthController {
 
             return ResponseEntity.ok().build();
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid email or password"));
+            return ResponseEntity.badRequest().body(ErrorBody.INVALID_LOGIN);
         }
     }
 
@@ -59,11 +60,11 @@ public class AuthController {
         try {
             return ResponseEntity.status(HttpStatus.CREATED).body(userService.signUp(request, auth));
         } catch (AccessDeniedException e) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Already logged in"));
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ErrorBody.ALREADY_LOGGED_IN);
         } catch (EmailExistsException e) {
-            return ResponseEntity.badRequest().body(Map.of("email", "Email already exists"));
+            return ResponseEntity.badRequest().body(ErrorBody.EMAIL_EXISTS);
         } catch (PasswordsDontMatchException e) {
-            return ResponseEntity.badRequest().body(Map.of("passwordRepeat", "The passwords are not the same"));
+            return ResponseEntity.badRequest().body(ErrorBody.PASSWORDS_DONT_MATCH);
         }
     }
 
@@ -73,7 +74,7 @@ public class AuthController {
             userService.logout(auth);
             return ResponseEntity.ok().build();
         } catch (AccessDeniedException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", "You are not logged in"));
+            return ResponseEntity.badRequest().body(ErrorBody.NOT_LOGGED_IN);
         }
     }
 
@@ -85,19 +86,23 @@ public class AuthController {
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (InvalidPasswordException e) {
-            return ResponseEntity.badRequest().body(Map.of("oldPassword", "Invalid old password"));
+            return ResponseEntity.badRequest().body(ErrorBody.INVALID_OLD_PASSWORD);
         } catch (PasswordsDontMatchException e) {
-            return ResponseEntity.badRequest().body(Map.of("newPasswordRepeat", "The passwords are not the same"));
+            return ResponseEntity.badRequest().body(ErrorBody.NEW_PASSWORDS_DONT_MATCH);
         }
     }
 
     @GetMapping("/me")
-    public ResponseEntity<User> getMe(HttpServletResponse response, Authentication auth) {
+    public ResponseEntity<User> getMe(HttpServletResponse response, Authentication auth, WebRequest webRequest) {
         Optional<User> self = userService.getUserByAuth(auth);
 
         if (!self.isPresent())
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
 
-        return ResponseEntity.ok(self.get());
+        String etag = UserETag.of(self.get());
+        if (webRequest.checkNotModified(etag))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+
+        return ResponseEntity.ok().eTag(etag).body(self.get());
     }
 }
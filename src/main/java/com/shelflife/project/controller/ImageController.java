@@ -0,0 +1,126 @@
+package com.shelflife.project.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.service.ImageStore;
+import com.shelflife.project.service.ImageStore.Image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves images by their content hash. A key never changes what it points
+ * to, so the hash is a strong ETag and responses may be cached for a year.
+ *
+ * Where the connector supports it Tomcat sends originals itself with
+ * sendfile once the handler returns, the bytes go from the page cache to the
+ * socket without passing through the JVM. Thumbnails, and originals
+ * elsewhere, are opened by the handler and the file channel is transferred
+ * to the response stream.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    // Request attributes from org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Private: images are only served to signed in users
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    @Autowired
+    private ImageStore store;
+
+    @GetMapping("/{key}")
+    public ResponseEntity<?> getImage(@PathVariable String key, @RequestParam(required = false) Integer size,
+            WebRequest webRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Image> image;
+        try {
+            image = size == null ? store.original(key) : store.thumbnail(key, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+
+        if (!image.isPresent())
+            return ResponseEntity.notFound().build();
+
+        String etag = image.get().etag();
+        if (webRequest.checkNotModified(etag))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE).build();
+
+        if (size == null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            writeHeaders(image.get(), image.get().size(), response);
+            // Tomcat only accepts canonical paths
+            request.setAttribute(SENDFILE_FILENAME, image.get().path().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, image.get().size());
+            return null;
+        }
+
+        Opened opened = open(image.get(), key, size);
+        try (FileChannel file = opened.file()) {
+            long length = file.size();
+            writeHeaders(opened.image(), length, response);
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                long sent = file.transferTo(position, length - position, out);
+                if (sent <= 0)
+                    break;
+                position += sent;
+            }
+        }
+
+        // Written already, nothing left for Spring to do
+        return null;
+    }
+
+    // Thumbnails are evicted and deleted under the budget at any time. An
+    // open file stays readable after that, so they are opened here rather
+    // than left to sendfile, and one evicted meanwhile is made again.
+    private Opened open(Image image, String key, Integer size) throws IOException {
+        try {
+            return new Opened(image, FileChannel.open(image.path(), StandardOpenOption.READ));
+        } catch (NoSuchFileException e) {
+            if (size == null)
+                throw e;
+
+            Image again = store.thumbnail(key, size).orElseThrow(() -> e);
+            return new Opened(again, FileChannel.open(again.path(), StandardOpenOption.READ));
+        }
+    }
+
+    private record Opened(Image image, FileChannel file) {
+    }
+
+    private static void writeHeaders(Image image, long length, HttpServletResponse response) {
+        response.setContentType(image.contentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ETAG, image.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE.getHeaderValue());
+    }
+}
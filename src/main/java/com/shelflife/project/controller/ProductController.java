@@ -0,0 +1,149 @@
+package com.shelflife.project.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shelflife.project.dto.ProductRequest;
+import com.shelflife.project.exception.BarcodeExistsException;
+import com.shelflife.project.exception.ImageTooLargeException;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.exception.UnsupportedImageException;
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.service.ProductService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/products")
+public class ProductController {
+
+    @Autowired
+    private ProductService service;
+
+    @GetMapping()
+    public ResponseEntity<List<Product>> getProducts(Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getProducts(auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getProduct(@PathVariable long id, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getProduct(id, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam String q, @RequestParam(defaultValue = "10") int limit,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.suggest(q, limit, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/barcode/{barcode}")
+    public ResponseEntity<?> getProductByBarcode(@PathVariable long barcode, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getProductByBarcode(barcode, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping()
+    public ResponseEntity<?> createProduct(@Valid @RequestBody ProductRequest request, Authentication auth) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(service.createProduct(request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (BarcodeExistsException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.BARCODE_EXISTS);
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateProduct(@PathVariable long id, @Valid @RequestBody ProductRequest request,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.updateProduct(id, request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (BarcodeExistsException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.BARCODE_EXISTS);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteProduct(@PathVariable long id, Authentication auth) {
+        try {
+            service.removeProduct(id, auth);
+            return ResponseEntity.ok().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // The body is the image itself, streamed to disk without buffering it in memory
+    @PutMapping(value = "/{id}/image", consumes = { MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE })
+    public ResponseEntity<?> setImage(@PathVariable long id, HttpServletRequest request, Authentication auth)
+            throws IOException {
+        try {
+            return ResponseEntity.ok(service.setImage(id, request.getInputStream(), auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ImageTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(ErrorBody.IMAGE_TOO_LARGE);
+        } catch (UnsupportedImageException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(ErrorBody.UNSUPPORTED_IMAGE);
+        }
+    }
+
+    @DeleteMapping("/{id}/image")
+    public ResponseEntity<?> removeImage(@PathVariable long id, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.removeImage(id, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.shelflife.project.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shelflife.project.dto.RecipeRequest;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.service.RecipeService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/recipes")
+public class RecipeController {
+
+    @Autowired
+    private RecipeService service;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getRecipe(@PathVariable long id, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getRecipe(id, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping()
+    public ResponseEntity<?> createRecipe(@Valid @RequestBody RecipeRequest request, Authentication auth) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(service.createRecipe(request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateRecipe(@PathVariable long id, @Valid @RequestBody RecipeRequest request,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.updateRecipe(id, request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> removeRecipe(@PathVariable long id, Authentication auth) {
+        try {
+            service.removeRecipe(id, auth);
+            return ResponseEntity.ok().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
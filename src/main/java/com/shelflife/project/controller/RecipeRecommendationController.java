@@ -0,0 +1,38 @@
+package com.shelflife.project.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.service.RecipeService;
+
+@RestController
+@RequestMapping("/api/storages/{storageId}/recipes")
+public class RecipeRecommendationController {
+
+    @Autowired
+    private RecipeService service;
+
+    @GetMapping()
+    public ResponseEntity<?> recommend(@PathVariable long storageId, @RequestParam(defaultValue = "10") int limit,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.recommend(storageId, limit, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
+}
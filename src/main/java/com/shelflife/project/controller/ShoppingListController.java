@@ -0,0 +1,64 @@
+package com.shelflife.project.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shelflife.project.dto.StockThresholdRequest;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.service.ShoppingListService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/storages/{storageId}/shopping-list")
+public class ShoppingListController {
+
+    @Autowired
+    private ShoppingListService service;
+
+    @GetMapping()
+    public ResponseEntity<?> getShoppingList(@PathVariable long storageId, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getShoppingList(storageId, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{productId}")
+    public ResponseEntity<?> setThreshold(@PathVariable long storageId, @PathVariable long productId,
+            @Valid @RequestBody StockThresholdRequest request, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.setThreshold(storageId, productId, request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<?> removeThreshold(@PathVariable long storageId, @PathVariable long productId,
+            Authentication auth) {
+        try {
+            service.removeThreshold(storageId, productId, auth);
+            return ResponseEntity.ok().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
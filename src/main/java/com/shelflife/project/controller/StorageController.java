@@ -0,0 +1,127 @@
+package com.shelflife.project.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shelflife.project.dto.InviteMemberRequest;
+import com.shelflife.project.dto.StorageRequest;
+import com.shelflife.project.exception.AlreadyMemberException;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.service.StorageService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/storages")
+public class StorageController {
+
+    @Autowired
+    private StorageService service;
+
+    @GetMapping()
+    public ResponseEntity<List<Storage>> getStorages(Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getStorages(auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @PostMapping()
+    public ResponseEntity<?> createStorage(@Valid @RequestBody StorageRequest request, Authentication auth) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(service.createStorage(request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getStorage(@PathVariable long id, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getStorage(id, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> renameStorage(@PathVariable long id, @Valid @RequestBody StorageRequest request,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.renameStorage(id, request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteStorage(@PathVariable long id, Authentication auth) {
+        try {
+            service.removeStorage(id, auth);
+            return ResponseEntity.ok().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/members")
+    public ResponseEntity<?> getMembers(@PathVariable long id, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.getMembers(id, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/members")
+    public ResponseEntity<?> inviteMember(@PathVariable long id, @Valid @RequestBody InviteMemberRequest request,
+            Authentication auth) {
+        try {
+            User member = service.addMember(id, request.getEmail(), auth);
+            return ResponseEntity.status(HttpStatus.CREATED).body(member);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (AlreadyMemberException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.ALREADY_MEMBER);
+        }
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    public ResponseEntity<?> removeMember(@PathVariable long id, @PathVariable long userId, Authentication auth) {
+        try {
+            service.removeMember(id, userId, auth);
+            return ResponseEntity.ok().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.shelflife.project.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shelflife.project.dto.BatchScanRequest;
+import com.shelflife.project.dto.ConsumeItemRequest;
+import com.shelflife.project.dto.MoveItemRequest;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.service.StorageDataService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/storages/{storageId}/items")
+public class StorageDataController {
+
+    @Autowired
+    private StorageDataService service;
+
+    @GetMapping()
+    public ResponseEntity<?> getItems(@PathVariable long storageId, Authentication auth) {
+        try {
+            List<StorageData> items = service.getItems(storageId, auth);
+            return ResponseEntity.ok(items);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterItems(@PathVariable long storageId,
+            @RequestParam(name = "type", required = false) Set<ProductType> types,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresBefore,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.filterItems(storageId, types == null ? Set.of() : types,
+                    expiresBefore, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/scan")
+    public ResponseEntity<?> addScanned(@PathVariable long storageId, @Valid @RequestBody BatchScanRequest request,
+            Authentication auth) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(service.addScanned(storageId, request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{itemId}/consume")
+    public ResponseEntity<?> consume(@PathVariable long storageId, @PathVariable long itemId,
+            @Valid @RequestBody(required = false) ConsumeItemRequest request, Authentication auth) {
+        try {
+            Integer quantity = request == null ? null : request.getQuantity();
+            Optional<StorageData> left = service.consume(storageId, itemId, quantity, auth);
+
+            if (!left.isPresent())
+                return ResponseEntity.noContent().build();
+
+            return ResponseEntity.ok(left.get());
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{itemId}/move")
+    public ResponseEntity<?> move(@PathVariable long storageId, @PathVariable long itemId,
+            @Valid @RequestBody MoveItemRequest request, Authentication auth) {
+        try {
+            return ResponseEntity.ok(service.moveItem(storageId, itemId, request, auth));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{itemId}")
+    public ResponseEntity<?> removeItem(@PathVariable long storageId, @PathVariable long itemId,
+            Authentication auth) {
+        try {
+            service.removeItem(storageId, itemId, auth);
+            return ResponseEntity.ok().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (ItemNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
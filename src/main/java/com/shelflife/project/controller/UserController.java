@@ -3,9 +3,15 @@ package com.shelflife.project.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.shelflife.project.dto.BulkOutcome;
+import com.shelflife.project.dto.BulkUserRequest;
+import com.shelflife.project.dto.BulkUserResponse;
 import com.shelflife.project.dto.ChangeUserDataRequest;
+import com.shelflife.project.dto.UserSearchResponse;
 import com.shelflife.project.exception.EmailExistsException;
 import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.exception.VersionMismatchException;
+import com.shelflife.project.json.ErrorBody;
 import com.shelflife.project.model.User;
 import com.shelflife.project.service.JwtService;
 import com.shelflife.project.service.UserService;
@@ -19,6 +25,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -27,7 +35,11 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
@@ -49,11 +61,30 @@ public class UserController {
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size,
+            Authentication auth) {
+        try {
+            UserSearchResponse result = service.searchUsers(query, page, size, auth);
+            return ResponseEntity.ok(result);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUser(@PathVariable long id, Authentication auth) {
+    public ResponseEntity<?> getUser(@PathVariable long id, Authentication auth, WebRequest webRequest) {
         try {
             User user = service.getUserById(id, auth);
-            return ResponseEntity.ok(user);
+
+            String etag = UserETag.of(user);
+            if (webRequest.checkNotModified(etag))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+
+            return ResponseEntity.ok().eTag(etag).body(user);
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (ItemNotFoundException e) {
@@ -76,11 +107,11 @@ public class UserController {
     @PatchMapping("/{id}")
     public ResponseEntity<?> updateUserData(@PathVariable long id, Authentication auth,
             @Valid @RequestBody ChangeUserDataRequest request, HttpServletRequest httpRequest,
-            HttpServletResponse response) {
+            HttpServletResponse response, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         try {
             long selfId = service.getUserByAuth(auth).get().getId();
-            User updated = service.updateUser(id, request, auth);
+            User updated = service.updateUser(id, request, auth, UserETag.expectedVersion(ifMatch, id));
 
             if (request.getEmail() != null && updated.getId() == selfId) {
                 jwtService.invalidateToken((String) auth.getCredentials());
@@ -94,15 +125,52 @@ public class UserController {
                 response.addCookie(cookie);
             }
 
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok().eTag(UserETag.of(updated)).body(updated);
+        } catch (VersionMismatchException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(e.getMessage(), "Invalid input"));
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
         } catch (EmailExistsException e) {
-            return ResponseEntity.badRequest().body(Map.of("email", "This email is already used"));
+            return ResponseEntity.badRequest().body(ErrorBody.EMAIL_ALREADY_USED);
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
         } catch (ItemNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteUsers(@Valid @RequestBody BulkUserRequest request, Authentication auth) {
+        try {
+            Map<Long, BulkOutcome> results = service.removeUsers(request.getIds(), auth);
+            return ResponseEntity.ok(new BulkUserResponse(results));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/bulk/promote")
+    public ResponseEntity<?> promoteUsers(@Valid @RequestBody BulkUserRequest request, Authentication auth) {
+        return setAdmin(request, true, auth);
+    }
+
+    @PostMapping("/bulk/demote")
+    public ResponseEntity<?> demoteUsers(@Valid @RequestBody BulkUserRequest request, Authentication auth) {
+        return setAdmin(request, false, auth);
+    }
+
+    private ResponseEntity<?> setAdmin(BulkUserRequest request, boolean admin, Authentication auth) {
+        try {
+            Map<Long, BulkOutcome> results = service.setAdmin(request.getIds(), admin, auth);
+            return ResponseEntity.ok(new BulkUserResponse(results));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ErrorBody.invalidInput(e.getMessage()));
+        }
+    }
 }
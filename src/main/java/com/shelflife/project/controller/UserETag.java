@@ -0,0 +1,44 @@
+package com.shelflife.project.controller;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.exception.VersionMismatchException;
+
+/**
+ * ETags for user responses, built from the id and the optimistic lock version.
+ */
+final class UserETag {
+
+    private UserETag() {
+    }
+
+    static String of(User user) {
+        return "\"" + user.getId() + "-" + user.getVersion() + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header expects for the given user, or null
+     * if there is no precondition.
+     */
+    static Long expectedVersion(String ifMatch, long id) throws VersionMismatchException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/"))
+            value = value.substring(2);
+        value = value.replace("\"", "");
+
+        int separator = value.indexOf('-');
+        if (separator < 0)
+            throw new VersionMismatchException();
+
+        try {
+            if (Long.parseLong(value.substring(0, separator)) != id)
+                throw new VersionMismatchException();
+
+            return Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new VersionMismatchException();
+        }
+    }
+}
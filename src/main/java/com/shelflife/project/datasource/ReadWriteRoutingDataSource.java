@@ -0,0 +1,40 @@
+package com.shelflife.project.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the
+ * primary. A read-write transaction pins the thread to the primary until
+ * {@link ReplicaStickiness#clear()} is called.
+ *
+ * Has to be wrapped in a LazyConnectionDataSourceProxy, the transaction
+ * manager fetches the connection before the read-only flag is visible here.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReplicaStickiness.isPinnedToPrimary())
+            return Target.REPLICA;
+
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            ReplicaStickiness.pinToPrimary();
+
+        return Target.PRIMARY;
+    }
+}
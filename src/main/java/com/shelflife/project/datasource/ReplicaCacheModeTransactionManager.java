@@ -0,0 +1,49 @@
+package com.shelflife.project.datasource;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps what a lagging replica returns out of the second-level cache. A new
+ * read-only transaction that {@link ReadWriteRoutingDataSource} will send to
+ * the replica reads the cache but doesn't put into it, the primary fills it.
+ */
+public class ReplicaCacheModeTransactionManager extends JpaTransactionManager {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Override
+    protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
+        super.prepareSynchronization(status, definition);
+
+        if (!status.isNewTransaction() || !definition.isReadOnly() || ReplicaStickiness.isPinnedToPrimary()
+                || !TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(obtainEntityManagerFactory());
+        if (holder == null)
+            return;
+
+        // Set as a property, find() takes its store mode from the properties.
+        // The entity manager outlives the transaction under open-in-view.
+        EntityManager entityManager = holder.getEntityManager();
+        Object previous = entityManager.getProperties().getOrDefault(STORE_MODE, CacheStoreMode.USE);
+        entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (entityManager.isOpen())
+                    entityManager.setProperty(STORE_MODE, previous);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.shelflife.project.datasource;
+
+/**
+ * Remembers that the current thread wrote to the primary, so later read-only
+ * transactions in the same request still see their own writes.
+ */
+public final class ReplicaStickiness {
+
+    private static final ThreadLocal<Boolean> pinned = ThreadLocal.withInitial(() -> false);
+
+    private ReplicaStickiness() {
+    }
+
+    public static void pinToPrimary() {
+        pinned.set(true);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return pinned.get();
+    }
+
+    public static void clear() {
+        pinned.remove();
+    }
+}
@@ -0,0 +1,22 @@
+package com.shelflife.project.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Scheduled jobs reuse the scheduler's threads with no request around them,
+ * so without this one write would pin the thread to the primary for good.
+ */
+public class ReplicaStickinessTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return () -> {
+            ReplicaStickiness.clear();
+            try {
+                runnable.run();
+            } finally {
+                ReplicaStickiness.clear();
+            }
+        };
+    }
+}
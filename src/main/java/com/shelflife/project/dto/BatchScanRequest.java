@@ -0,0 +1,20 @@
+package com.shelflife.project.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class BatchScanRequest {
+    @Valid
+    @NotEmpty(message = "No items given")
+    @Size(max = 500, message = "At most 500 items can be given")
+    private List<ScanItem> items;
+}
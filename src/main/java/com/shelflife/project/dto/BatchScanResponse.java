@@ -0,0 +1,15 @@
+package com.shelflife.project.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class BatchScanResponse {
+    // In request order
+    private List<ScanResult> results;
+}
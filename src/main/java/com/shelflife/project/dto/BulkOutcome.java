@@ -0,0 +1,8 @@
+package com.shelflife.project.dto;
+
+public enum BulkOutcome {
+    DELETED,
+    UPDATED,
+    NOT_FOUND,
+    FORBIDDEN
+}
@@ -0,0 +1,18 @@
+package com.shelflife.project.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class BulkUserRequest {
+    @NotEmpty(message = "No ids given")
+    @Size(max = 10000, message = "At most 10000 ids can be given")
+    private List<Long> ids;
+}
@@ -0,0 +1,15 @@
+package com.shelflife.project.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class BulkUserResponse {
+    // Keyed by id in request order
+    private Map<Long, BulkOutcome> results;
+}
@@ -0,0 +1,15 @@
+package com.shelflife.project.dto;
+
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class ConsumeItemRequest {
+    // Everything that is left when not given
+    @Positive(message = "Invalid quantity")
+    private Integer quantity;
+}
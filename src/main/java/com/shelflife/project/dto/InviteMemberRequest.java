@@ -0,0 +1,16 @@
+package com.shelflife.project.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class InviteMemberRequest {
+    @Email(message = "Invalid email")
+    @NotBlank(message = "Email cannot be empty")
+    private String email;
+}
@@ -0,0 +1,20 @@
+package com.shelflife.project.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.StorageData;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class ItemFilterResponse {
+    private List<StorageData> items;
+    // Items per type under the other filters, for every type
+    private Map<ProductType, Integer> typeCounts;
+}
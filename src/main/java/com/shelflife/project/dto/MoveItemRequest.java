@@ -0,0 +1,19 @@
+package com.shelflife.project.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class MoveItemRequest {
+    @NotNull(message = "Storage cannot be empty")
+    private Long storageId;
+
+    // Moving to the freezer for example changes how long it keeps
+    private LocalDate expiresAt;
+}
@@ -0,0 +1,29 @@
+package com.shelflife.project.dto;
+
+import com.shelflife.project.model.ProductType;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class ProductRequest {
+    @NotBlank(message = "Name cannot be empty")
+    @Size(max = 100, message = "The name can only be 100 characters")
+    private String name;
+
+    @Positive(message = "Invalid barcode")
+    private Long barcode;
+
+    @PositiveOrZero(message = "Invalid expiration")
+    private Integer expirationDays;
+
+    // OTHER when not given
+    private ProductType type;
+}
@@ -0,0 +1,13 @@
+package com.shelflife.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class ProductSuggestion {
+    private long id;
+    private String name;
+}
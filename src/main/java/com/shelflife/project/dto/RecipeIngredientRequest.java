@@ -0,0 +1,18 @@
+package com.shelflife.project.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class RecipeIngredientRequest {
+    @NotNull(message = "Product cannot be empty")
+    private Long productId;
+
+    @Size(max = 255, message = "Amount is too long")
+    private String amount;
+}
@@ -0,0 +1,19 @@
+package com.shelflife.project.dto;
+
+import com.shelflife.project.model.Recipe;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class RecipeRecommendation {
+    private Recipe recipe;
+    // Share of the recipe's ingredients in the storage, 0 to 1
+    private double coverage;
+    private int missing;
+    // Ingredients used that expire soon
+    private int expiring;
+}
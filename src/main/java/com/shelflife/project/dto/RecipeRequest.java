@@ -0,0 +1,27 @@
+package com.shelflife.project.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class RecipeRequest {
+    @NotBlank(message = "Name cannot be empty")
+    private String name;
+
+    @Size(max = 65535, message = "Instructions are too long")
+    private String instructions;
+
+    @Valid
+    @NotEmpty(message = "No ingredients given")
+    @Size(max = 100, message = "At most 100 ingredients can be given")
+    private List<RecipeIngredientRequest> ingredients;
+}
@@ -0,0 +1,24 @@
+package com.shelflife.project.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class ScanItem {
+    @NotNull(message = "Barcode cannot be empty")
+    @Positive(message = "Invalid barcode")
+    private Long barcode;
+
+    @Positive(message = "Invalid quantity")
+    private Integer quantity;
+
+    // Defaults to today plus the product's expiration days
+    private LocalDate expiresAt;
+}
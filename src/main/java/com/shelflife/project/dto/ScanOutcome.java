@@ -0,0 +1,7 @@
+package com.shelflife.project.dto;
+
+public enum ScanOutcome {
+    ADDED,
+    // The barcode was unknown, a placeholder product was created for it
+    ADDED_NEW_PRODUCT
+}
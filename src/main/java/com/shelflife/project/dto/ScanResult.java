@@ -0,0 +1,16 @@
+package com.shelflife.project.dto;
+
+import com.shelflife.project.model.StorageData;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class ScanResult {
+    private long barcode;
+    private ScanOutcome outcome;
+    private StorageData item;
+}
@@ -0,0 +1,17 @@
+package com.shelflife.project.dto;
+
+import com.shelflife.project.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class ShoppingListItem {
+    private Product product;
+    private long quantity;
+    private int minQuantity;
+    private long missing;
+}
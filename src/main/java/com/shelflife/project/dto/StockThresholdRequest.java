@@ -0,0 +1,16 @@
+package com.shelflife.project.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class StockThresholdRequest {
+    @NotNull(message = "Minimum quantity cannot be empty")
+    @Positive(message = "Invalid quantity")
+    private Integer minQuantity;
+}
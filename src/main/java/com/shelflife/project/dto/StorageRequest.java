@@ -0,0 +1,16 @@
+package com.shelflife.project.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+@Data
+@Setter
+@Getter
+public class StorageRequest {
+    @NotBlank(message = "Name cannot be empty")
+    @Size(max = 40, message = "The name can only be 40 characters")
+    private String name;
+}
@@ -0,0 +1,17 @@
+package com.shelflife.project.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class UserSearchResponse {
+    private List<UserSearchResult> results;
+    private int total;
+    private int page;
+    private int size;
+}
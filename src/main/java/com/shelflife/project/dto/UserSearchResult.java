@@ -0,0 +1,24 @@
+package com.shelflife.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.shelflife.project.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+@Data
+@Getter
+@AllArgsConstructor
+public class UserSearchResult {
+    private long id;
+    private String email;
+    private String username;
+
+    @JsonProperty("isAdmin")
+    private boolean isAdmin;
+
+    public static UserSearchResult of(User user) {
+        return new UserSearchResult(user.getId(), user.getEmail(), user.getUsername(), user.isAdmin());
+    }
+}
@@ -0,0 +1,18 @@
+package com.shelflife.project.event;
+
+import java.util.List;
+
+import com.shelflife.project.model.StorageData;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ExpiryNotifier inside the transaction that marks the items
+ * as notified, so listeners can write their own rows atomically with it.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemsExpiringEvent {
+    private final List<StorageData> items;
+}
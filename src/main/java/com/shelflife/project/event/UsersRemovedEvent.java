@@ -0,0 +1,18 @@
+package com.shelflife.project.event;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by UserService when users were deleted. The database removes
+ * their storages and memberships with them; the ids of the storages they
+ * owned are read before the delete.
+ */
+@Getter
+@AllArgsConstructor
+public class UsersRemovedEvent {
+    private final List<Long> userIds;
+    private final List<Long> storageIds;
+}
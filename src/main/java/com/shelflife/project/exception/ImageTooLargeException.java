@@ -0,0 +1,5 @@
+package com.shelflife.project.exception;
+
+public class ImageTooLargeException extends RuntimeException {
+
+}
@@ -0,0 +1,5 @@
+package com.shelflife.project.exception;
+
+public class UnsupportedImageException extends RuntimeException {
+
+}
@@ -0,0 +1,218 @@
+package com.shelflife.project.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.model.IdempotencyRecord;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Handles the Idempotency-Key header on POST requests. The first request
+ * with a key runs normally and its response is stored. Retries with the
+ * same key and body get the stored response back without running the
+ * handler again.
+ *
+ * Keys are scoped to the method, path and logged in user. Responses with a
+ * 5xx status are not stored, so those requests can be retried.
+ * Set-Cookie is never replayed. The body is held in memory to fingerprint
+ * it, so bodies over maxBodySize are refused with 413.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final int maxBodySize;
+
+    public IdempotencyFilter(IdempotencyStore store, int maxBodySize) {
+        this.store = store;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            write(response, HttpStatus.BAD_REQUEST, ErrorBody.invalidInput(HEADER));
+            return;
+        }
+
+        if (request.getContentLengthLong() > maxBodySize) {
+            write(response, HttpStatus.CONTENT_TOO_LARGE, ErrorBody.REQUEST_TOO_LARGE);
+            return;
+        }
+
+        // Chunked bodies have no length up front
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            write(response, HttpStatus.CONTENT_TOO_LARGE, ErrorBody.REQUEST_TOO_LARGE);
+            return;
+        }
+
+        String key = sha256((request.getMethod() + " " + request.getRequestURI() + "\n" + caller() + "\n"
+                + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        String fingerprint = sha256(body);
+
+        IdempotencyRecord existing = store.reserve(key, fingerprint);
+        if (existing != null) {
+            if (!existing.getFingerprint().equals(fingerprint))
+                write(response, HttpStatus.UNPROCESSABLE_CONTENT, ErrorBody.IDEMPOTENCY_KEY_REUSED);
+            else if (!existing.isCompleted())
+                write(response, HttpStatus.CONFLICT, ErrorBody.IDEMPOTENCY_KEY_IN_USE);
+            else
+                replay(response, existing);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+
+            if (cachingResponse.getStatus() < 500) {
+                store.complete(key, cachingResponse.getStatus(), cachingResponse.getContentType(),
+                        cachingResponse.getContentAsByteArray());
+                stored = true;
+            }
+        } finally {
+            if (!stored)
+                store.release(key);
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyRecord record) throws IOException {
+        response.setStatus(record.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (record.getContentType() != null)
+            response.setContentType(record.getContentType());
+
+        byte[] body = record.getBody() == null ? new byte[0] : record.getBody();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static void write(HttpServletResponse response, HttpStatus status, ErrorBody error) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(error.length());
+        error.writeTo(response.getOutputStream());
+    }
+
+    // Runs after the security filter chain, so the user is already known
+    private static String caller() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken)
+            return "";
+
+        return auth.getName();
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already here, so it can be read right away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (in.available() > 0)
+                            listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
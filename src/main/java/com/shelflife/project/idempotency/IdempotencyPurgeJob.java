@@ -0,0 +1,17 @@
+package com.shelflife.project.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyPurgeJob {
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:10m}", initialDelayString = "${app.idempotency.purge-interval:10m}")
+    public void purge() {
+        store.purgeExpired();
+    }
+}
@@ -0,0 +1,26 @@
+package com.shelflife.project.idempotency;
+
+import com.shelflife.project.model.IdempotencyRecord;
+
+/**
+ * Remembers the first response for each Idempotency-Key until the
+ * configured TTL runs out.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserves the key for a new request. Returns null if the key was free
+     * (or expired), otherwise the record of the earlier request, which may
+     * still be running.
+     */
+    IdempotencyRecord reserve(String key, String fingerprint);
+
+    void complete(String key, int status, String contentType, byte[] body);
+
+    /**
+     * Frees a reserved key, so the request can be retried for real.
+     */
+    void release(String key);
+
+    void purgeExpired();
+}
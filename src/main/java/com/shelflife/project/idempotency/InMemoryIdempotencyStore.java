@@ -0,0 +1,136 @@
+package com.shelflife.project.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.shelflife.project.model.IdempotencyRecord;
+
+/**
+ * Store for a single instance. Holds at most app.idempotency.max-entries
+ * keys and app.idempotency.max-bytes of stored responses, the oldest
+ * completed keys are dropped first. Keys of requests still running are
+ * never dropped, a retry would run them twice. A response larger than
+ * max-bytes is not kept at all and frees its key.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.max-bytes:16MB}")
+    private DataSize maxBytes;
+
+    // Insertion order, so the eldest entry is also the first to expire
+    private final LinkedHashMap<String, IdempotencyRecord> records = new LinkedHashMap<>();
+    private long bytes;
+
+    @Override
+    public synchronized IdempotencyRecord reserve(String key, String fingerprint) {
+        IdempotencyRecord existing = records.get(key);
+        // A copy, complete() changes the stored record under the lock
+        if (existing != null && !isExpired(existing))
+            return copy(existing);
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setFingerprint(fingerprint);
+        record.setCreatedAt(LocalDateTime.now());
+
+        remove(key);
+        records.put(key, record);
+        evict();
+        return null;
+    }
+
+    @Override
+    public synchronized void complete(String key, int status, String contentType, byte[] body) {
+        IdempotencyRecord record = records.get(key);
+        if (record == null)
+            return;
+
+        if (body != null && body.length > maxBytes.toBytes()) {
+            remove(key);
+            return;
+        }
+
+        bytes -= bodySize(record);
+        record.setStatus(status);
+        record.setContentType(contentType);
+        record.setBody(body);
+        bytes += bodySize(record);
+        evict();
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        remove(key);
+    }
+
+    @Override
+    public synchronized void purgeExpired() {
+        Iterator<IdempotencyRecord> it = records.values().iterator();
+        while (it.hasNext()) {
+            IdempotencyRecord record = it.next();
+            if (!isExpired(record))
+                break;
+            bytes -= bodySize(record);
+            it.remove();
+        }
+    }
+
+    synchronized int size() {
+        return records.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private void remove(String key) {
+        IdempotencyRecord removed = records.remove(key);
+        if (removed != null)
+            bytes -= bodySize(removed);
+    }
+
+    private void evict() {
+        Iterator<IdempotencyRecord> it = records.values().iterator();
+        while (it.hasNext() && (records.size() > maxEntries || bytes > maxBytes.toBytes())) {
+            IdempotencyRecord record = it.next();
+            if (!record.isCompleted())
+                continue;
+            bytes -= bodySize(record);
+            it.remove();
+        }
+    }
+
+    private static int bodySize(IdempotencyRecord record) {
+        return record.getBody() == null ? 0 : record.getBody().length;
+    }
+
+    private static IdempotencyRecord copy(IdempotencyRecord record) {
+        IdempotencyRecord copy = new IdempotencyRecord();
+        copy.setKey(record.getKey());
+        copy.setFingerprint(record.getFingerprint());
+        copy.setStatus(record.getStatus());
+        copy.setContentType(record.getContentType());
+        copy.setBody(record.getBody());
+        copy.setCreatedAt(record.getCreatedAt());
+        return copy;
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return record.getCreatedAt().plus(ttl).isBefore(LocalDateTime.now());
+    }
+}
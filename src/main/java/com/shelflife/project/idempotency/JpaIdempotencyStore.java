@@ -0,0 +1,94 @@
+package com.shelflife.project.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shelflife.project.model.IdempotencyRecord;
+import com.shelflife.project.repository.IdempotencyRecordRepository;
+
+/**
+ * Store shared by every instance through the idempotency_keys table. The
+ * primary key decides which instance gets to run a request.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jpa")
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Autowired
+    private IdempotencyRecordRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public IdempotencyRecord reserve(String key, String fingerprint) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            return transaction.execute(status -> reserveOrGet(key, fingerprint));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the key in between and is still running
+            return transaction.execute(status -> repo.findById(key).orElseGet(() -> running(key, fingerprint)));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, int status, String contentType, byte[] body) {
+        repo.findById(key).ifPresent(record -> {
+            record.setStatus(status);
+            record.setContentType(contentType);
+            record.setBody(body);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        repo.deleteById(key);
+    }
+
+    @Override
+    @Transactional
+    public void purgeExpired() {
+        repo.deleteOlderThan(LocalDateTime.now().minus(ttl));
+    }
+
+    private IdempotencyRecord reserveOrGet(String key, String fingerprint) {
+        Optional<IdempotencyRecord> existing = repo.findById(key);
+        if (existing.isPresent()) {
+            if (!existing.get().getCreatedAt().plus(ttl).isBefore(LocalDateTime.now()))
+                return existing.get();
+
+            repo.delete(existing.get());
+            repo.flush();
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setFingerprint(fingerprint);
+        record.setCreatedAt(LocalDateTime.now());
+        repo.saveAndFlush(record);
+        return null;
+    }
+
+    private static IdempotencyRecord running(String key, String fingerprint) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setFingerprint(fingerprint);
+        return record;
+    }
+}
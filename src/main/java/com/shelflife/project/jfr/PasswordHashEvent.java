@@ -0,0 +1,28 @@
+package com.shelflife.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.shelflife.PasswordHash")
+@Label("Password Hash")
+@Description("BCrypt encode or match done by UserService")
+@Category({ "ShelfLife", "Security" })
+@Threshold("10 ms")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    public static final String ENCODE = "encode";
+    public static final String MATCHES = "matches";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    @Description("Result of a matches operation, always false for encode")
+    public boolean matched;
+}
@@ -0,0 +1,27 @@
+package com.shelflife.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.shelflife.RepositoryCall")
+@Label("Repository Call")
+@Description("A single method call on a Spring Data repository")
+@Category({ "ShelfLife", "Persistence" })
+@Threshold("5 ms")
+@StackTrace(true)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Failed")
+    public boolean failed;
+}
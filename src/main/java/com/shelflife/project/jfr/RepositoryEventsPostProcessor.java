@@ -0,0 +1,56 @@
+package com.shelflife.project.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds an interceptor to every Spring Data repository proxy that wraps each
+ * call in a {@link RepositoryCallEvent}.
+ */
+@Component
+public class RepositoryEventsPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        // Has to be first, the Spring Data query executor ends the chain without proceeding
+        if (bean instanceof Repository<?, ?> && bean instanceof Advised advised)
+            advised.addAdvice(0, new RepositoryCallInterceptor(beanName));
+
+        return bean;
+    }
+
+    private static class RepositoryCallInterceptor implements MethodInterceptor {
+        private final String repository;
+
+        RepositoryCallInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled())
+                return invocation.proceed();
+
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                event.failed = true;
+                throw e;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.commit();
+                }
+            }
+        }
+    }
+}
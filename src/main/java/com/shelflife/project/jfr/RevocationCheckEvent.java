@@ -0,0 +1,21 @@
+package com.shelflife.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.shelflife.RevocationCheck")
+@Label("JWT Revocation Check")
+@Description("Lookup of a JWT in the invalidated token table")
+@Category({ "ShelfLife", "Security" })
+@Threshold("1 ms")
+@StackTrace(false)
+public class RevocationCheckEvent extends Event {
+
+    @Label("Revoked")
+    public boolean revoked;
+}
@@ -0,0 +1,25 @@
+package com.shelflife.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.shelflife.TokenVerification")
+@Label("JWT Verification")
+@Description("Signature check and subject extraction of a JWT in JwtAuthFilter")
+@Category({ "ShelfLife", "Security" })
+@Threshold("1 ms")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+
+    @Label("Source")
+    @Description("Where the token was read from: header or cookie")
+    public String source;
+
+    @Label("Valid")
+    public boolean valid;
+}
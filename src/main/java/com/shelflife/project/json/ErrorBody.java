@@ -0,0 +1,78 @@
+package com.shelflife.project.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * A fixed {"field": "message"} error response. The JSON is serialized once
+ * and {@link PrecomputedJsonHttpMessageConverter} copies the bytes straight
+ * into the response.
+ */
+public final class ErrorBody {
+
+    public static final ErrorBody INVALID_LOGIN = new ErrorBody("error", "Invalid email or password");
+    public static final ErrorBody ALREADY_LOGGED_IN = new ErrorBody("error", "Already logged in");
+    public static final ErrorBody NOT_LOGGED_IN = new ErrorBody("error", "You are not logged in");
+    public static final ErrorBody EMAIL_EXISTS = new ErrorBody("email", "Email already exists");
+    public static final ErrorBody EMAIL_ALREADY_USED = new ErrorBody("email", "This email is already used");
+    public static final ErrorBody PASSWORDS_DONT_MATCH = new ErrorBody("passwordRepeat", "The passwords are not the same");
+    public static final ErrorBody NEW_PASSWORDS_DONT_MATCH = new ErrorBody("newPasswordRepeat", "The passwords are not the same");
+    public static final ErrorBody INVALID_OLD_PASSWORD = new ErrorBody("oldPassword", "Invalid old password");
+    public static final ErrorBody ALREADY_MEMBER = new ErrorBody("email", "This user is already a member");
+    public static final ErrorBody BARCODE_EXISTS = new ErrorBody("barcode", "A product with this barcode already exists");
+    public static final ErrorBody IMAGE_TOO_LARGE = new ErrorBody("image", "The image is too large");
+    public static final ErrorBody UNSUPPORTED_IMAGE = new ErrorBody("image", "Only JPEG, PNG and GIF images are supported");
+    public static final ErrorBody IDEMPOTENCY_KEY_IN_USE = new ErrorBody("error", "A request with this Idempotency-Key is still running");
+    public static final ErrorBody REQUEST_TOO_LARGE = new ErrorBody("error", "The request body is too large");
+    public static final ErrorBody IDEMPOTENCY_KEY_REUSED = new ErrorBody("error", "This Idempotency-Key was used for a different request");
+
+    private static final ErrorBody INVALID_INPUT_NO_FIELD = new ErrorBody("error", "Invalid input");
+
+    // The fields our own code rejects. Any other exception message gets a
+    // body of its own, so arbitrary messages can't grow the map.
+    private static final Map<String, ErrorBody> INVALID_INPUT = invalidInputs("email", "username", "page", "size",
+            "limit", "ids", "ingredients", "Idempotency-Key");
+
+    private final Map<String, String> fields;
+    private final byte[] json;
+
+    private ErrorBody(String field, String message) {
+        fields = Map.of(field, message);
+        json = JsonMapper.shared().writeValueAsBytes(fields);
+    }
+
+    public static ErrorBody invalidInput(String field) {
+        if (field == null)
+            return INVALID_INPUT_NO_FIELD;
+
+        ErrorBody body = INVALID_INPUT.get(field);
+        return body != null ? body : new ErrorBody(field, "Invalid input");
+    }
+
+    private static Map<String, ErrorBody> invalidInputs(String... fields) {
+        Map<String, ErrorBody> bodies = new HashMap<>();
+        for (String field : fields)
+            bodies.put(field, new ErrorBody(field, "Invalid input"));
+        return Map.copyOf(bodies);
+    }
+
+    // Used when the body ends up with the regular Jackson converter
+    @JsonValue
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    public int length() {
+        return json.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(json);
+    }
+}
@@ -0,0 +1,92 @@
+package com.shelflife.project.json;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractSmartHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import com.shelflife.project.dto.BulkUserResponse;
+import com.shelflife.project.dto.UserSearchResponse;
+import com.shelflife.project.model.User;
+
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes the hot response types with ObjectWriters that were resolved once
+ * at startup, and {@link ErrorBody} responses from their pre-serialized
+ * bytes. Anything else is left to the regular Jackson converter.
+ *
+ * Types are matched exactly, so Hibernate proxies and subclasses also fall
+ * through to the regular converter.
+ */
+public class PrecomputedJsonHttpMessageConverter extends AbstractSmartHttpMessageConverter<Object> {
+
+    private final Map<Class<?>, ObjectWriter> writers;
+    private final ObjectWriter userListWriter;
+
+    public PrecomputedJsonHttpMessageConverter(JsonMapper mapper) {
+        super(MediaType.APPLICATION_JSON);
+
+        writers = Map.of(
+                User.class, mapper.writerFor(User.class),
+                UserSearchResponse.class, mapper.writerFor(UserSearchResponse.class),
+                BulkUserResponse.class, mapper.writerFor(BulkUserResponse.class));
+        userListWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, User.class));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ErrorBody.class || writers.containsKey(clazz) || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(ResolvableType type, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType targetType, Class<?> valueClass, MediaType mediaType) {
+        return (valueClass == ErrorBody.class || writerFor(targetType, valueClass) != null) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(ResolvableType type, HttpInputMessage inputMessage, Map<String, Object> hints)
+            throws IOException, HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Write only converter", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Object value, MediaType contentType) throws IOException {
+        return value instanceof ErrorBody error ? (long) error.length() : null;
+    }
+
+    @Override
+    protected void writeInternal(Object value, ResolvableType type, HttpOutputMessage outputMessage,
+            Map<String, Object> hints) throws IOException {
+        if (value instanceof ErrorBody error) {
+            error.writeTo(outputMessage.getBody());
+            return;
+        }
+
+        writerFor(type, value.getClass()).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), value);
+    }
+
+    private ObjectWriter writerFor(ResolvableType type, Class<?> valueClass) {
+        ObjectWriter writer = writers.get(valueClass);
+        if (writer != null)
+            return writer;
+
+        if (List.class.isAssignableFrom(valueClass) && type.asCollection().resolveGeneric(0) == User.class)
+            return userListWriter;
+
+        return null;
+    }
+}
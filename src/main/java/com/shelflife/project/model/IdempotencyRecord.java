@@ -0,0 +1,43 @@
+package com.shelflife.project.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    // SHA-256 of the method, path, caller and Idempotency-Key
+    @Id
+    @Column(name = "scope_key", length = 64)
+    private String key;
+
+    // SHA-256 of the request body
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Null while the first request is still running
+    private Integer status;
+
+    private String contentType;
+
+    @Lob
+    @Column(length = 1048576)
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+}
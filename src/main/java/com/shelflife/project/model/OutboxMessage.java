@@ -0,0 +1,64 @@
+package com.shelflife.project.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// An email waiting to be sent, written in the transaction of the change it is about
+@Entity
+@Getter
+@Setter
+@Table(name = "outbox_messages", indexes = @Index(name = "idx_outbox_messages_available_at", columnList = "available_at"))
+public class OutboxMessage {
+
+    public enum Kind {
+        WELCOME,
+        STORAGE_INVITE,
+        ITEM_EXPIRING
+    }
+
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private String body;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not claimed before this, pushed back while a dispatcher holds it and after failures
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Set when it ran out of attempts, it is kept for inspection and never claimed again
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,54 @@
+package com.shelflife.project.model;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "products", uniqueConstraints = @UniqueConstraint(name = "uk_products_barcode", columnNames = "barcode"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class Product {
+
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @JsonProperty("name")
+    @Column(nullable = false)
+    private String name;
+
+    // Products added by filling out the form may not have one
+    @JsonProperty("barcode")
+    private Long barcode;
+
+    // How many days an item of this product keeps after it was added
+    @JsonProperty("expirationDays")
+    @Column(name = "expiration_days")
+    private Integer expirationDays;
+
+    @JsonProperty("type")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductType type = ProductType.OTHER;
+
+    // Key of the image in ImageStore, served from /api/images/{image}
+    @JsonProperty("image")
+    @Column(length = 72)
+    private String image;
+}
@@ -0,0 +1,14 @@
+package com.shelflife.project.model;
+
+public enum ProductType {
+    DAIRY,
+    MEAT,
+    FISH,
+    FRUIT,
+    VEGETABLE,
+    BAKERY,
+    FROZEN,
+    DRINK,
+    PANTRY,
+    OTHER
+}
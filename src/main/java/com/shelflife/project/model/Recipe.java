@@ -0,0 +1,43 @@
+package com.shelflife.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "recipes")
+public class Recipe {
+
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @JsonProperty("name")
+    @Column(nullable = false)
+    private String name;
+
+    @JsonProperty("instructions")
+    @Lob
+    @Column(length = 65535)
+    private String instructions;
+
+    @JsonProperty("ingredients")
+    @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    private List<RecipeIngredient> ingredients = new ArrayList<>();
+}
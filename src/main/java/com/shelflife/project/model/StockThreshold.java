@@ -0,0 +1,48 @@
+package com.shelflife.project.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+// A product goes on the storage's shopping list when less than this is left
+@Entity
+@Getter
+@Setter
+@Table(name = "stock_thresholds", uniqueConstraints = @UniqueConstraint(name = "uk_stock_thresholds_storage_product", columnNames = {
+        "storage_id", "product_id" }))
+public class StockThreshold {
+
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @JsonIgnore
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "storage_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Storage storage;
+
+    @JsonProperty("product")
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    @JsonProperty("minQuantity")
+    @Column(name = "min_quantity", nullable = false)
+    private int minQuantity;
+}
@@ -0,0 +1,62 @@
+package com.shelflife.project.model;
+
+import java.time.LocalDate;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// One item of a product in a storage
+@Entity
+@Getter
+@Setter
+@Table(name = "storage_data", indexes = @Index(name = "idx_storage_data_expires_at", columnList = "expires_at"))
+public class StorageData {
+
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @JsonIgnore
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "storage_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Storage storage;
+
+    @JsonProperty("product")
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    @JsonProperty("quantity")
+    @Column(nullable = false)
+    private int quantity;
+
+    @JsonProperty("createdAt")
+    @Column(name = "created_at", nullable = false)
+    private LocalDate createdAt;
+
+    @JsonProperty("expiresAt")
+    @Column(name = "expires_at")
+    private LocalDate expiresAt;
+
+    // Set once the expiry notice went out, so a restart doesn't send it again
+    @JsonIgnore
+    @Column(name = "expiry_notified", nullable = false)
+    private boolean expiryNotified;
+}
@@ -0,0 +1,37 @@
+package com.shelflife.project.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+// An invited user of a storage, the owner is not stored here
+@Entity
+@Getter
+@Setter
+@Table(name = "storage_members", uniqueConstraints = @UniqueConstraint(name = "uk_storage_members_storage_user", columnNames = {
+        "storage_id", "user_id" }))
+public class StorageMember {
+
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "storage_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Storage storage;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+}
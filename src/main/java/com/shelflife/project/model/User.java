@@ -1,20 +1,36 @@
 package com.shelflife.project.model;
 
+import java.util.Locale;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
 @Getter
 @Setter
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_normalized_email", columnNames = "normalized_email") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
 
     @Id
@@ -22,9 +38,16 @@ public class User {
     private long id;
 
     @JsonProperty("email")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
+    // Lookup key for email, kept in sync by setEmail
+    @JsonIgnore
+    @NaturalId(mutable = true)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_email", nullable = false)
+    private String normalizedEmail;
+
     @JsonProperty("username")
     @Column(nullable = false)
     private String username;
@@ -35,4 +58,21 @@ public class User {
 
     @JsonProperty("isAdmin")
     private boolean isAdmin;
+
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+
+    public static String normalizeEmail(String email) {
+        if (email == null)
+            return null;
+
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
 }
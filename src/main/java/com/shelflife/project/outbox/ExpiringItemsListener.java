@@ -0,0 +1,55 @@
+package com.shelflife.project.outbox;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.shelflife.project.event.ItemsExpiringEvent;
+import com.shelflife.project.model.OutboxMessage;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.StorageMemberRepository;
+
+/**
+ * Queues an expiry email for the owner and every member of the storage an
+ * item is in. Runs inside the transaction that marks the items notified.
+ */
+@Component
+public class ExpiringItemsListener {
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private StorageMemberRepository memberRepo;
+
+    @EventListener
+    public void onItemsExpiring(ItemsExpiringEvent event) {
+        Map<Long, List<StorageData>> byStorage = new LinkedHashMap<>();
+        for (StorageData item : event.getItems())
+            byStorage.computeIfAbsent(item.getStorage().getId(), id -> new ArrayList<>()).add(item);
+
+        for (List<StorageData> items : byStorage.values()) {
+            Storage storage = items.get(0).getStorage();
+
+            List<User> recipients = new ArrayList<>(memberRepo.findUsersByStorageId(storage.getId()));
+            recipients.add(storage.getOwner());
+
+            for (User recipient : recipients) {
+                for (StorageData item : items) {
+                    String product = item.getProduct().getName();
+                    outbox.enqueue(recipient.getEmail(), OutboxMessage.Kind.ITEM_EXPIRING,
+                            product + " expires on " + item.getExpiresAt(),
+                            product + " (" + item.getQuantity() + ") in " + storage.getName() + " expires on "
+                                    + item.getExpiresAt() + ".");
+                }
+            }
+        }
+    }
+}
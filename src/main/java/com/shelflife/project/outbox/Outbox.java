@@ -0,0 +1,37 @@
+package com.shelflife.project.outbox;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.model.OutboxMessage;
+import com.shelflife.project.repository.OutboxMessageRepository;
+
+/**
+ * Queues emails in the outbox_messages table. Has to join the transaction of
+ * the change the email is about, so the email exists exactly when the change
+ * was committed. OutboxDispatcher sends them later.
+ */
+@Component
+public class Outbox {
+
+    @Autowired
+    private OutboxMessageRepository repo;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxMessage enqueue(String recipient, OutboxMessage.Kind kind, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+
+        OutboxMessage message = new OutboxMessage();
+        message.setRecipient(recipient);
+        message.setKind(kind);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setCreatedAt(now);
+        message.setAvailableAt(now);
+        return repo.save(message);
+    }
+}
@@ -0,0 +1,197 @@
+package com.shelflife.project.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shelflife.project.model.OutboxMessage;
+import com.shelflife.project.repository.OutboxMessageRepository;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends queued emails in batches. A batch is claimed with SELECT ... FOR
+ * UPDATE SKIP LOCKED and leased by pushing available_at into the future, so
+ * several instances can dispatch at once and the row locks are released
+ * before SMTP is talked to. Messages are merged into one digest per
+ * recipient, and the whole batch goes out over a single SMTP connection.
+ *
+ * Sent messages are deleted. Failed ones are retried with exponential
+ * backoff until max-attempts, then marked failed. A crash between sending
+ * and deleting sends the batch again once the lease runs out.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.backoff:30s}")
+    private Duration backoff;
+
+    @Value("${app.outbox.max-backoff:6h}")
+    private Duration maxBackoff;
+
+    @Value("${app.mail.from:noreply@shelflife.local}")
+    private String from;
+
+    @Autowired
+    private OutboxMessageRepository repo;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:10s}", initialDelayString = "${app.outbox.poll-interval:10s}")
+    public void poll() {
+        while (dispatch() == batchSize) {
+            // A full batch, there may be more waiting
+        }
+    }
+
+    /**
+     * Claims and sends one batch. Returns the number of messages claimed.
+     */
+    public int dispatch() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<OutboxMessage> claimed = transaction.execute(status -> claim());
+
+        if (claimed.isEmpty())
+            return 0;
+
+        Map<String, List<OutboxMessage>> digests = new LinkedHashMap<>();
+        for (OutboxMessage message : claimed)
+            digests.computeIfAbsent(message.getRecipient(), r -> new ArrayList<>()).add(message);
+
+        Map<MimeMessage, List<OutboxMessage>> mails = new LinkedHashMap<>();
+        Set<OutboxMessage> failed = new HashSet<>();
+        String error = null;
+
+        for (List<OutboxMessage> digest : digests.values()) {
+            try {
+                mails.put(toMail(digest), digest);
+            } catch (MessagingException e) {
+                failed.addAll(digest);
+                error = e.getMessage();
+            }
+        }
+
+        try {
+            if (!mails.isEmpty())
+                mailSender.send(mails.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                mails.values().forEach(failed::addAll);
+            } else {
+                e.getFailedMessages().keySet().forEach(mail -> failed.addAll(mails.get(mail)));
+            }
+            error = e.getMessage();
+        } catch (MailException e) {
+            mails.values().forEach(failed::addAll);
+            error = e.getMessage();
+        }
+
+        String lastError = error;
+        transaction.executeWithoutResult(status -> finish(claimed, failed, lastError));
+
+        if (!failed.isEmpty())
+            log.warn("Sending {} of {} outbox messages failed: {}", failed.size(), claimed.size(), lastError);
+
+        return claimed.size();
+    }
+
+    private List<OutboxMessage> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> claimed = repo.findClaimable(now, Limit.of(batchSize));
+
+        for (OutboxMessage message : claimed) {
+            message.setAvailableAt(now.plus(lease));
+            message.setAttempts(message.getAttempts() + 1);
+        }
+
+        return claimed;
+    }
+
+    private void finish(List<OutboxMessage> claimed, Set<OutboxMessage> failed, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = new ArrayList<>();
+
+        for (OutboxMessage message : claimed) {
+            if (!failed.contains(message)) {
+                sent.add(message.getId());
+                continue;
+            }
+
+            repo.findById(message.getId()).ifPresent(row -> {
+                row.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+                if (row.getAttempts() >= maxAttempts) {
+                    row.setFailedAt(now);
+                } else {
+                    row.setAvailableAt(now.plus(backoff(row.getAttempts())));
+                }
+            });
+        }
+
+        repo.deleteAllByIdInBatch(sent);
+    }
+
+    // 30s, 1m, 2m, ... up to max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private MimeMessage toMail(List<OutboxMessage> digest) throws MessagingException {
+        MimeMessage mail = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mail, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(digest.get(0).getRecipient());
+
+        if (digest.size() == 1) {
+            helper.setSubject(digest.get(0).getSubject());
+            helper.setText(digest.get(0).getBody());
+            return mail;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (OutboxMessage message : digest) {
+            if (!text.isEmpty())
+                text.append("\n\n");
+            text.append(message.getSubject()).append("\n\n").append(message.getBody());
+        }
+
+        helper.setSubject("ShelfLife: " + digest.size() + " notifications");
+        helper.setText(text.toString());
+        return mail;
+    }
+}
@@ -0,0 +1,28 @@
+package com.shelflife.project.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.OutboxMessage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    // SELECT ... FOR UPDATE SKIP LOCKED: rows another dispatcher is claiming are passed over
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.failedAt IS NULL AND m.availableAt <= :now ORDER BY m.id")
+    List<OutboxMessage> findClaimable(@Param("now") LocalDateTime now, Limit limit);
+
+    List<OutboxMessage> findByRecipientOrderById(String recipient);
+}
@@ -0,0 +1,38 @@
+package com.shelflife.project.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.Product;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    Optional<Product> findByBarcode(long barcode);
+
+    List<Product> findByBarcodeIn(Collection<Long> barcodes);
+
+    Boolean existsByBarcode(long barcode);
+
+    // Rows are { barcode, id }, streamed so the whole catalog is never in memory as entities
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.barcode, p.id FROM Product p WHERE p.barcode IS NOT NULL")
+    Stream<Object[]> streamBarcodes();
+
+    // Rows are { id, name }
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.name FROM Product p")
+    Stream<Object[]> streamNames();
+
+    List<Product> findByNameStartingWithIgnoreCaseOrderByName(String prefix, Pageable page);
+}
@@ -0,0 +1,32 @@
+package com.shelflife.project.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.Recipe;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients i LEFT JOIN FETCH i.product WHERE r.id = :id")
+    Optional<Recipe> findWithIngredientsById(@Param("id") long id);
+
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients i LEFT JOIN FETCH i.product WHERE r.id IN :ids")
+    List<Recipe> findWithIngredientsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows are { recipeId, productId }, grouped by recipe
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT i.recipe.id, i.product.id FROM RecipeIngredient i ORDER BY i.recipe.id")
+    Stream<Object[]> streamIngredients();
+}
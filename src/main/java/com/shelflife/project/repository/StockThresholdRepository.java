@@ -0,0 +1,25 @@
+package com.shelflife.project.repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.StockThreshold;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface StockThresholdRepository extends JpaRepository<StockThreshold, Long> {
+    Optional<StockThreshold> findByStorageIdAndProductId(long storageId, long productId);
+
+    // Rows are { storageId, productId, minQuantity }
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.storage.id, t.product.id, t.minQuantity FROM StockThreshold t")
+    Stream<Object[]> streamThresholds();
+}
@@ -0,0 +1,58 @@
+package com.shelflife.project.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.StorageData;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface StorageDataRepository extends JpaRepository<StorageData, Long>, StorageDataRepositoryCustom {
+    @Query("SELECT d FROM StorageData d JOIN FETCH d.product WHERE d.storage.id = :storageId ORDER BY d.id")
+    List<StorageData> findByStorageId(@Param("storageId") long storageId);
+
+    Optional<StorageData> findByIdAndStorageId(long id, long storageId);
+
+    // Rows are { id, expiresAt }, a range scan on idx_storage_data_expires_at
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.id, d.expiresAt FROM StorageData d WHERE d.expiresAt >= :from AND d.expiryNotified = false")
+    Stream<Object[]> streamPendingExpirations(@Param("from") LocalDate from);
+
+    // Rows are { storageId, productId, total quantity }
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.storage.id, d.product.id, SUM(d.quantity) FROM StorageData d GROUP BY d.storage.id, d.product.id")
+    Stream<Object[]> streamQuantities();
+
+    // Rows are { id, storageId, productId, product type, expiresAt }
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.id, d.storage.id, d.product.id, d.product.type, d.expiresAt FROM StorageData d")
+    Stream<Object[]> streamFacets();
+
+    // Rows are { productId, number of items }
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.product.id, COUNT(d) FROM StorageData d GROUP BY d.product.id")
+    Stream<Object[]> streamProductCounts();
+
+    @Query("SELECT d FROM StorageData d JOIN FETCH d.product WHERE d.id IN :ids ORDER BY d.id")
+    List<StorageData> findWithProductByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows are { productId, earliest expiry date }
+    @Query("SELECT d.product.id, MIN(d.expiresAt) FROM StorageData d WHERE d.storage.id = :storageId GROUP BY d.product.id")
+    List<Object[]> findPantry(@Param("storageId") long storageId);
+
+    @Query("SELECT d FROM StorageData d JOIN FETCH d.product JOIN FETCH d.storage "
+            + "WHERE d.id IN :ids AND d.expiryNotified = false")
+    List<StorageData> findPendingExpirations(@Param("ids") Collection<Long> ids);
+}
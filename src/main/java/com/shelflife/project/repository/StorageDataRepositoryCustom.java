@@ -0,0 +1,17 @@
+package com.shelflife.project.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.StorageData;
+
+public interface StorageDataRepositoryCustom {
+    void insertAll(List<StorageData> items);
+
+    List<StorageData> filter(long storageId, Collection<ProductType> types, LocalDate expiringBefore);
+
+    Map<ProductType, Integer> countByType(long storageId, LocalDate expiringBefore);
+}
@@ -0,0 +1,93 @@
+package com.shelflife.project.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.StorageData;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Inserts new items as one JDBC batch: the session batch size is raised to
+ * the number of items for the flush, and ids come from the pooled sequence.
+ * On MySQL the driver only sends it as one statement with
+ * rewriteBatchedStatements=true on the datasource url.
+ *
+ * filter and countByType answer filtered storage views from the database
+ * while StorageItemIndex is not ready yet.
+ */
+public class StorageDataRepositoryCustomImpl implements StorageDataRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void insertAll(List<StorageData> items) {
+        if (items.isEmpty())
+            return;
+
+        Session session = entityManager.unwrap(Session.class);
+        Integer previous = session.getJdbcBatchSize();
+
+        // Whatever is pending goes out first, so the batch holds only the new items
+        session.flush();
+        session.setJdbcBatchSize(items.size());
+        try {
+            for (StorageData item : items)
+                session.persist(item);
+            session.flush();
+        } finally {
+            session.setJdbcBatchSize(previous);
+        }
+    }
+
+    @Override
+    public List<StorageData> filter(long storageId, Collection<ProductType> types, LocalDate expiringBefore) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT d FROM StorageData d JOIN FETCH d.product p WHERE d.storage.id = :storageId");
+        if (!types.isEmpty())
+            jpql.append(" AND p.type IN :types");
+        if (expiringBefore != null)
+            jpql.append(" AND d.expiresAt < :before");
+        jpql.append(" ORDER BY d.id");
+
+        TypedQuery<StorageData> query = entityManager.createQuery(jpql.toString(), StorageData.class)
+                .setParameter("storageId", storageId);
+        if (!types.isEmpty())
+            query.setParameter("types", types);
+        if (expiringBefore != null)
+            query.setParameter("before", expiringBefore);
+
+        return query.getResultList();
+    }
+
+    @Override
+    public Map<ProductType, Integer> countByType(long storageId, LocalDate expiringBefore) {
+        String jpql = "SELECT d.product.type, COUNT(d) FROM StorageData d WHERE d.storage.id = :storageId"
+                + (expiringBefore != null ? " AND d.expiresAt < :before" : "")
+                + " GROUP BY d.product.type";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("storageId", storageId);
+        if (expiringBefore != null)
+            query.setParameter("before", expiringBefore);
+
+        Map<ProductType, Integer> counts = new EnumMap<>(ProductType.class);
+        for (ProductType type : ProductType.values())
+            counts.put(type, 0);
+        for (Object[] row : query.getResultList())
+            counts.put((ProductType) row[0], ((Long) row[1]).intValue());
+
+        return counts;
+    }
+}
@@ -0,0 +1,25 @@
+package com.shelflife.project.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.StorageMember;
+import com.shelflife.project.model.User;
+
+@Repository
+public interface StorageMemberRepository extends JpaRepository<StorageMember, Long> {
+    Optional<StorageMember> findByStorageIdAndUserId(long storageId, long userId);
+
+    boolean existsByStorageIdAndUserId(long storageId, long userId);
+
+    @Query("SELECT m.user FROM StorageMember m WHERE m.storage.id = :storageId ORDER BY m.user.id")
+    List<User> findUsersByStorageId(@Param("storageId") long storageId);
+
+    @Query("SELECT m.user.id FROM StorageMember m WHERE m.storage.id = :storageId")
+    List<Long> findUserIdsByStorageId(@Param("storageId") long storageId);
+}
@@ -0,0 +1,25 @@
+package com.shelflife.project.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shelflife.project.model.Storage;
+
+@Repository
+public interface StorageRepository extends JpaRepository<Storage, Long> {
+    @Query("SELECT s.id FROM Storage s WHERE s.owner.id = :userId "
+            + "UNION SELECT m.storage.id FROM StorageMember m WHERE m.user.id = :userId")
+    List<Long> findAccessibleIds(@Param("userId") long userId);
+
+    @Query("SELECT s.id FROM Storage s WHERE s.owner.id IN :ownerIds")
+    List<Long> findIdsByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    @Query("SELECT s FROM Storage s WHERE s.owner.id = :userId "
+            + "OR s.id IN (SELECT m.storage.id FROM StorageMember m WHERE m.user.id = :userId) ORDER BY s.id")
+    List<Storage> findAccessible(@Param("userId") long userId);
+}
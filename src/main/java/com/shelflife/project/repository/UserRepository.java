@@ -1,14 +1,43 @@
 package com.shelflife.project.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.shelflife.project.model.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    Boolean existsByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Boolean existsByNormalizedEmail(String normalizedEmail);
+
+    default Boolean existsByEmail(String email) {
+        return existsByNormalizedEmail(User.normalizeEmail(email));
+    }
+
+    // The pattern has to be lower case with % _ and \ escaped
+    @Query("SELECT u FROM User u WHERE u.normalizedEmail LIKE CONCAT('%', :pattern, '%') ESCAPE '\\' "
+            + "OR LOWER(u.username) LIKE CONCAT('%', :pattern, '%') ESCAPE '\\'")
+    List<User> searchByEmailOrUsername(@Param("pattern") String pattern);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bumps the version so ETags handed out before the change stop matching
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.isAdmin = :admin, u.version = u.version + 1 WHERE u.id IN :ids AND u.isAdmin <> :admin")
+    int updateAdminByIdIn(@Param("ids") Collection<Long> ids, @Param("admin") boolean admin);
 }
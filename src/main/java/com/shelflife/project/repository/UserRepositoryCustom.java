@@ -0,0 +1,9 @@
+package com.shelflife.project.repository;
+
+import java.util.Optional;
+
+import com.shelflife.project.model.User;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByEmail(String email);
+}
@@ -10,6 +10,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.shelflife.project.jfr.RevocationCheckEvent;
+import com.shelflife.project.jfr.TokenVerificationEvent;
 import com.shelflife.project.repository.InvalidJwtRepository;
 import com.shelflife.project.service.CustomUserDetailsService;
 import com.shelflife.project.service.JwtService;
@@ -39,15 +41,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String token = null;
+        String source = null;
         Cookie[] cookies = request.getCookies();
 
         final String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
+            source = "header";
         } else if (cookies != null) {
             for (Cookie c : cookies) {
                 if (c.getName().equals("jwt")) {
                     token = c.getValue();
+                    source = "cookie";
                 }
             }
         }
@@ -57,13 +62,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (jwtRepository.findByToken(token).isPresent()) {
+        if (isRevoked(token)) {
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            String username = jwtService.extractEmail(token);
+            String username = verifyToken(token, source);
             if (username != null &&
                     SecurityContextHolder.getContext().getAuthentication() == null) {
 
@@ -82,4 +87,29 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isRevoked(String token) {
+        RevocationCheckEvent event = new RevocationCheckEvent();
+        event.begin();
+
+        boolean revoked = jwtRepository.findByToken(token).isPresent();
+
+        event.revoked = revoked;
+        event.commit();
+        return revoked;
+    }
+
+    private String verifyToken(String token, String source) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.source = source;
+        event.begin();
+
+        try {
+            String email = jwtService.extractEmail(token);
+            event.valid = true;
+            return email;
+        } finally {
+            event.commit();
+        }
+    }
 }
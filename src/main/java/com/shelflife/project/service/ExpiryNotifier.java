@@ -0,0 +1,41 @@
+package com.shelflife.project.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.event.ItemsExpiringEvent;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.repository.StorageDataRepository;
+
+@Service
+public class ExpiryNotifier {
+
+    @Autowired
+    private StorageDataRepository repo;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    /**
+     * Marks the items as notified and publishes them. Items that were removed
+     * since they were scheduled, also through a storage or product delete,
+     * are skipped here.
+     */
+    @Transactional
+    public List<StorageData> notifyExpiring(Collection<Long> itemIds) {
+        List<StorageData> items = repo.findPendingExpirations(itemIds);
+        if (items.isEmpty())
+            return items;
+
+        for (StorageData item : items)
+            item.setExpiryNotified(true);
+
+        events.publishEvent(new ItemsExpiringEvent(items));
+        return items;
+    }
+}
@@ -0,0 +1,175 @@
+package com.shelflife.project.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.util.AfterCommit;
+import com.shelflife.project.util.TimingWheel;
+
+/**
+ * Upcoming expiry notices of storage items in a {@link TimingWheel}, so
+ * nothing has to scan StorageData to find them. Loaded from the expires_at
+ * index when the application is ready and kept up to date by
+ * StorageDataService after each change commits. Every tick hands the items
+ * that came due to ExpiryNotifier.
+ */
+@Service
+public class ExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryScheduler.class);
+
+    // 64 buckets on 4 levels, with one minute ticks that spans 31 years
+    private static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 4;
+
+    // A catch-up after downtime can bring many items due at once
+    private static final int NOTIFY_CHUNK_SIZE = 500;
+
+    @Value("${app.expiry.tick:1m}")
+    private Duration tick;
+
+    @Value("${app.expiry.notify-days-before:1}")
+    private int notifyDaysBefore;
+
+    @Value("${app.expiry.notify-time:08:00}")
+    private LocalTime notifyTime;
+
+    // Items that expired at most this long ago and were never notified are still picked up
+    @Value("${app.expiry.catch-up:7d}")
+    private Duration catchUp;
+
+    @Autowired
+    private StorageDataRepository repo;
+
+    @Autowired
+    private ExpiryNotifier notifier;
+
+    private final Instant origin = Instant.now();
+    private TimingWheel<Long> wheel = new TimingWheel<>(WHEEL_SIZE, LEVELS);
+    private final Map<Long, TimingWheel.Timer<Long>> timers = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        LocalDate from = LocalDate.now().minusDays(catchUp.toDays());
+
+        synchronized (this) {
+            wheel = new TimingWheel<>(WHEEL_SIZE, LEVELS);
+            wheel.advanceTo(toTick(Instant.now()));
+            timers.clear();
+
+            try (Stream<Object[]> rows = repo.streamPendingExpirations(from)) {
+                rows.forEach(row -> put((Long) row[0], (LocalDate) row[1]));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiry.poll-interval:1m}", initialDelayString = "${app.expiry.poll-interval:1m}")
+    public void tick() {
+        advance(Instant.now());
+    }
+
+    /**
+     * Fires every notice due at or before now. Notices that could not be
+     * sent are scheduled again for the next tick.
+     */
+    public void advance(Instant now) {
+        List<Long> due;
+
+        synchronized (this) {
+            due = wheel.advanceTo(toTick(now));
+            due.forEach(timers::remove);
+        }
+
+        for (int i = 0; i < due.size(); i += NOTIFY_CHUNK_SIZE) {
+            try {
+                notifier.notifyExpiring(due.subList(i, Math.min(i + NOTIFY_CHUNK_SIZE, due.size())));
+            } catch (RuntimeException e) {
+                List<Long> unsent = due.subList(i, due.size());
+                retryNextTick(unsent);
+                log.warn("Sending {} expiry notices failed, retrying on the next tick: {}", unsent.size(), e.toString());
+                return;
+            }
+        }
+    }
+
+    public void schedule(List<StorageData> items) {
+        Map<Long, LocalDate> snapshot = new HashMap<>();
+        for (StorageData item : items)
+            if (!item.isExpiryNotified())
+                snapshot.put(item.getId(), item.getExpiresAt());
+
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                snapshot.forEach(this::put);
+            }
+        });
+    }
+
+    public void cancel(long itemId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                remove(itemId);
+            }
+        });
+    }
+
+    public synchronized boolean isScheduled(long itemId) {
+        return timers.containsKey(itemId);
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    public Instant noticeAt(LocalDate expiresAt) {
+        return expiresAt.minusDays(notifyDaysBefore).atTime(notifyTime).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private synchronized void retryNextTick(List<Long> itemIds) {
+        for (long itemId : itemIds) {
+            // Rescheduled by a change meanwhile, that timer wins
+            if (!timers.containsKey(itemId))
+                timers.put(itemId, wheel.schedule(itemId, wheel.currentTick() + 1));
+        }
+    }
+
+    // Caller holds the lock
+    private void put(long itemId, LocalDate expiresAt) {
+        remove(itemId);
+        if (expiresAt != null)
+            timers.put(itemId, wheel.schedule(itemId, toTick(noticeAt(expiresAt))));
+    }
+
+    // Caller holds the lock
+    private void remove(long itemId) {
+        TimingWheel.Timer<Long> timer = timers.remove(itemId);
+        if (timer != null)
+            wheel.cancel(timer);
+    }
+
+    // Rounded up, a notice never fires early
+    private long toTick(Instant instant) {
+        long millis = Duration.between(origin, instant).toMillis();
+        return Math.ceilDiv(millis, tick.toMillis());
+    }
+}
@@ -0,0 +1,362 @@
+package com.shelflife.project.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.shelflife.project.exception.ImageTooLargeException;
+import com.shelflife.project.exception.UnsupportedImageException;
+import com.shelflife.project.util.ImageFormat;
+import com.shelflife.project.util.LruBudget;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Product images on local disk, named after the SHA-256 of their bytes: the
+ * same upload is stored once and a name never changes what it points to, so
+ * clients may cache images for good. Originals are kept for as long as the
+ * directory lives.
+ *
+ * Thumbnails are made for a fixed set of sizes the first time one is asked
+ * for and kept under thumbnail-budget bytes, least recently used out first.
+ * A thumbnail being made is waited for rather than made twice.
+ */
+@Service
+public class ImageStore {
+
+    private static final Pattern KEY = Pattern.compile("([0-9a-f]{64})\\.([a-z]{3})");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.images.dir:images}")
+    private String dir;
+
+    @Value("${app.images.max-size:5MB}")
+    private DataSize maxSize;
+
+    // Checked before anything is decoded, a small file can still unpack into a huge bitmap
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.images.thumbnail-sizes:64,256}")
+    private int[] thumbnailSizes;
+
+    @Value("${app.images.thumbnail-budget:256MB}")
+    private DataSize thumbnailBudget;
+
+    private Path originals;
+    private Path thumbnails;
+    private Path incoming;
+
+    // Guarded by this
+    private LruBudget<Path> cached;
+
+    private final ConcurrentHashMap<Path, CompletableFuture<Void>> generating = new ConcurrentHashMap<>();
+
+    public record Image(Path path, String contentType, String etag, long size) {
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Path root = Path.of(dir).toAbsolutePath().normalize();
+        originals = Files.createDirectories(root.resolve("originals"));
+        thumbnails = Files.createDirectories(root.resolve("thumbnails"));
+        incoming = Files.createDirectories(root.resolve("incoming"));
+
+        try (Stream<Path> left = Files.list(incoming)) {
+            for (Path file : left.toList())
+                Files.deleteIfExists(file);
+        }
+
+        loadThumbnails();
+    }
+
+    /**
+     * Stores the image read from the stream and returns its key, the hex
+     * SHA-256 of its bytes and the extension of its format. The bytes are
+     * hashed while they are copied, so the upload is read once.
+     */
+    public String store(InputStream in) throws IOException, ImageTooLargeException, UnsupportedImageException {
+        Path temp = Files.createTempFile(incoming, "upload", null);
+
+        try {
+            MessageDigest sha = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] head = new byte[ImageFormat.SIGNATURE_LENGTH];
+            int headLength = 0;
+            long total = 0;
+
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    total += n;
+                    if (total > maxSize.toBytes())
+                        throw new ImageTooLargeException();
+
+                    if (headLength < head.length) {
+                        int copied = Math.min(n, head.length - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+
+                    sha.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+
+            Optional<ImageFormat> format = ImageFormat.detect(head, headLength);
+            if (!format.isPresent())
+                throw new UnsupportedImageException();
+
+            checkDimensions(temp, format.get());
+
+            String key = HexFormat.of().formatHex(sha.digest()) + "." + format.get().extension();
+            Path target = originalPath(key);
+
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Same file system, so this is a rename: readers see the whole file or none
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Optional<Image> original(String key) throws IOException {
+        Matcher matcher = KEY.matcher(key);
+        if (!matcher.matches())
+            return Optional.empty();
+
+        Optional<ImageFormat> format = ImageFormat.fromExtension(matcher.group(2));
+        if (!format.isPresent())
+            return Optional.empty();
+
+        Path path = originalPath(key);
+        try {
+            return Optional.of(new Image(path, format.get().contentType(), "\"" + matcher.group(1) + "\"",
+                    Files.size(path)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the image scaled to fit a size by size box, made now if it
+     * isn't cached. Images already smaller keep their size.
+     */
+    public Optional<Image> thumbnail(String key, int size) throws IOException {
+        if (Arrays.stream(thumbnailSizes).noneMatch(s -> s == size))
+            throw new IllegalArgumentException("size");
+
+        Optional<Image> original = original(key);
+        if (!original.isPresent())
+            return Optional.empty();
+
+        Matcher matcher = KEY.matcher(key);
+        matcher.matches();
+        String hash = matcher.group(1);
+        ImageFormat source = ImageFormat.fromExtension(matcher.group(2)).get();
+        ImageFormat format = source.thumbnailFormat();
+
+        Path path = thumbnails.resolve(Integer.toString(size)).resolve(hash + "." + format.extension());
+        String etag = "\"" + hash + "-" + size + "\"";
+
+        boolean hit;
+        synchronized (this) {
+            hit = cached.touch(path);
+        }
+
+        if (!hit || !Files.exists(path))
+            generateOnce(original.get().path(), source, format, size, path);
+
+        try {
+            return Optional.of(new Image(path, format.contentType(), etag, Files.size(path)));
+        } catch (NoSuchFileException e) {
+            // Evicted right away, only when a single thumbnail is larger than the budget
+            return Optional.of(original.get());
+        }
+    }
+
+    private void generateOnce(Path original, ImageFormat source, ImageFormat format, int size, Path path)
+            throws IOException {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = generating.putIfAbsent(path, mine);
+
+        if (running != null) {
+            try {
+                running.join();
+                return;
+            } catch (CompletionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+
+        try {
+            long bytes = generate(original, source, format, size, path);
+            track(path, bytes);
+            mine.complete(null);
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            generating.remove(path, mine);
+        }
+    }
+
+    private long generate(Path original, ImageFormat source, ImageFormat format, int size, Path path)
+            throws IOException {
+        BufferedImage image;
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = reader(source);
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+
+                // Skipping rows and columns while decoding keeps large photos
+                // from being held in memory at full size. At twice the
+                // thumbnail size there is still enough left to scale smoothly.
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / (size * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(width, height,
+                format == ImageFormat.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(incoming, "thumbnail", null);
+        try {
+            if (!ImageIO.write(scaled, format.imageIoName(), temp.toFile()))
+                throw new IOException("No writer for " + format);
+
+            long bytes = Files.size(temp);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            return bytes;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void track(Path path, long bytes) throws IOException {
+        List<Path> evicted;
+        synchronized (this) {
+            evicted = cached.add(path, bytes);
+        }
+
+        for (Path file : evicted)
+            Files.deleteIfExists(file);
+    }
+
+    // Recently used order isn't kept on disk, after a restart the oldest thumbnails go first
+    private void loadThumbnails() throws IOException {
+        record Cached(Path path, FileTime modified, long bytes) {
+        }
+
+        List<Cached> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(thumbnails)) {
+            for (Path file : walk.filter(Files::isRegularFile).toList())
+                files.add(new Cached(file, Files.getLastModifiedTime(file), Files.size(file)));
+        }
+        files.sort(Comparator.comparing(Cached::modified));
+
+        LruBudget<Path> loaded = new LruBudget<>(thumbnailBudget.toBytes());
+        List<Path> evicted = new ArrayList<>();
+        for (Cached file : files)
+            evicted.addAll(loaded.add(file.path(), file.bytes()));
+
+        for (Path file : evicted)
+            Files.deleteIfExists(file);
+
+        synchronized (this) {
+            cached = loaded;
+        }
+    }
+
+    private void checkDimensions(Path file, ImageFormat format) throws IOException, UnsupportedImageException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            ImageReader reader = reader(format);
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels <= 0 || pixels > maxPixels)
+                    throw new UnsupportedImageException();
+            } catch (IOException | IndexOutOfBoundsException e) {
+                throw new UnsupportedImageException();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Path originalPath(String key) {
+        // A directory per leading byte keeps directories small with many images
+        return originals.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static ImageReader reader(ImageFormat format) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(format.imageIoName());
+        if (!readers.hasNext())
+            throw new IOException("No reader for " + format);
+
+        return readers.next();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
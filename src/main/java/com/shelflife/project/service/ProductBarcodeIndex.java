@@ -0,0 +1,97 @@
+package com.shelflife.project.service;
+
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.util.AfterCommit;
+import com.shelflife.project.util.LongLongHashMap;
+
+/**
+ * Barcode to product id for every product that has a barcode, kept in a
+ * {@link LongLongHashMap} so a scan is resolved without a query. Built when
+ * the application is ready and kept up to date by ProductService. Changes
+ * made inside a transaction are applied after it commits.
+ *
+ * A million barcodes take a 2^21 slot table, 32 MiB; a HashMap<Long, Long>
+ * holding the same measured 84 MiB (see BarcodeIndexBenchmark).
+ */
+@Service
+public class ProductBarcodeIndex {
+
+    @Value("${app.products.barcode-index.expected-size:10000}")
+    private int expectedSize;
+
+    @Autowired
+    private ProductRepository repo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongLongHashMap ids = new LongLongHashMap();
+    private volatile boolean ready;
+
+    // Holds the write lock for the whole scan: an update that commits
+    // meanwhile waits and lands in the new table instead of the old one
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            LongLongHashMap loaded = new LongLongHashMap(expectedSize);
+
+            try (Stream<Object[]> rows = repo.streamBarcodes()) {
+                rows.forEach(row -> loaded.put((Long) row[0], (Long) row[1]));
+            }
+
+            ids = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public OptionalLong findProductId(long barcode) {
+        long id;
+
+        lock.readLock().lock();
+        try {
+            id = ids.get(barcode);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return id == LongLongHashMap.NO_VALUE ? OptionalLong.empty() : OptionalLong.of(id);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the product from its old barcode to the new one, either may be null.
+     */
+    public void update(long productId, Long oldBarcode, Long newBarcode) {
+        AfterCommit.run(lock, () -> {
+            if (oldBarcode != null && ids.get(oldBarcode) == productId)
+                ids.remove(oldBarcode);
+            if (newBarcode != null)
+                ids.put(newBarcode, productId);
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.shelflife.project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads the product name index, so popularity counts the incremental
+ * updates missed, like items deleted with their storage, don't last.
+ */
+@Component
+public class ProductNameRebuildJob {
+
+    @Autowired
+    private ProductNameIndex index;
+
+    @Scheduled(fixedDelayString = "${app.products.name-index.rebuild-interval:6h}", initialDelayString = "${app.products.name-index.rebuild-interval:6h}")
+    public void rebuild() {
+        index.rebuild();
+    }
+}
@@ -0,0 +1,361 @@
+package com.shelflife.project.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shelflife.project.dto.ProductRequest;
+import com.shelflife.project.dto.ProductSuggestion;
+import com.shelflife.project.exception.BarcodeExistsException;
+import com.shelflife.project.exception.ImageTooLargeException;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.exception.UnsupportedImageException;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.util.ConstraintViolations;
+import com.shelflife.project.util.NamePrefixIndex;
+
+import jakarta.validation.Valid;
+
+@Service
+public class ProductService {
+
+    @Autowired
+    private ProductRepository repo;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ShoppingListIndex shoppingList;
+
+    @Autowired
+    private RecipeIndex recipeIndex;
+
+    @Autowired
+    private StorageItemIndex itemIndex;
+
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional(readOnly = true)
+    public List<Product> getProducts(Authentication auth) throws AccessDeniedException {
+        getCurrentUser(auth);
+        return repo.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Product getProduct(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        getCurrentUser(auth);
+        return getProductById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Product getProductByBarcode(long barcode, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        getCurrentUser(auth);
+
+        Optional<Product> product = findByBarcode(barcode);
+        if (!product.isPresent())
+            throw new ItemNotFoundException();
+
+        return product.get();
+    }
+
+    /**
+     * Resolves the barcode in memory and loads the product by id, which the
+     * second-level cache usually answers. Unknown barcodes cost no query.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Product> findByBarcode(long barcode) {
+        if (!barcodeIndex.isReady())
+            return repo.findByBarcode(barcode);
+
+        OptionalLong id = barcodeIndex.findProductId(barcode);
+        if (!id.isPresent())
+            return Optional.empty();
+
+        return repo.findById(id.getAsLong());
+    }
+
+    /**
+     * Looks up many barcodes at once: ids come from the index and the products
+     * are loaded with a single query. Unknown barcodes are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Product> findByBarcodes(Collection<Long> barcodes) {
+        Map<Long, Product> found = new HashMap<>();
+
+        if (!barcodeIndex.isReady()) {
+            for (Product product : repo.findByBarcodeIn(barcodes))
+                found.put(product.getBarcode(), product);
+            return found;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (long barcode : barcodes) {
+            OptionalLong id = barcodeIndex.findProductId(barcode);
+            if (id.isPresent())
+                ids.add(id.getAsLong());
+        }
+
+        for (Product product : repo.findAllById(ids))
+            found.put(product.getBarcode(), product);
+
+        return found;
+    }
+
+    /**
+     * The products for the barcodes asked for, and which of those barcodes
+     * got a placeholder inserted rather than read back.
+     */
+    public record Placeholders(Map<Long, Product> products, Set<Long> inserted) {
+    }
+
+    /**
+     * Creates a product named after each barcode, for scans of unknown products.
+     * They are committed in a transaction of their own. If another scan or
+     * create got a barcode in first, the unique key rejects ours and the other
+     * product is read back instead, and left out of {@link Placeholders#inserted()}.
+     */
+    public Placeholders createPlaceholders(Collection<Long> barcodes) {
+        if (barcodes.isEmpty())
+            return new Placeholders(new HashMap<>(), new HashSet<>());
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        try {
+            Map<Long, Product> created = transaction.execute(status -> insertPlaceholders(barcodes));
+            return new Placeholders(created, new HashSet<>(created.keySet()));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolated(e, "uk_products_barcode"))
+                throw e;
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        Set<Long> inserted = new HashSet<>();
+        for (long barcode : barcodes) {
+            try {
+                products.putAll(transaction.execute(status -> insertPlaceholders(List.of(barcode))));
+                inserted.add(barcode);
+            } catch (DataIntegrityViolationException e) {
+                if (!ConstraintViolations.isViolated(e, "uk_products_barcode"))
+                    throw e;
+                products.put(barcode, transaction.execute(status -> repo.findByBarcode(barcode)).orElseThrow());
+            }
+        }
+        return new Placeholders(products, inserted);
+    }
+
+    private Map<Long, Product> insertPlaceholders(Collection<Long> barcodes) {
+        Map<Long, Product> created = new HashMap<>();
+
+        for (long barcode : barcodes) {
+            Product product = new Product();
+            product.setName(String.valueOf(barcode));
+            product.setBarcode(barcode);
+
+            Product saved = repo.save(product);
+            barcodeIndex.update(saved.getId(), null, barcode);
+            nameIndex.put(saved.getId(), saved.getName());
+            created.put(barcode, saved);
+        }
+
+        repo.flush();
+        return created;
+    }
+
+    @Transactional
+    public Product createProduct(@Valid ProductRequest request, Authentication auth)
+            throws AccessDeniedException, BarcodeExistsException {
+        getCurrentUser(auth);
+
+        if (request.getBarcode() != null && findByBarcode(request.getBarcode()).isPresent())
+            throw new BarcodeExistsException();
+
+        Product product = new Product();
+        product.setName(request.getName());
+        product.setBarcode(request.getBarcode());
+        product.setExpirationDays(request.getExpirationDays());
+        product.setType(request.getType() == null ? ProductType.OTHER : request.getType());
+
+        Product saved = saveUniqueBarcode(product);
+        barcodeIndex.update(saved.getId(), null, saved.getBarcode());
+        nameIndex.put(saved.getId(), saved.getName());
+        return saved;
+    }
+
+    @Transactional
+    public Product updateProduct(long id, @Valid ProductRequest request, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException, BarcodeExistsException {
+        requireAdmin(auth);
+        Product product = getProductById(id);
+        Long oldBarcode = product.getBarcode();
+        ProductType oldType = product.getType();
+        String oldName = product.getName();
+
+        if (request.getBarcode() != null && !request.getBarcode().equals(oldBarcode)
+                && findByBarcode(request.getBarcode()).isPresent())
+            throw new BarcodeExistsException();
+
+        product.setName(request.getName());
+        product.setBarcode(request.getBarcode());
+        product.setExpirationDays(request.getExpirationDays());
+        product.setType(request.getType() == null ? ProductType.OTHER : request.getType());
+
+        Product saved = saveUniqueBarcode(product);
+        if (!Objects.equals(oldBarcode, saved.getBarcode()))
+            barcodeIndex.update(saved.getId(), oldBarcode, saved.getBarcode());
+        if (oldType != saved.getType())
+            itemIndex.productTypeChanged(saved.getId(), saved.getType());
+        if (!oldName.equals(saved.getName()))
+            nameIndex.put(saved.getId(), saved.getName());
+
+        return saved;
+    }
+
+    @Transactional
+    public void removeProduct(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        requireAdmin(auth);
+        Product product = getProductById(id);
+
+        repo.delete(product);
+        barcodeIndex.update(product.getId(), product.getBarcode(), null);
+        shoppingList.productRemoved(product.getId());
+        recipeIndex.productRemoved(product.getId());
+        itemIndex.productRemoved(product.getId());
+        nameIndex.removed(product.getId());
+    }
+
+    /**
+     * Products whose name, or a word in it, starts with the prefix. The
+     * index answers without a query and ranks products stored more often
+     * first, before it is loaded names are matched from the start in the
+     * database.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSuggestion> suggest(String prefix, int limit, Authentication auth)
+            throws AccessDeniedException {
+        getCurrentUser(auth);
+
+        if (limit < 1 || limit > 50)
+            throw new IllegalArgumentException("limit");
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(limit);
+
+        if (!nameIndex.isReady()) {
+            String trimmed = prefix.trim();
+            if (trimmed.isEmpty())
+                return suggestions;
+
+            for (Product product : repo.findByNameStartingWithIgnoreCaseOrderByName(trimmed, PageRequest.of(0, limit)))
+                suggestions.add(new ProductSuggestion(product.getId(), product.getName()));
+            return suggestions;
+        }
+
+        for (NamePrefixIndex.Suggestion suggestion : nameIndex.suggest(prefix, limit))
+            suggestions.add(new ProductSuggestion(suggestion.id(), suggestion.name()));
+        return suggestions;
+    }
+
+    /**
+     * Takes an admin like any other change to the product: scanning creates
+     * products freely and stored originals are never collected, so open
+     * uploads would let any user fill the disk. The upload is written to
+     * disk between two transactions, so no connection is held while the
+     * client sends it.
+     */
+    public Product setImage(long id, InputStream image, Authentication auth) throws AccessDeniedException,
+            ItemNotFoundException, IOException, ImageTooLargeException, UnsupportedImageException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            requireAdmin(auth);
+            getProductById(id);
+        });
+        String key = imageStore.store(image);
+
+        return transaction.execute(status -> {
+            Product product = getProductById(id);
+            product.setImage(key);
+            return repo.save(product);
+        });
+    }
+
+    @Transactional
+    public Product removeImage(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        requireAdmin(auth);
+        Product product = getProductById(id);
+        product.setImage(null);
+        return repo.save(product);
+    }
+
+    // The index check above answers the common case, the unique key decides
+    // when two requests add the same barcode at once
+    private Product saveUniqueBarcode(Product product) throws BarcodeExistsException {
+        try {
+            Product saved = repo.save(product);
+            repo.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, "uk_products_barcode"))
+                throw new BarcodeExistsException();
+            throw e;
+        }
+    }
+
+    private Product getProductById(long id) throws ItemNotFoundException {
+        Optional<Product> product = repo.findById(id);
+
+        if (!product.isPresent())
+            throw new ItemNotFoundException();
+
+        return product.get();
+    }
+
+    private User getCurrentUser(Authentication auth) throws AccessDeniedException {
+        Optional<User> currentUser = userService.getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        return currentUser.get();
+    }
+
+    private void requireAdmin(Authentication auth) throws AccessDeniedException {
+        if (!getCurrentUser(auth).isAdmin())
+            throw new AccessDeniedException(null);
+    }
+}
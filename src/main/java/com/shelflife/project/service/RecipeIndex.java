@@ -0,0 +1,142 @@
+package com.shelflife.project.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.repository.RecipeRepository;
+import com.shelflife.project.util.AfterCommit;
+import com.shelflife.project.util.IngredientIndex;
+
+/**
+ * Every recipe's ingredients in an {@link IngredientIndex}, so recommending
+ * recipes for a storage doesn't join recipes against its items. Built when
+ * the application is ready and kept up to date by RecipeService and
+ * ProductService, changes are applied after their transaction commits.
+ *
+ * Against 100k recipes a 30 product pantry is ranked in about a millisecond,
+ * scoring every recipe in turn took 25 ms (see RecipeIndexBenchmark).
+ */
+@Service
+public class RecipeIndex {
+
+    @Value("${app.recipes.index.expected-size:10000}")
+    private int expectedSize;
+
+    @Autowired
+    private RecipeRepository repo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IngredientIndex index = new IngredientIndex();
+
+    // Changes made while a rebuild scans, applied to the new index before it
+    // is swapped in. Each sets or removes a recipe outright, so replaying one
+    // the scan already saw comes out the same.
+    private List<Consumer<IngredientIndex>> pending;
+
+    // Recommendations keep coming from the old index while the new one loads
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IngredientIndex loaded = new IngredientIndex(expectedSize);
+        try (Stream<Object[]> rows = repo.streamIngredients()) {
+            Iterator<Object[]> it = rows.iterator();
+            long recipeId = 0;
+            long[] products = new long[16];
+            int count = 0;
+
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                long id = (Long) row[0];
+
+                if (count > 0 && id != recipeId) {
+                    loaded.put(recipeId, Arrays.copyOf(products, count));
+                    count = 0;
+                }
+
+                if (count == products.length)
+                    products = Arrays.copyOf(products, count * 2);
+
+                recipeId = id;
+                products[count++] = (Long) row[1];
+            }
+
+            if (count > 0)
+                loaded.put(recipeId, Arrays.copyOf(products, count));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<IngredientIndex> change : pending)
+                change.accept(loaded);
+            pending = null;
+            index = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<IngredientIndex.Match> recommend(long[] pantry, long[] expiring, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.topK(pantry, expiring, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void update(long recipeId, long[] productIds) {
+        afterCommit(index -> index.put(recipeId, productIds));
+    }
+
+    public void remove(long recipeId) {
+        afterCommit(index -> index.remove(recipeId));
+    }
+
+    public void productRemoved(long productId) {
+        afterCommit(index -> index.removeProduct(productId));
+    }
+
+    private void afterCommit(Consumer<IngredientIndex> change) {
+        AfterCommit.run(lock, () -> {
+            change.accept(index);
+            if (pending != null)
+                pending.add(change);
+        });
+    }
+}
@@ -0,0 +1,221 @@
+package com.shelflife.project.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.dto.RecipeIngredientRequest;
+import com.shelflife.project.dto.RecipeRecommendation;
+import com.shelflife.project.dto.RecipeRequest;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Recipe;
+import com.shelflife.project.model.RecipeIngredient;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.RecipeRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.util.IngredientIndex;
+
+import jakarta.validation.Valid;
+
+@Service
+public class RecipeService {
+
+    // Items expiring within this many days count as expiring soon
+    @Value("${app.recipes.expiring-days:3}")
+    private int expiringDays;
+
+    @Autowired
+    private RecipeRepository repo;
+
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Autowired
+    private StorageDataRepository storageDataRepo;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RecipeIndex index;
+
+    @Transactional(readOnly = true)
+    public Recipe getRecipe(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        getCurrentUser(auth);
+        Optional<Recipe> recipe = repo.findWithIngredientsById(id);
+
+        if (!recipe.isPresent())
+            throw new ItemNotFoundException();
+
+        return recipe.get();
+    }
+
+    @Transactional
+    public Recipe createRecipe(@Valid RecipeRequest request, Authentication auth)
+            throws AccessDeniedException, IllegalArgumentException {
+        getCurrentUser(auth);
+
+        Recipe recipe = new Recipe();
+        apply(recipe, request);
+
+        Recipe saved = repo.save(recipe);
+        index.update(saved.getId(), productIds(saved));
+        return saved;
+    }
+
+    @Transactional
+    public Recipe updateRecipe(long id, @Valid RecipeRequest request, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException, IllegalArgumentException {
+        requireAdmin(auth);
+        Optional<Recipe> recipe = repo.findWithIngredientsById(id);
+
+        if (!recipe.isPresent())
+            throw new ItemNotFoundException();
+
+        apply(recipe.get(), request);
+
+        Recipe saved = repo.save(recipe.get());
+        index.update(saved.getId(), productIds(saved));
+        return saved;
+    }
+
+    @Transactional
+    public void removeRecipe(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        requireAdmin(auth);
+        Optional<Recipe> recipe = repo.findById(id);
+
+        if (!recipe.isPresent())
+            throw new ItemNotFoundException();
+
+        repo.delete(recipe.get());
+        index.remove(id);
+    }
+
+    /**
+     * The recipes that use most of what is in the storage, best first:
+     * by share of their ingredients on hand, then by how many of the items
+     * expiring soon they use up. Ranked by {@link RecipeIndex}, only the
+     * returned recipes are loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<RecipeRecommendation> recommend(long storageId, int limit, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException, IllegalArgumentException {
+        if (limit < 1 || limit > 50)
+            throw new IllegalArgumentException("limit");
+
+        storageService.checkAccess(storageId, auth);
+
+        List<Object[]> rows = storageDataRepo.findPantry(storageId);
+        LocalDate soon = LocalDate.now().plusDays(expiringDays);
+        long[] pantry = new long[rows.size()];
+        long[] expiring = new long[rows.size()];
+        int expiringCount = 0;
+
+        for (int i = 0; i < rows.size(); i++) {
+            pantry[i] = (Long) rows.get(i)[0];
+            LocalDate expiresAt = (LocalDate) rows.get(i)[1];
+            if (expiresAt != null && !expiresAt.isAfter(soon))
+                expiring[expiringCount++] = pantry[i];
+        }
+
+        List<IngredientIndex.Match> matches = index.recommend(pantry,
+                Arrays.copyOf(expiring, expiringCount), limit);
+        if (matches.isEmpty())
+            return List.of();
+
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (IngredientIndex.Match match : matches)
+            ids.add(match.recipeId());
+
+        Map<Long, Recipe> recipes = new HashMap<>();
+        for (Recipe recipe : repo.findWithIngredientsByIdIn(ids))
+            recipes.put(recipe.getId(), recipe);
+
+        List<RecipeRecommendation> recommendations = new ArrayList<>(matches.size());
+        for (IngredientIndex.Match match : matches) {
+            Recipe recipe = recipes.get(match.recipeId());
+            if (recipe == null)
+                continue;
+
+            recommendations.add(new RecipeRecommendation(recipe, match.coverage(),
+                    match.ingredients() - match.matched(), match.expiring()));
+        }
+
+        return recommendations;
+    }
+
+    // Keeps the rows of ingredients that stay, a product can only be listed
+    // once per recipe and inserts are flushed before orphan deletes
+    private void apply(Recipe recipe, RecipeRequest request) throws IllegalArgumentException {
+        Set<Long> requested = new HashSet<>();
+        for (RecipeIngredientRequest ingredient : request.getIngredients())
+            if (!requested.add(ingredient.getProductId()))
+                throw new IllegalArgumentException("ingredients");
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepo.findAllById(requested))
+            products.put(product.getId(), product);
+
+        if (products.size() != requested.size())
+            throw new IllegalArgumentException("ingredients");
+
+        Map<Long, RecipeIngredient> existing = new HashMap<>();
+        for (RecipeIngredient ingredient : recipe.getIngredients())
+            existing.put(ingredient.getProduct().getId(), ingredient);
+
+        recipe.setName(request.getName());
+        recipe.setInstructions(request.getInstructions());
+        recipe.getIngredients().removeIf(ingredient -> !requested.contains(ingredient.getProduct().getId()));
+
+        for (RecipeIngredientRequest item : request.getIngredients()) {
+            RecipeIngredient ingredient = existing.get(item.getProductId());
+            if (ingredient == null) {
+                ingredient = new RecipeIngredient();
+                ingredient.setRecipe(recipe);
+                ingredient.setProduct(products.get(item.getProductId()));
+                recipe.getIngredients().add(ingredient);
+            }
+            ingredient.setAmount(item.getAmount());
+        }
+    }
+
+    private static long[] productIds(Recipe recipe) {
+        long[] ids = new long[recipe.getIngredients().size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = recipe.getIngredients().get(i).getProduct().getId();
+
+        return ids;
+    }
+
+    private User getCurrentUser(Authentication auth) throws AccessDeniedException {
+        Optional<User> currentUser = userService.getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        return currentUser.get();
+    }
+
+    private void requireAdmin(Authentication auth) throws AccessDeniedException {
+        if (!getCurrentUser(auth).isAdmin())
+            throw new AccessDeniedException(null);
+    }
+}
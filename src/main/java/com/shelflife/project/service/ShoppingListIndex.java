@@ -0,0 +1,247 @@
+package com.shelflife.project.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.repository.StockThresholdRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.util.AfterCommit;
+import com.shelflife.project.util.LongLongHashMap;
+
+/**
+ * Per storage, the quantity of every product in it, the thresholds set for
+ * it and the products below their threshold. The services that add, consume,
+ * move or remove items and change thresholds report the difference, applied
+ * after their transaction commits, so reading a shopping list costs as much
+ * as the list is long instead of a scan of the storage's items.
+ *
+ * {@link #rebuild()} counts everything again from the database; it runs when
+ * the application is ready and then as a repair job. Storages deleted along
+ * with their owner stay until then, nothing can read them any more.
+ */
+@Service
+public class ShoppingListIndex {
+
+    @Autowired
+    private StorageDataRepository dataRepo;
+
+    @Autowired
+    private StockThresholdRepository thresholdRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Stock> stocks = new HashMap<>();
+
+    // Differences that commit while a rebuild scans, applied to the new
+    // counts before they are swapped in
+    private List<Consumer<Map<Long, Stock>>> pending;
+
+    public record Entry(long productId, long quantity, int minQuantity) {
+    }
+
+    private static final class Stock {
+        private final LongLongHashMap quantities = new LongLongHashMap();
+        private final LongLongHashMap thresholds = new LongLongHashMap();
+        private final TreeSet<Long> low = new TreeSet<>();
+
+        long quantity(long productId) {
+            long quantity = quantities.get(productId);
+            return quantity == LongLongHashMap.NO_VALUE ? 0 : quantity;
+        }
+
+        void add(long productId, long delta) {
+            // Differences of overlapping transactions may arrive out of
+            // order, so the count can dip below zero for a moment
+            long quantity = quantity(productId) + delta;
+            if (quantity == 0) {
+                quantities.remove(productId);
+            } else {
+                quantities.put(productId, quantity);
+            }
+            check(productId);
+        }
+
+        void setThreshold(long productId, int minQuantity) {
+            thresholds.put(productId, minQuantity);
+            check(productId);
+        }
+
+        void removeProduct(long productId) {
+            quantities.remove(productId);
+            thresholds.remove(productId);
+            low.remove(productId);
+        }
+
+        boolean isEmpty() {
+            return quantities.isEmpty() && thresholds.isEmpty();
+        }
+
+        private void check(long productId) {
+            long minQuantity = thresholds.get(productId);
+            if (minQuantity != LongLongHashMap.NO_VALUE && quantity(productId) < minQuantity) {
+                low.add(productId);
+            } else {
+                low.remove(productId);
+            }
+        }
+    }
+
+    /**
+     * Counts every storage again. Lists keep coming from the old counts and
+     * changes keep being applied while the scan runs. Once the quantity query
+     * has run, and with it taken its snapshot, the changes are recorded and
+     * replayed on the new counts. Thresholds are set rather than added, so
+     * replaying one the scan already saw is harmless. A quantity change is
+     * only counted twice or missed when the snapshot is taken between its
+     * commit and its difference being applied; the next rebuild corrects it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        Map<Long, Stock> loaded = new HashMap<>();
+        try {
+            try (Stream<Object[]> rows = dataRepo.streamQuantities()) {
+                lock.writeLock().lock();
+                try {
+                    pending = new ArrayList<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                rows.forEach(row -> stock(loaded, (Long) row[0]).add((Long) row[1], (Long) row[2]));
+            }
+
+            try (Stream<Object[]> rows = thresholdRepo.streamThresholds()) {
+                rows.forEach(row -> stock(loaded, (Long) row[0]).setThreshold((Long) row[1], (Integer) row[2]));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Map<Long, Stock>> change : pending)
+                change.accept(loaded);
+            pending = null;
+            stocks = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The storage's products below their threshold, by product id.
+     */
+    public List<Entry> get(long storageId) {
+        lock.readLock().lock();
+        try {
+            Stock stock = stocks.get(storageId);
+            if (stock == null)
+                return List.of();
+
+            List<Entry> entries = new ArrayList<>(stock.low.size());
+            for (long productId : stock.low)
+                entries.add(new Entry(productId, stock.quantity(productId), (int) stock.thresholds.get(productId)));
+
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long quantity(long storageId, long productId) {
+        lock.readLock().lock();
+        try {
+            Stock stock = stocks.get(storageId);
+            return stock == null ? 0 : stock.quantity(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void added(Collection<StorageData> items) {
+        long[] deltas = new long[items.size() * 3];
+        int i = 0;
+        for (StorageData item : items) {
+            deltas[i++] = item.getStorage().getId();
+            deltas[i++] = item.getProduct().getId();
+            deltas[i++] = item.getQuantity();
+        }
+
+        afterCommit(stocks -> {
+            for (int j = 0; j < deltas.length; j += 3)
+                stock(stocks, deltas[j]).add(deltas[j + 1], deltas[j + 2]);
+        });
+    }
+
+    public void adjust(long storageId, long productId, long delta) {
+        afterCommit(stocks -> {
+            Stock stock = stock(stocks, storageId);
+            stock.add(productId, delta);
+            dropIfEmpty(stocks, storageId, stock);
+        });
+    }
+
+    public void thresholdSet(long storageId, long productId, int minQuantity) {
+        afterCommit(stocks -> stock(stocks, storageId).setThreshold(productId, minQuantity));
+    }
+
+    public void thresholdRemoved(long storageId, long productId) {
+        afterCommit(stocks -> {
+            Stock stock = stocks.get(storageId);
+            if (stock == null)
+                return;
+
+            stock.thresholds.remove(productId);
+            stock.check(productId);
+            dropIfEmpty(stocks, storageId, stock);
+        });
+    }
+
+    public void storageRemoved(long storageId) {
+        afterCommit(stocks -> stocks.remove(storageId));
+    }
+
+    // Only admins remove products, walking every storage is fine for that
+    public void productRemoved(long productId) {
+        afterCommit(stocks -> {
+            stocks.values().forEach(stock -> stock.removeProduct(productId));
+            stocks.values().removeIf(Stock::isEmpty);
+        });
+    }
+
+    private static void dropIfEmpty(Map<Long, Stock> stocks, long storageId, Stock stock) {
+        if (stock.isEmpty())
+            stocks.remove(storageId);
+    }
+
+    private static Stock stock(Map<Long, Stock> stocks, long storageId) {
+        return stocks.computeIfAbsent(storageId, id -> new Stock());
+    }
+
+    private void afterCommit(Consumer<Map<Long, Stock>> change) {
+        AfterCommit.run(lock, () -> {
+            change.accept(stocks);
+            if (pending != null)
+                pending.add(change);
+        });
+    }
+}
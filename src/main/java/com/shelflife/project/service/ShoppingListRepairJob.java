@@ -0,0 +1,21 @@
+package com.shelflife.project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recounts the shopping list index from the database, so anything the
+ * incremental updates got wrong doesn't last.
+ */
+@Component
+public class ShoppingListRepairJob {
+
+    @Autowired
+    private ShoppingListIndex index;
+
+    @Scheduled(fixedDelayString = "${app.shopping-list.repair-interval:6h}", initialDelayString = "${app.shopping-list.repair-interval:6h}")
+    public void repair() {
+        index.rebuild();
+    }
+}
@@ -0,0 +1,107 @@
+package com.shelflife.project.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.dto.ShoppingListItem;
+import com.shelflife.project.dto.StockThresholdRequest;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.StockThreshold;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StockThresholdRepository;
+
+import jakarta.validation.Valid;
+
+@Service
+public class ShoppingListService {
+
+    @Autowired
+    private StockThresholdRepository repo;
+
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ShoppingListIndex index;
+
+    /**
+     * The storage's products that are below their threshold, read from
+     * {@link ShoppingListIndex}. Only the listed products are loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<ShoppingListItem> getShoppingList(long storageId, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        storageService.checkAccess(storageId, auth);
+
+        List<ShoppingListIndex.Entry> entries = index.get(storageId);
+        if (entries.isEmpty())
+            return List.of();
+
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (ShoppingListIndex.Entry entry : entries)
+            ids.add(entry.productId());
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepo.findAllById(ids))
+            products.put(product.getId(), product);
+
+        List<ShoppingListItem> items = new ArrayList<>(entries.size());
+        for (ShoppingListIndex.Entry entry : entries) {
+            Product product = products.get(entry.productId());
+            if (product == null)
+                continue;
+
+            long quantity = Math.max(0, entry.quantity());
+            items.add(new ShoppingListItem(product, quantity, entry.minQuantity(), entry.minQuantity() - quantity));
+        }
+
+        return items;
+    }
+
+    @Transactional
+    public StockThreshold setThreshold(long storageId, long productId, @Valid StockThresholdRequest request,
+            Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        Storage storage = storageService.getStorage(storageId, auth);
+        Product product = productService.getProduct(productId, auth);
+
+        Optional<StockThreshold> existing = repo.findByStorageIdAndProductId(storageId, productId);
+        StockThreshold threshold = existing.isPresent() ? existing.get() : new StockThreshold();
+        threshold.setStorage(storage);
+        threshold.setProduct(product);
+        threshold.setMinQuantity(request.getMinQuantity());
+
+        StockThreshold saved = repo.save(threshold);
+        index.thresholdSet(storageId, productId, saved.getMinQuantity());
+        return saved;
+    }
+
+    @Transactional
+    public void removeThreshold(long storageId, long productId, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        storageService.checkAccess(storageId, auth);
+        Optional<StockThreshold> threshold = repo.findByStorageIdAndProductId(storageId, productId);
+
+        if (!threshold.isPresent())
+            throw new ItemNotFoundException();
+
+        repo.delete(threshold.get());
+        index.thresholdRemoved(storageId, productId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.shelflife.project.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shelflife.project.event.UsersRemovedEvent;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.util.LongArraySet;
+
+/**
+ * Ids of the storages each user owns or was invited to, so membership
+ * checks don't need a query. Entries are dropped on every change of the
+ * owner or members, right away and again after the change commits.
+ */
+@Component
+public class StorageAccessCache {
+
+    @Value("${app.storage.access-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Autowired
+    private StorageRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, LongArraySet> sets = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, a load that overlapped one is not kept
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public boolean canAccess(long userId, long storageId) {
+        return get(userId).contains(storageId);
+    }
+
+    public LongArraySet get(long userId) {
+        LongArraySet cached = sets.get(userId);
+        if (cached != null)
+            return cached;
+
+        long before = invalidations.get();
+        LongArraySet loaded = load(userId);
+
+        if (invalidations.get() == before) {
+            if (sets.size() >= maxEntries)
+                sets.clear();
+            sets.put(userId, loaded);
+        }
+
+        return loaded;
+    }
+
+    // A read-only transaction reads from a replica, which may not have the
+    // invite yet. The set is kept until the next change, so it comes from
+    // the primary.
+    private LongArraySet load(long userId) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return LongArraySet.of(repo.findAccessibleIds(userId));
+
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return primary.execute(status -> LongArraySet.of(repo.findAccessibleIds(userId)));
+    }
+
+    public void invalidate(Collection<Long> userIds) {
+        List<Long> snapshot = List.copyOf(userIds);
+        dropNowAndAfterCompletion(() -> snapshot.forEach(sets::remove));
+    }
+
+    // Deleting a user cascades to their storages and memberships in the database
+    @EventListener
+    public void onUsersRemoved(UsersRemovedEvent event) {
+        dropNowAndAfterCompletion(sets::clear);
+    }
+
+    private void dropNowAndAfterCompletion(Runnable drop) {
+        Runnable counted = () -> {
+            invalidations.incrementAndGet();
+            drop.run();
+        };
+
+        counted.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counted.run();
+                }
+            });
+        }
+    }
+
+    int size() {
+        return sets.size();
+    }
+}
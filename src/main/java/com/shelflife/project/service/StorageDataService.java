@@ -0,0 +1,226 @@
+package com.shelflife.project.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.dto.BatchScanRequest;
+import com.shelflife.project.dto.BatchScanResponse;
+import com.shelflife.project.dto.ItemFilterResponse;
+import com.shelflife.project.dto.MoveItemRequest;
+import com.shelflife.project.dto.ScanItem;
+import com.shelflife.project.dto.ScanOutcome;
+import com.shelflife.project.dto.ScanResult;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.util.ItemBitmapIndex;
+
+import jakarta.validation.Valid;
+
+@Service
+public class StorageDataService {
+
+    @Autowired
+    private StorageDataRepository repo;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ExpiryScheduler expiryScheduler;
+
+    @Autowired
+    private ShoppingListIndex shoppingList;
+
+    @Autowired
+    private StorageItemIndex itemIndex;
+
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Transactional(readOnly = true)
+    public List<StorageData> getItems(long storageId, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        storageService.checkAccess(storageId, auth);
+        return repo.findByStorageId(storageId);
+    }
+
+    /**
+     * The storage's items of the given types (all when empty) that expire
+     * before the given date (any when null), with per type counts under the
+     * expiry filter. Answered from {@link StorageItemIndex}, which only
+     * leaves loading the matching items, or by two queries while it warms up.
+     */
+    @Transactional(readOnly = true)
+    public ItemFilterResponse filterItems(long storageId, Set<ProductType> types, LocalDate expiringBefore,
+            Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        storageService.checkAccess(storageId, auth);
+
+        if (!itemIndex.isReady())
+            return new ItemFilterResponse(repo.filter(storageId, types, expiringBefore),
+                    repo.countByType(storageId, expiringBefore));
+
+        ItemBitmapIndex.Result result = itemIndex.query(storageId, types, expiringBefore);
+
+        Map<ProductType, Integer> counts = new EnumMap<>(ProductType.class);
+        for (ProductType type : ProductType.values())
+            counts.put(type, result.typeCounts()[type.ordinal()]);
+
+        if (result.itemIds().length == 0)
+            return new ItemFilterResponse(List.of(), counts);
+
+        List<Long> ids = new ArrayList<>(result.itemIds().length);
+        for (long id : result.itemIds())
+            ids.add(id);
+
+        return new ItemFilterResponse(repo.findWithProductByIdIn(ids), counts);
+    }
+
+    /**
+     * Adds one item per scanned barcode. Access is checked once for the whole
+     * batch, the barcodes are resolved together, unknown ones get a placeholder
+     * product, and the items are inserted as a single JDBC batch.
+     */
+    @Transactional
+    public BatchScanResponse addScanned(long storageId, @Valid BatchScanRequest request, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        Storage storage = storageService.getStorage(storageId, auth);
+
+        Set<Long> barcodes = new LinkedHashSet<>();
+        for (ScanItem scan : request.getItems())
+            barcodes.add(scan.getBarcode());
+
+        Map<Long, Product> products = productService.findByBarcodes(barcodes);
+        barcodes.removeAll(products.keySet());
+        ProductService.Placeholders placeholders = productService.createPlaceholders(barcodes);
+        products.putAll(placeholders.products());
+
+        LocalDate today = LocalDate.now();
+        List<StorageData> items = new ArrayList<>(request.getItems().size());
+        List<ScanResult> results = new ArrayList<>(request.getItems().size());
+
+        for (ScanItem scan : request.getItems()) {
+            Product product = products.get(scan.getBarcode());
+
+            StorageData item = new StorageData();
+            item.setStorage(storage);
+            item.setProduct(product);
+            item.setQuantity(scan.getQuantity() == null ? 1 : scan.getQuantity());
+            item.setCreatedAt(today);
+            item.setExpiresAt(expiresAt(scan, product, today));
+            items.add(item);
+
+            ScanOutcome outcome = placeholders.inserted().contains(scan.getBarcode()) ? ScanOutcome.ADDED_NEW_PRODUCT
+                    : ScanOutcome.ADDED;
+            results.add(new ScanResult(scan.getBarcode(), outcome, item));
+        }
+
+        repo.insertAll(items);
+        expiryScheduler.schedule(items);
+        shoppingList.added(items);
+        itemIndex.put(items);
+        nameIndex.added(items);
+        return new BatchScanResponse(results);
+    }
+
+    /**
+     * Takes some or all of an item out of the storage. Returns what is left,
+     * nothing when the item was used up and removed.
+     */
+    @Transactional
+    public Optional<StorageData> consume(long storageId, long itemId, Integer quantity, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        StorageData item = getItem(storageId, itemId, auth);
+
+        if (quantity == null || quantity >= item.getQuantity()) {
+            repo.delete(item);
+            expiryScheduler.cancel(itemId);
+            shoppingList.adjust(storageId, item.getProduct().getId(), -item.getQuantity());
+            itemIndex.removed(itemId);
+            nameIndex.itemRemoved(item.getProduct().getId());
+            return Optional.empty();
+        }
+
+        item.setQuantity(item.getQuantity() - quantity);
+        shoppingList.adjust(storageId, item.getProduct().getId(), -quantity);
+        return Optional.of(repo.save(item));
+    }
+
+    @Transactional
+    public void removeItem(long storageId, long itemId, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        StorageData item = getItem(storageId, itemId, auth);
+
+        repo.delete(item);
+        expiryScheduler.cancel(itemId);
+        shoppingList.adjust(storageId, item.getProduct().getId(), -item.getQuantity());
+        itemIndex.removed(itemId);
+        nameIndex.itemRemoved(item.getProduct().getId());
+    }
+
+    /**
+     * Moves an item to another storage the caller can use, optionally with a
+     * new expiry date.
+     */
+    @Transactional
+    public StorageData moveItem(long storageId, long itemId, @Valid MoveItemRequest request, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        StorageData item = getItem(storageId, itemId, auth);
+        Storage target = storageService.getStorage(request.getStorageId(), auth);
+
+        if (target.getId() != storageId) {
+            shoppingList.adjust(storageId, item.getProduct().getId(), -item.getQuantity());
+            shoppingList.adjust(target.getId(), item.getProduct().getId(), item.getQuantity());
+        }
+
+        item.setStorage(target);
+        if (request.getExpiresAt() != null && !request.getExpiresAt().equals(item.getExpiresAt())) {
+            item.setExpiresAt(request.getExpiresAt());
+            item.setExpiryNotified(false);
+            expiryScheduler.schedule(List.of(item));
+        }
+
+        StorageData saved = repo.save(item);
+        itemIndex.put(List.of(saved));
+        return saved;
+    }
+
+    private StorageData getItem(long storageId, long itemId, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        storageService.checkAccess(storageId, auth);
+        Optional<StorageData> item = repo.findByIdAndStorageId(itemId, storageId);
+
+        if (!item.isPresent())
+            throw new ItemNotFoundException();
+
+        return item.get();
+    }
+
+    private static LocalDate expiresAt(ScanItem scan, Product product, LocalDate today) {
+        if (scan.getExpiresAt() != null)
+            return scan.getExpiresAt();
+
+        if (product.getExpirationDays() == null)
+            return null;
+
+        return today.plusDays(product.getExpirationDays());
+    }
+}
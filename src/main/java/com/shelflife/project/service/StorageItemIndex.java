@@ -0,0 +1,141 @@
+package com.shelflife.project.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.event.UsersRemovedEvent;
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.util.AfterCommit;
+import com.shelflife.project.util.ItemBitmapIndex;
+
+/**
+ * Every storage item in an {@link ItemBitmapIndex} by storage, product type
+ * and expiry day, so filtered storage views and their type counts need no
+ * scan of the storage's items. Built when the application is ready, until
+ * then {@link #isReady()} is false and callers query the database. Kept up
+ * to date by the services changing items and products, after commit.
+ */
+@Service
+public class StorageItemIndex {
+
+    private static final ProductType[] TYPES = ProductType.values();
+
+    @Autowired
+    private StorageDataRepository repo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ItemBitmapIndex index = new ItemBitmapIndex(TYPES.length);
+    private volatile boolean ready;
+
+    // Changes that commit meanwhile wait for the scan, so none is lost
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ItemBitmapIndex loaded = new ItemBitmapIndex(TYPES.length);
+
+            try (Stream<Object[]> rows = repo.streamFacets()) {
+                rows.forEach(row -> loaded.put((Long) row[0], (Long) row[1], (Long) row[2],
+                        ((ProductType) row[3]).ordinal(), day((LocalDate) row[4])));
+            }
+
+            index = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public ItemBitmapIndex.Result query(long storageId, Collection<ProductType> types, LocalDate expiringBefore) {
+        int[] wanted = new int[types.size()];
+        int i = 0;
+        for (ProductType type : types)
+            wanted[i++] = type.ordinal();
+
+        lock.readLock().lock();
+        try {
+            return index.query(storageId, wanted, day(expiringBefore));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the items or updates them after a move.
+     */
+    public void put(List<StorageData> items) {
+        int count = items.size();
+        long[] ids = new long[count];
+        long[] storages = new long[count];
+        long[] products = new long[count];
+        int[] types = new int[count];
+        int[] days = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            StorageData item = items.get(i);
+            ids[i] = item.getId();
+            storages[i] = item.getStorage().getId();
+            products[i] = item.getProduct().getId();
+            types[i] = item.getProduct().getType().ordinal();
+            days[i] = day(item.getExpiresAt());
+        }
+
+        AfterCommit.run(lock, () -> {
+            for (int i = 0; i < count; i++)
+                index.put(ids[i], storages[i], products[i], types[i], days[i]);
+        });
+    }
+
+    public void removed(long itemId) {
+        AfterCommit.run(lock, () -> index.remove(itemId));
+    }
+
+    public void storageRemoved(long storageId) {
+        AfterCommit.run(lock, () -> index.removeStorage(storageId));
+    }
+
+    public void productRemoved(long productId) {
+        AfterCommit.run(lock, () -> index.removeProduct(productId));
+    }
+
+    public void productTypeChanged(long productId, ProductType type) {
+        AfterCommit.run(lock, () -> index.setProductType(productId, type.ordinal()));
+    }
+
+    // Deleting a user cascades to their storages in the database, with no
+    // storageRemoved call for them
+    @EventListener
+    public void onUsersRemoved(UsersRemovedEvent event) {
+        List<Long> storageIds = event.getStorageIds();
+        AfterCommit.run(lock, () -> storageIds.forEach(index::removeStorage));
+    }
+
+    private static int day(LocalDate date) {
+        return date == null ? ItemBitmapIndex.NO_EXPIRY : (int) date.toEpochDay();
+    }
+}
@@ -0,0 +1,205 @@
+package com.shelflife.project.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.dto.StorageRequest;
+import com.shelflife.project.exception.AlreadyMemberException;
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.model.OutboxMessage;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageMember;
+import com.shelflife.project.model.User;
+import com.shelflife.project.outbox.Outbox;
+import com.shelflife.project.repository.StorageMemberRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.util.ConstraintViolations;
+
+import jakarta.validation.Valid;
+
+@Service
+public class StorageService {
+
+    @Autowired
+    private StorageRepository repo;
+
+    @Autowired
+    private StorageMemberRepository memberRepo;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StorageAccessCache accessCache;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private ShoppingListIndex shoppingList;
+
+    @Autowired
+    private StorageItemIndex itemIndex;
+
+    /**
+     * Returns the caller if they may use the storage. Admins may use every
+     * storage, everyone else needs to own it or be invited.
+     */
+    @Transactional(readOnly = true)
+    public User checkAccess(long storageId, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        Optional<User> currentUser = userService.getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        if (currentUser.get().isAdmin() || accessCache.canAccess(currentUser.get().getId(), storageId))
+            return currentUser.get();
+
+        // Only the failing path pays for telling the two cases apart
+        if (!repo.existsById(storageId))
+            throw new ItemNotFoundException();
+
+        throw new AccessDeniedException(null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Storage> getStorages(Authentication auth) throws AccessDeniedException {
+        Optional<User> currentUser = userService.getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        return repo.findAccessible(currentUser.get().getId());
+    }
+
+    @Transactional(readOnly = true)
+    public Storage getStorage(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        checkAccess(id, auth);
+        return getStorageById(id);
+    }
+
+    @Transactional
+    public Storage createStorage(@Valid StorageRequest request, Authentication auth) throws AccessDeniedException {
+        Optional<User> currentUser = userService.getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        Storage storage = new Storage();
+        storage.setName(request.getName());
+        storage.setOwner(currentUser.get());
+
+        Storage saved = repo.save(storage);
+        accessCache.invalidate(List.of(currentUser.get().getId()));
+        return saved;
+    }
+
+    @Transactional
+    public Storage renameStorage(long id, @Valid StorageRequest request, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        Storage storage = getManagedStorage(id, auth);
+        storage.setName(request.getName());
+        return repo.save(storage);
+    }
+
+    @Transactional
+    public void removeStorage(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        Storage storage = getManagedStorage(id, auth);
+
+        List<Long> affected = new ArrayList<>(memberRepo.findUserIdsByStorageId(id));
+        affected.add(storage.getOwner().getId());
+
+        repo.delete(storage);
+        accessCache.invalidate(affected);
+        shoppingList.storageRemoved(id);
+        itemIndex.storageRemoved(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<User> getMembers(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        checkAccess(id, auth);
+        getStorageById(id);
+        return memberRepo.findUsersByStorageId(id);
+    }
+
+    @Transactional
+    public User addMember(long id, String email, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException, AlreadyMemberException {
+        Storage storage = getManagedStorage(id, auth);
+        User user = userService.getUserByEmail(email);
+
+        if (storage.getOwner().getId() == user.getId() || memberRepo.existsByStorageIdAndUserId(id, user.getId()))
+            throw new AlreadyMemberException();
+
+        StorageMember member = new StorageMember();
+        member.setStorage(storage);
+        member.setUser(user);
+        saveUniqueMember(member);
+
+        accessCache.invalidate(List.of(user.getId()));
+        outbox.enqueue(user.getEmail(), OutboxMessage.Kind.STORAGE_INVITE, "You were invited to " + storage.getName(),
+                storage.getOwner().getUsername() + " shared the storage " + storage.getName() + " with you.");
+        return user;
+    }
+
+    // The check above answers the common case, the unique key decides when
+    // the same user is invited twice at once
+    private void saveUniqueMember(StorageMember member) throws AlreadyMemberException {
+        try {
+            memberRepo.save(member);
+            memberRepo.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, "uk_storage_members_storage_user"))
+                throw new AlreadyMemberException();
+            throw e;
+        }
+    }
+
+    @Transactional
+    public void removeMember(long id, long userId, Authentication auth)
+            throws AccessDeniedException, ItemNotFoundException {
+        Optional<User> currentUser = userService.getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        // Members may leave on their own
+        if (currentUser.get().getId() != userId)
+            getManagedStorage(id, auth);
+
+        Optional<StorageMember> member = memberRepo.findByStorageIdAndUserId(id, userId);
+        if (!member.isPresent())
+            throw new ItemNotFoundException();
+
+        memberRepo.delete(member.get());
+        accessCache.invalidate(List.of(userId));
+    }
+
+    private Storage getStorageById(long id) throws ItemNotFoundException {
+        Optional<Storage> storage = repo.findById(id);
+
+        if (!storage.isPresent())
+            throw new ItemNotFoundException();
+
+        return storage.get();
+    }
+
+    // Renaming, deleting and managing members is for the owner and admins
+    private Storage getManagedStorage(long id, Authentication auth) throws AccessDeniedException, ItemNotFoundException {
+        User currentUser = checkAccess(id, auth);
+        Storage storage = getStorageById(id);
+
+        if (!currentUser.isAdmin() && storage.getOwner().getId() != currentUser.getId())
+            throw new AccessDeniedException(null);
+
+        return storage;
+    }
+}
@@ -0,0 +1,22 @@
+package com.shelflife.project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes expired entries from the token deny list. Runs on the task
+ * scheduler, which stops taking new runs when the context closes and waits
+ * for a running purge before the connection pool is shut down.
+ */
+@Component
+public class TokenPurgeJob {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Scheduled(fixedDelayString = "${app.jwt.purge-interval:1h}", initialDelayString = "${app.jwt.purge-interval:1h}")
+    public void purge() {
+        jwtService.removeExpiredInvalidatedTokens();
+    }
+}
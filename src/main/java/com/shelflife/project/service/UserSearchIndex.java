@@ -0,0 +1,234 @@
+package com.shelflife.project.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shelflife.project.dto.UserSearchResult;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.util.AfterCommit;
+
+/**
+ * In-memory trigram index over user emails and usernames for the admin search.
+ * Built when the application is ready and kept up to date by UserService.
+ * Changes made inside a transaction are applied after it commits.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private static final Comparator<Ranked> RANKING = Comparator
+            .comparingInt(Ranked::score)
+            .thenComparingInt(Ranked::length)
+            .thenComparingLong(r -> r.user().getId());
+
+    @Autowired
+    private UserRepository repo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UserSearchResult> users = new HashMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            grams.clear();
+
+            for (User user : repo.findAll())
+                add(UserSearchResult.of(user));
+
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(User user) {
+        UserSearchResult snapshot = UserSearchResult.of(user);
+
+        AfterCommit.run(lock, () -> {
+            removeById(snapshot.getId());
+            add(snapshot);
+        });
+    }
+
+    public void remove(long id) {
+        AfterCommit.run(lock, () -> removeById(id));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        List<Long> snapshot = List.copyOf(ids);
+
+        AfterCommit.run(lock, () -> {
+            for (long id : snapshot)
+                removeById(id);
+        });
+    }
+
+    public void setAdmin(Collection<Long> ids, boolean admin) {
+        List<Long> snapshot = List.copyOf(ids);
+
+        AfterCommit.run(lock, () -> {
+            for (long id : snapshot) {
+                UserSearchResult user = users.get(id);
+                if (user != null)
+                    users.put(id, new UserSearchResult(id, user.getEmail(), user.getUsername(), admin));
+            }
+        });
+    }
+
+    /**
+     * Returns every match, best first.
+     */
+    public List<UserSearchResult> search(String query) {
+        String q = normalize(query);
+        if (q.isEmpty())
+            return List.of();
+
+        lock.readLock().lock();
+        try {
+            List<Ranked> matches = new ArrayList<>();
+            for (long id : candidates(q)) {
+                Ranked ranked = rank(users.get(id), q);
+                if (ranked != null)
+                    matches.add(ranked);
+            }
+
+            matches.sort(RANKING);
+            return matches.stream().map(Ranked::user).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders users that were found some other way like the index would.
+     */
+    public static List<UserSearchResult> rankAll(List<UserSearchResult> found, String query) {
+        String q = normalize(query);
+
+        return found.stream()
+                .map(user -> rank(user, q))
+                .filter(r -> r != null)
+                .sorted(RANKING)
+                .map(Ranked::user)
+                .toList();
+    }
+
+    public static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Caller holds the read lock
+    private Iterable<Long> candidates(String q) {
+        if (q.length() < GRAM)
+            return users.keySet();
+
+        Set<Long> result = null;
+        for (String gram : grams(q)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null)
+                return Set.of();
+
+            if (result == null) {
+                result = new HashSet<>(posting);
+            } else {
+                result.retainAll(posting);
+            }
+
+            if (result.isEmpty())
+                return result;
+        }
+
+        return result;
+    }
+
+    // Caller holds the write lock
+    private void add(UserSearchResult user) {
+        users.put(user.getId(), user);
+
+        for (String gram : grams(user)) {
+            grams.computeIfAbsent(gram, g -> new HashSet<>()).add(user.getId());
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeById(long id) {
+        UserSearchResult old = users.remove(id);
+        if (old == null)
+            return;
+
+        for (String gram : grams(old)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null)
+                continue;
+
+            posting.remove(id);
+            if (posting.isEmpty())
+                grams.remove(gram);
+        }
+    }
+
+    private static Set<String> grams(UserSearchResult user) {
+        Set<String> result = grams(normalize(user.getEmail()));
+        result.addAll(grams(normalize(user.getUsername())));
+        return result;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            result.add(value.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    // Exact match ranks before prefix match, prefix before substring
+    private static Ranked rank(UserSearchResult user, String q) {
+        Ranked email = rankField(user, normalize(user.getEmail()), q);
+        Ranked username = rankField(user, normalize(user.getUsername()), q);
+
+        if (email == null)
+            return username;
+        if (username == null)
+            return email;
+
+        return RANKING.compare(email, username) <= 0 ? email : username;
+    }
+
+    private static Ranked rankField(UserSearchResult user, String value, String q) {
+        if (value.equals(q))
+            return new Ranked(user, 0, value.length());
+        if (value.startsWith(q))
+            return new Ranked(user, 1, value.length());
+        if (value.contains(q))
+            return new Ranked(user, 2, value.length());
+        return null;
+    }
+
+    private record Ranked(UserSearchResult user, int score, int length) {
+    }
+}
@@ -1,31 +1,51 @@
 package com.shelflife.project.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.shelflife.project.dto.BulkOutcome;
 import com.shelflife.project.dto.ChangePasswordRequest;
 import com.shelflife.project.dto.ChangeUserDataRequest;
 import com.shelflife.project.dto.LoginRequest;
 import com.shelflife.project.dto.SignUpRequest;
+import com.shelflife.project.dto.UserSearchResponse;
+import com.shelflife.project.dto.UserSearchResult;
+import com.shelflife.project.event.UsersRemovedEvent;
 import com.shelflife.project.exception.EmailExistsException;
 import com.shelflife.project.exception.InvalidPasswordException;
 import com.shelflife.project.exception.ItemNotFoundException;
 import com.shelflife.project.exception.PasswordsDontMatchException;
+import com.shelflife.project.exception.VersionMismatchException;
+import com.shelflife.project.jfr.PasswordHashEvent;
+import com.shelflife.project.model.OutboxMessage;
 import com.shelflife.project.model.User;
+import com.shelflife.project.outbox.Outbox;
+import com.shelflife.project.repository.StorageRepository;
 import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.util.ConstraintViolations;
 
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 
 @Service
 public class UserService {
 
+    // Keeps IN lists well below the limits of any database we run on
+    static final int BULK_CHUNK_SIZE = 500;
+    static final int BULK_MAX_IDS = 10000;
+
     @Autowired
     private UserRepository repo;
 
@@ -35,6 +55,19 @@ public class UserService {
     @Autowired
     private PasswordEncoder encoder;
 
+    @Autowired
+    private StorageRepository storageRepo;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Transactional(readOnly = true)
     public Optional<User> getUserByAuth(Authentication auth) {
         if (auth == null || !auth.isAuthenticated())
             return Optional.empty();
@@ -42,10 +75,12 @@ public class UserService {
         return repo.findByEmail(auth.getName());
     }
 
+    @Transactional(readOnly = true)
     public List<User> getUsers() {
         return repo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<User> getUsers(Authentication auth) throws AccessDeniedException {
         Optional<User> currentUser = getUserByAuth(auth);
 
@@ -58,6 +93,48 @@ public class UserService {
         return repo.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public UserSearchResponse searchUsers(String query, int page, int size, Authentication auth)
+            throws AccessDeniedException, IllegalArgumentException {
+        Optional<User> currentUser = getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        if (!currentUser.get().isAdmin())
+            throw new AccessDeniedException(null);
+
+        if (page < 0)
+            throw new IllegalArgumentException("page");
+
+        if (size < 1 || size > 100)
+            throw new IllegalArgumentException("size");
+
+        List<UserSearchResult> matches = searchIndex.isReady()
+                ? searchIndex.search(query)
+                : searchUsersInDatabase(query);
+
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+
+        return new UserSearchResponse(matches.subList(from, to), matches.size(), page, size);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSearchResult> searchUsersInDatabase(String query) {
+        String q = UserSearchIndex.normalize(query);
+        if (q.isEmpty())
+            return List.of();
+
+        String pattern = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        List<UserSearchResult> found = repo.searchByEmailOrUsername(pattern).stream()
+                .map(UserSearchResult::of)
+                .toList();
+
+        return UserSearchIndex.rankAll(found, q);
+    }
+
+    @Transactional(readOnly = true)
     public User getUserById(long id) throws ItemNotFoundException {
         Optional<User> user = repo.findById(id);
 
@@ -67,6 +144,7 @@ public class UserService {
         return user.get();
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(long id, Authentication auth) throws ItemNotFoundException, AccessDeniedException {
         Optional<User> currentUser = getUserByAuth(auth);
 
@@ -76,6 +154,7 @@ public class UserService {
         return getUserById(id);
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) throws ItemNotFoundException {
         Optional<User> user = repo.findByEmail(email);
 
@@ -85,6 +164,7 @@ public class UserService {
         return user.get();
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email, Authentication auth) throws ItemNotFoundException, AccessDeniedException {
         Optional<User> currentUser = getUserByAuth(auth);
 
@@ -102,22 +182,23 @@ public class UserService {
         if (currentUser.isPresent())
             throw new AccessDeniedException(null);
 
-        if (repo.existsByEmail(request.getEmail()))
-            throw new EmailExistsException();
-
         if (!request.getPassword().equals(request.getPasswordRepeat()))
             throw new PasswordsDontMatchException();
 
         User newUser = new User();
         newUser.setEmail(request.getEmail());
         newUser.setUsername(request.getUsername());
-        newUser.setPassword(encoder.encode(request.getPassword()));
+        newUser.setPassword(hashPassword(request.getPassword()));
         newUser.setAdmin(false);
 
-        return repo.save(newUser);
+        User saved = saveUniqueEmail(newUser);
+        searchIndex.put(saved);
+        outbox.enqueue(saved.getEmail(), OutboxMessage.Kind.WELCOME, "Welcome to ShelfLife",
+                "Hi " + saved.getUsername() + ", your ShelfLife account is ready.");
+        return saved;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public String login(@Valid LoginRequest request, Authentication auth)
             throws AccessDeniedException, ItemNotFoundException {
         Optional<User> currentUser = getUserByAuth(auth);
@@ -126,10 +207,10 @@ public class UserService {
             throw new AccessDeniedException(null);
 
         User dbUser = getUserByEmail(request.getEmail());
-        if (!encoder.matches(request.getPassword(), dbUser.getPassword()))
+        if (!passwordMatches(request.getPassword(), dbUser.getPassword()))
             throw new AccessDeniedException(null);
 
-        return jwtService.generateToken(request.getEmail());
+        return jwtService.generateToken(dbUser.getEmail());
     }
 
     @Transactional
@@ -139,7 +220,6 @@ public class UserService {
         if (!currentUser.isPresent())
             throw new AccessDeniedException(null);
 
-        jwtService.removeExpiredInvalidatedTokens();
         jwtService.invalidateToken((String) auth.getCredentials());
     }
 
@@ -151,19 +231,26 @@ public class UserService {
         if (!currentUser.isPresent())
             throw new AccessDeniedException(null);
 
-        if (!encoder.matches(request.getOldPassword(), currentUser.get().getPassword()))
+        if (!passwordMatches(request.getOldPassword(), currentUser.get().getPassword()))
             throw new InvalidPasswordException();
 
         if (!request.getNewPassword().equals(request.getNewPasswordRepeat()))
             throw new PasswordsDontMatchException();
 
-        currentUser.get().setPassword(encoder.encode(request.getNewPassword()));
+        currentUser.get().setPassword(hashPassword(request.getNewPassword()));
         repo.save(currentUser.get());
     }
 
     @Transactional
     public User updateUser(long id, ChangeUserDataRequest request, Authentication auth)
             throws ItemNotFoundException, AccessDeniedException, EmailExistsException, IllegalArgumentException {
+        return updateUser(id, request, auth, null);
+    }
+
+    @Transactional
+    public User updateUser(long id, ChangeUserDataRequest request, Authentication auth, Long expectedVersion)
+            throws ItemNotFoundException, AccessDeniedException, EmailExistsException, IllegalArgumentException,
+            VersionMismatchException {
 
         Optional<User> currentUser = getUserByAuth(auth);
 
@@ -175,6 +262,9 @@ public class UserService {
         if (!currentUser.get().isAdmin() && currentUser.get().getId() != dbUser.getId())
             throw new AccessDeniedException(null);
 
+        if (expectedVersion != null && dbUser.getVersion() != expectedVersion)
+            throw new VersionMismatchException();
+
         if (request.getUsername() != null) {
             if(request.getUsername().isBlank())
                 throw new IllegalArgumentException("username");
@@ -186,9 +276,6 @@ public class UserService {
             if(request.getEmail().isBlank())
                 throw new IllegalArgumentException("email");
 
-            if (repo.existsByEmail(request.getEmail()))
-                throw new EmailExistsException();
-
             dbUser.setEmail(request.getEmail());
         }
 
@@ -203,7 +290,9 @@ public class UserService {
             dbUser.setAdmin(request.getIsAdmin());
         }
 
-        return repo.save(dbUser);
+        User saved = saveUniqueEmail(dbUser);
+        searchIndex.put(saved);
+        return saved;
     }
 
     @Transactional
@@ -221,6 +310,125 @@ public class UserService {
 
         if (!repo.existsById(id))
             throw new ItemNotFoundException();
+
+        List<Long> storageIds = storageRepo.findIdsByOwnerIdIn(List.of(id));
         repo.deleteById(id);
+        searchIndex.remove(id);
+        events.publishEvent(new UsersRemovedEvent(List.of(id), storageIds));
+    }
+
+    @Transactional
+    public Map<Long, BulkOutcome> removeUsers(List<Long> ids, Authentication auth)
+            throws AccessDeniedException, IllegalArgumentException {
+        Map<Long, BulkOutcome> outcomes = bulkOutcomes(ids, auth);
+        List<Long> targets = pending(outcomes);
+
+        List<Long> storageIds = new ArrayList<>();
+        for (List<Long> chunk : chunks(targets)) {
+            storageIds.addAll(storageRepo.findIdsByOwnerIdIn(chunk));
+            repo.deleteAllByIdIn(chunk);
+        }
+
+        targets.forEach(id -> outcomes.put(id, BulkOutcome.DELETED));
+        searchIndex.removeAll(targets);
+        events.publishEvent(new UsersRemovedEvent(targets, storageIds));
+        return outcomes;
+    }
+
+    @Transactional
+    public Map<Long, BulkOutcome> setAdmin(List<Long> ids, boolean admin, Authentication auth)
+            throws AccessDeniedException, IllegalArgumentException {
+        Map<Long, BulkOutcome> outcomes = bulkOutcomes(ids, auth);
+        List<Long> targets = pending(outcomes);
+
+        for (List<Long> chunk : chunks(targets))
+            repo.updateAdminByIdIn(chunk, admin);
+
+        targets.forEach(id -> outcomes.put(id, BulkOutcome.UPDATED));
+        searchIndex.setAdmin(targets, admin);
+        return outcomes;
+    }
+
+    // Same rules as removeUser and updateUser: admins only and never on yourself.
+    // Ids that pass are mapped to null until the caller has applied the change.
+    private Map<Long, BulkOutcome> bulkOutcomes(List<Long> ids, Authentication auth)
+            throws AccessDeniedException, IllegalArgumentException {
+        Optional<User> currentUser = getUserByAuth(auth);
+
+        if (!currentUser.isPresent())
+            throw new AccessDeniedException(null);
+
+        if (!currentUser.get().isAdmin())
+            throw new AccessDeniedException(null);
+
+        if (ids == null || ids.isEmpty() || ids.size() > BULK_MAX_IDS || ids.contains(null))
+            throw new IllegalArgumentException("ids");
+
+        Map<Long, BulkOutcome> outcomes = new LinkedHashMap<>();
+        for (long id : new LinkedHashSet<>(ids))
+            outcomes.put(id, id == currentUser.get().getId() ? BulkOutcome.FORBIDDEN : BulkOutcome.NOT_FOUND);
+
+        for (List<Long> chunk : chunks(idsWith(outcomes, BulkOutcome.NOT_FOUND)))
+            for (long id : repo.findExistingIds(chunk))
+                outcomes.put(id, null);
+
+        return outcomes;
+    }
+
+    private static List<Long> pending(Map<Long, BulkOutcome> outcomes) {
+        return idsWith(outcomes, null);
+    }
+
+    private static List<Long> idsWith(Map<Long, BulkOutcome> outcomes, BulkOutcome outcome) {
+        List<Long> result = new ArrayList<>();
+        outcomes.forEach((id, o) -> {
+            if (o == outcome)
+                result.add(id);
+        });
+        return result;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE)
+            result.add(ids.subList(i, Math.min(i + BULK_CHUNK_SIZE, ids.size())));
+        return result;
+    }
+
+    // The unique constraints on users.email decide, so there is no separate
+    // existence check and concurrent writes of the same email can't both win
+    private User saveUniqueEmail(User user) throws EmailExistsException {
+        try {
+            User saved = repo.save(user);
+            repo.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, "uk_users_normalized_email", "uk_users_email"))
+                throw new EmailExistsException();
+            throw e;
+        }
+    }
+
+    private String hashPassword(String rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = PasswordHashEvent.ENCODE;
+        event.begin();
+
+        String hash = encoder.encode(rawPassword);
+
+        event.commit();
+        return hash;
+    }
+
+    private boolean passwordMatches(String rawPassword, String hash) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = PasswordHashEvent.MATCHES;
+        event.begin();
+
+        boolean matched = encoder.matches(rawPassword, hash);
+
+        event.matched = matched;
+        event.commit();
+        return matched;
     }
 }
@@ -0,0 +1,59 @@
+package com.shelflife.project.shutdown;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * First step of a graceful shutdown. Runs before every other lifecycle bean
+ * is stopped: readiness goes to REFUSING_TRAFFIC (OUT_OF_SERVICE on the
+ * probe), then load balancers get {@code app.shutdown.readiness-grace} to
+ * notice before the web server stops accepting connections and drains the
+ * requests in flight.
+ */
+@Component
+public class ReadinessShutdownLifecycle implements SmartLifecycle {
+
+    @Value("${app.shutdown.readiness-grace:0s}")
+    private Duration readinessGrace;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        try {
+            Thread.sleep(readinessGrace);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped first, the web server's graceful shutdown has a lower phase
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+}
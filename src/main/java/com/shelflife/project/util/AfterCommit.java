@@ -0,0 +1,49 @@
+package com.shelflife.project.util;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies a change to in-memory state once the surrounding transaction
+ * commits, so a rollback never shows up there. Outside a transaction the
+ * change runs right away.
+ *
+ * The indexes kept up to date this way rebuild in read-write transactions.
+ * Those are served by the primary, the database the changes committed to;
+ * a lagging replica would drop rows.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the change holding the write lock.
+     */
+    public static void run(ReadWriteLock lock, Runnable change) {
+        run(() -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+}
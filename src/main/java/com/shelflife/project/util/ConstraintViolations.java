@@ -0,0 +1,43 @@
+package com.shelflife.project.util;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Tells which constraint a failed write ran into, for code that lets a
+ * unique key decide instead of checking first.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Whether one of the named constraints was violated. Drivers report the
+     * name with a schema, table or index suffix around it (H2 as
+     * PUBLIC.UK_X_INDEX_1, MySQL as table.uk_x), so it is matched ignoring
+     * case anywhere in the reported name.
+     */
+    public static boolean isViolated(DataIntegrityViolationException e, String... constraints) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && matches(violation.getConstraintName(), constraints))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(String reported, String[] constraints) {
+        if (reported == null)
+            return false;
+
+        String name = reported.toLowerCase(Locale.ROOT);
+        for (String constraint : constraints) {
+            if (name.contains(constraint))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.shelflife.project.util;
+
+import java.util.Optional;
+
+/**
+ * The image formats we accept, told apart by their first bytes rather than
+ * by what the client claims. ImageIO reads all of them without plugins.
+ */
+public enum ImageFormat {
+    JPEG("jpg", "image/jpeg", "jpeg"),
+    PNG("png", "image/png", "png"),
+    GIF("gif", "image/gif", "gif");
+
+    // Enough for the longest signature below
+    public static final int SIGNATURE_LENGTH = 8;
+
+    private final String extension;
+    private final String contentType;
+    private final String imageIoName;
+
+    ImageFormat(String extension, String contentType, String imageIoName) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.imageIoName = imageIoName;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String imageIoName() {
+        return imageIoName;
+    }
+
+    /**
+     * JPEG thumbnails stay JPEG, the others may have transparency and become PNG.
+     */
+    public ImageFormat thumbnailFormat() {
+        return this == JPEG ? JPEG : PNG;
+    }
+
+    public static Optional<ImageFormat> detect(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF)
+            return Optional.of(JPEG);
+
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == '\r' && head[5] == '\n' && head[6] == 0x1A && head[7] == '\n')
+            return Optional.of(PNG);
+
+        if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8'
+                && (head[4] == '7' || head[4] == '9') && head[5] == 'a')
+            return Optional.of(GIF);
+
+        return Optional.empty();
+    }
+
+    public static Optional<ImageFormat> fromExtension(String extension) {
+        for (ImageFormat format : values()) {
+            if (format.extension.equals(extension))
+                return Optional.of(format);
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,228 @@
+package com.shelflife.project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Recipes by ingredient. Recipes and products get dense int slots, each
+ * recipe keeps its ingredients as a RoaringBitmap of product slots and each
+ * product the recipes using it as a RoaringBitmap of recipe slots.
+ *
+ * Matching a pantry walks the posting lists of the products in it and of
+ * the expiring ones, counting per recipe slot how many of its ingredients
+ * are on hand, which is its intersection with the pantry for every recipe
+ * in one pass. Only the best k are kept in a heap, no object is made for a
+ * recipe that doesn't get in.
+ *
+ * Not thread safe. Slots of removed recipes are reused, removed products
+ * give up their slot for good.
+ */
+public final class IngredientIndex {
+
+    public record Match(long recipeId, int ingredients, int matched, int expiring) {
+        public double coverage() {
+            return ingredients == 0 ? 0 : (double) matched / ingredients;
+        }
+    }
+
+    private final LongLongHashMap recipeSlots;
+    private long[] recipeIds;
+    private RoaringBitmap[] recipeIngredients;
+    private int[] ingredientCounts;
+    private final RoaringBitmap freeRecipeSlots = new RoaringBitmap();
+    private int recipeSlotCount;
+
+    private final LongLongHashMap productSlots = new LongLongHashMap();
+    private RoaringBitmap[] postings = new RoaringBitmap[16];
+    private int productSlotCount;
+
+    public IngredientIndex() {
+        this(16);
+    }
+
+    public IngredientIndex(int expectedRecipes) {
+        int capacity = Math.max(16, expectedRecipes);
+        recipeSlots = new LongLongHashMap(capacity);
+        recipeIds = new long[capacity];
+        recipeIngredients = new RoaringBitmap[capacity];
+        ingredientCounts = new int[capacity];
+    }
+
+    public int size() {
+        return recipeSlots.size();
+    }
+
+    /**
+     * Adds the recipe or replaces its ingredients.
+     */
+    public void put(long recipeId, long[] productIds) {
+        if (productIds.length > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Too many ingredients: " + productIds.length);
+
+        long existing = recipeSlots.get(recipeId);
+        int slot;
+
+        if (existing != LongLongHashMap.NO_VALUE) {
+            slot = (int) existing;
+            unlinkPostings(slot);
+        } else {
+            slot = allocateRecipeSlot();
+            recipeSlots.put(recipeId, slot);
+            recipeIds[slot] = recipeId;
+        }
+
+        RoaringBitmap ingredients = new RoaringBitmap();
+
+        for (long productId : productIds) {
+            int productSlot = productSlot(productId);
+            ingredients.add(productSlot);
+            postings[productSlot].add(slot);
+        }
+
+        ingredients.runOptimize();
+        recipeIngredients[slot] = ingredients;
+        ingredientCounts[slot] = ingredients.getCardinality();
+    }
+
+    public boolean remove(long recipeId) {
+        long existing = recipeSlots.remove(recipeId);
+        if (existing == LongLongHashMap.NO_VALUE)
+            return false;
+
+        int slot = (int) existing;
+        unlinkPostings(slot);
+        recipeIngredients[slot] = null;
+        ingredientCounts[slot] = 0;
+        freeRecipeSlots.add(slot);
+        return true;
+    }
+
+    /**
+     * Drops a product from every recipe using it.
+     */
+    public void removeProduct(long productId) {
+        long existing = productSlots.remove(productId);
+        if (existing == LongLongHashMap.NO_VALUE)
+            return;
+
+        int productSlot = (int) existing;
+        RoaringBitmap recipes = postings[productSlot];
+        recipes.forEach((int slot) -> {
+            recipeIngredients[slot].remove(productSlot);
+            ingredientCounts[slot]--;
+        });
+        postings[productSlot] = null;
+    }
+
+    /**
+     * The k recipes sharing most of their ingredients with the pantry: by
+     * share of their ingredients on hand, then by expiring ingredients used,
+     * then by fewest missing. Expiring products need to be in the pantry too.
+     */
+    public List<Match> topK(long[] pantry, long[] expiring, int k) {
+        RoaringBitmap have = toProductSlots(pantry);
+        RoaringBitmap soon = toProductSlots(expiring);
+        if (have.isEmpty() || k < 1)
+            return List.of();
+
+        // Summing the posting lists gives every recipe's intersection with
+        // the pantry at once
+        short[] matched = new short[recipeSlotCount];
+        short[] used = new short[soon.isEmpty() ? 0 : recipeSlotCount];
+        for (int productSlot : have)
+            postings[productSlot].forEach((int slot) -> matched[slot]++);
+        for (int productSlot : soon)
+            postings[productSlot].forEach((int slot) -> used[slot]++);
+
+        PriorityQueue<Match> best = new PriorityQueue<>(k + 1, IngredientIndex::compareWorstFirst);
+
+        for (int slot = 0; slot < matched.length; slot++) {
+            if (matched[slot] == 0)
+                continue;
+
+            int total = ingredientCounts[slot];
+            int expiringUsed = used.length == 0 ? 0 : used[slot];
+
+            // The worst one kept still ranks above it
+            if (best.size() == k && compare(best.peek(), recipeIds[slot], total, matched[slot], expiringUsed) > 0)
+                continue;
+
+            best.add(new Match(recipeIds[slot], total, matched[slot], expiringUsed));
+            if (best.size() > k)
+                best.poll();
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> compareWorstFirst(b, a));
+        return ranked;
+    }
+
+    // Positive when match ranks above the given recipe
+    private static int compare(Match match, long recipeId, int ingredients, int matched, int expiring) {
+        int byCoverage = Long.compare((long) match.matched() * ingredients, (long) matched * match.ingredients());
+        if (byCoverage != 0)
+            return byCoverage;
+
+        if (match.expiring() != expiring)
+            return Integer.compare(match.expiring(), expiring);
+
+        int missing = match.ingredients() - match.matched();
+        if (missing != ingredients - matched)
+            return Integer.compare(ingredients - matched, missing);
+
+        return Long.compare(recipeId, match.recipeId());
+    }
+
+    private static int compareWorstFirst(Match a, Match b) {
+        return compare(a, b.recipeId(), b.ingredients(), b.matched(), b.expiring());
+    }
+
+    private RoaringBitmap toProductSlots(long[] productIds) {
+        RoaringBitmap slots = new RoaringBitmap();
+        for (long productId : productIds) {
+            long slot = productSlots.get(productId);
+            if (slot != LongLongHashMap.NO_VALUE)
+                slots.add((int) slot);
+        }
+        return slots;
+    }
+
+    private void unlinkPostings(int slot) {
+        recipeIngredients[slot].forEach((int productSlot) -> postings[productSlot].remove(slot));
+    }
+
+    private int allocateRecipeSlot() {
+        if (!freeRecipeSlots.isEmpty()) {
+            int slot = freeRecipeSlots.first();
+            freeRecipeSlots.remove(slot);
+            return slot;
+        }
+
+        if (recipeSlotCount == recipeIds.length) {
+            int capacity = recipeIds.length * 2;
+            recipeIds = Arrays.copyOf(recipeIds, capacity);
+            recipeIngredients = Arrays.copyOf(recipeIngredients, capacity);
+            ingredientCounts = Arrays.copyOf(ingredientCounts, capacity);
+        }
+
+        return recipeSlotCount++;
+    }
+
+    private int productSlot(long productId) {
+        long existing = productSlots.get(productId);
+        if (existing != LongLongHashMap.NO_VALUE)
+            return (int) existing;
+
+        if (productSlotCount == postings.length)
+            postings = Arrays.copyOf(postings, postings.length * 2);
+
+        int slot = productSlotCount++;
+        productSlots.put(productId, slot);
+        postings[slot] = new RoaringBitmap();
+        return slot;
+    }
+}
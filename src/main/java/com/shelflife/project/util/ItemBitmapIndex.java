@@ -0,0 +1,193 @@
+package com.shelflife.project.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Storage items as RoaringBitmaps of dense item slots: one per storage, per
+ * product and per type. A filter is a few ANDs and ORs of those, and the
+ * count per type comes from intersecting the same base set with each type's
+ * bitmap. Expiry days are kept per slot and checked on the storage's own
+ * slots only.
+ *
+ * Types are small ints below the count given to the constructor, days are
+ * epoch days. Not thread safe. Slots of removed items are reused.
+ */
+public final class ItemBitmapIndex {
+
+    public static final int NO_EXPIRY = Integer.MAX_VALUE;
+
+    /**
+     * Matching item ids in ascending order, and per type how many items
+     * would match with that type alone, whatever types were asked for.
+     */
+    public record Result(long[] itemIds, int[] typeCounts) {
+    }
+
+    private final LongLongHashMap itemSlots = new LongLongHashMap();
+    private long[] itemIds = new long[16];
+    private long[] storages = new long[16];
+    private long[] products = new long[16];
+    private int[] types = new int[16];
+    private int[] expiryDays = new int[16];
+    private final RoaringBitmap freeSlots = new RoaringBitmap();
+    private int slotCount;
+
+    private final Map<Long, RoaringBitmap> byStorage = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byProduct = new HashMap<>();
+    private final RoaringBitmap[] byType;
+
+    public ItemBitmapIndex(int typeCount) {
+        byType = new RoaringBitmap[typeCount];
+        for (int i = 0; i < typeCount; i++)
+            byType[i] = new RoaringBitmap();
+    }
+
+    public int size() {
+        return itemSlots.size();
+    }
+
+    /**
+     * Adds the item or replaces what is known about it.
+     */
+    public void put(long itemId, long storageId, long productId, int type, int expiryDay) {
+        long existing = itemSlots.get(itemId);
+        int slot;
+
+        if (existing != LongLongHashMap.NO_VALUE) {
+            slot = (int) existing;
+            unlink(slot);
+        } else {
+            slot = allocateSlot();
+            itemSlots.put(itemId, slot);
+            itemIds[slot] = itemId;
+        }
+
+        storages[slot] = storageId;
+        products[slot] = productId;
+        types[slot] = type;
+        expiryDays[slot] = expiryDay;
+
+        byStorage.computeIfAbsent(storageId, id -> new RoaringBitmap()).add(slot);
+        byProduct.computeIfAbsent(productId, id -> new RoaringBitmap()).add(slot);
+        byType[type].add(slot);
+    }
+
+    public boolean remove(long itemId) {
+        long existing = itemSlots.remove(itemId);
+        if (existing == LongLongHashMap.NO_VALUE)
+            return false;
+
+        int slot = (int) existing;
+        unlink(slot);
+        freeSlots.add(slot);
+        return true;
+    }
+
+    public void removeStorage(long storageId) {
+        removeAll(byStorage.get(storageId));
+    }
+
+    public void removeProduct(long productId) {
+        removeAll(byProduct.get(productId));
+    }
+
+    public void setProductType(long productId, int type) {
+        RoaringBitmap items = byProduct.get(productId);
+        if (items == null)
+            return;
+
+        for (int slot : items) {
+            byType[types[slot]].remove(slot);
+            types[slot] = type;
+        }
+        byType[type].or(items);
+    }
+
+    /**
+     * Items of the storage with one of the types, all types when none are
+     * given, expiring before the given day unless it is {@link #NO_EXPIRY}.
+     */
+    public Result query(long storageId, int[] wantedTypes, int expiringBeforeDay) {
+        int[] counts = new int[byType.length];
+        RoaringBitmap storage = byStorage.get(storageId);
+        if (storage == null)
+            return new Result(new long[0], counts);
+
+        RoaringBitmap base = storage;
+        if (expiringBeforeDay != NO_EXPIRY) {
+            base = new RoaringBitmap();
+            for (int slot : storage) {
+                if (expiryDays[slot] < expiringBeforeDay)
+                    base.add(slot);
+            }
+        }
+
+        for (int type = 0; type < byType.length; type++)
+            counts[type] = RoaringBitmap.andCardinality(base, byType[type]);
+
+        RoaringBitmap matching = base;
+        if (wantedTypes.length > 0) {
+            RoaringBitmap[] selected = new RoaringBitmap[wantedTypes.length];
+            for (int i = 0; i < wantedTypes.length; i++)
+                selected[i] = byType[wantedTypes[i]];
+            matching = RoaringBitmap.and(base, FastAggregation.or(selected));
+        }
+
+        long[] ids = new long[matching.getCardinality()];
+        int i = 0;
+        for (int slot : matching)
+            ids[i++] = itemIds[slot];
+
+        Arrays.sort(ids);
+        return new Result(ids, counts);
+    }
+
+    private void removeAll(RoaringBitmap slots) {
+        if (slots == null)
+            return;
+
+        // A copy, unlinking changes the bitmap being walked
+        for (int slot : slots.clone()) {
+            itemSlots.remove(itemIds[slot]);
+            unlink(slot);
+            freeSlots.add(slot);
+        }
+    }
+
+    private void unlink(int slot) {
+        removeFrom(byStorage, storages[slot], slot);
+        removeFrom(byProduct, products[slot], slot);
+        byType[types[slot]].remove(slot);
+    }
+
+    private static void removeFrom(Map<Long, RoaringBitmap> bitmaps, long key, int slot) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        bitmap.remove(slot);
+        if (bitmap.isEmpty())
+            bitmaps.remove(key);
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            int slot = freeSlots.first();
+            freeSlots.remove(slot);
+            return slot;
+        }
+
+        if (slotCount == itemIds.length) {
+            int capacity = itemIds.length * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            storages = Arrays.copyOf(storages, capacity);
+            products = Arrays.copyOf(products, capacity);
+            types = Arrays.copyOf(types, capacity);
+            expiryDays = Arrays.copyOf(expiryDays, capacity);
+        }
+
+        return slotCount++;
+    }
+}
@@ -0,0 +1,52 @@
+package com.shelflife.project.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of longs kept as one sorted array, 8 bytes per element and
+ * no boxing. Lookups are a binary search.
+ */
+public final class LongArraySet {
+
+    public static final LongArraySet EMPTY = new LongArraySet(new long[0]);
+
+    private final long[] values;
+
+    private LongArraySet(long[] sortedDistinct) {
+        this.values = sortedDistinct;
+    }
+
+    public static LongArraySet of(Collection<Long> values) {
+        long[] array = new long[values.size()];
+        int i = 0;
+        for (long value : values)
+            array[i++] = value;
+
+        return of(array);
+    }
+
+    public static LongArraySet of(long... values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++)
+            if (size == 0 || sorted[size - 1] != sorted[i])
+                sorted[size++] = sorted[i];
+
+        return size == 0 ? EMPTY : new LongArraySet(Arrays.copyOf(sorted, size));
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public long[] toArray() {
+        return values.clone();
+    }
+}
@@ -0,0 +1,210 @@
+package com.shelflife.project.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from long to long with open addressing and linear probing over two
+ * parallel arrays, so neither keys nor values are boxed: 16 bytes per slot
+ * and no objects per entry. The table stays a power of two at most 3/4 full.
+ *
+ * Not thread safe. Values can't be {@link #NO_VALUE}, which get returns
+ * for missing keys.
+ */
+public final class LongLongHashMap {
+
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Marks a free slot in keys, the entry with this key is stored apart
+    private static final long FREE = 0;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasFreeKey;
+    private long freeKeyValue = NO_VALUE;
+
+    public LongLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public long get(long key) {
+        if (key == FREE)
+            return hasFreeKey ? freeKeyValue : NO_VALUE;
+
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key)
+                return values[slot];
+            if (k == FREE)
+                return NO_VALUE;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * Returns the previous value, or {@link #NO_VALUE}.
+     */
+    public long put(long key, long value) {
+        if (value == NO_VALUE)
+            throw new IllegalArgumentException("NO_VALUE can't be stored");
+
+        if (key == FREE) {
+            long previous = hasFreeKey ? freeKeyValue : NO_VALUE;
+            if (!hasFreeKey)
+                size++;
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return previous;
+        }
+
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (k == FREE)
+                break;
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt)
+            rehash(keys.length << 1);
+
+        return NO_VALUE;
+    }
+
+    /**
+     * Returns the removed value, or {@link #NO_VALUE}.
+     */
+    public long remove(long key) {
+        if (key == FREE) {
+            if (!hasFreeKey)
+                return NO_VALUE;
+            long previous = freeKeyValue;
+            hasFreeKey = false;
+            freeKeyValue = NO_VALUE;
+            size--;
+            return previous;
+        }
+
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == FREE)
+                return NO_VALUE;
+            if (k == key)
+                break;
+            slot = (slot + 1) & mask;
+        }
+
+        long previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        hasFreeKey = false;
+        freeKeyValue = NO_VALUE;
+        size = 0;
+    }
+
+    /**
+     * Bytes held by the two tables, object headers left out.
+     */
+    public long tableBytes() {
+        return (long) keys.length * Long.BYTES * 2;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // No tombstones: entries after the removed slot that would not be found
+    // any more are moved back, so lookups can always stop at a free slot.
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            // Move unless the entry's home lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        keys[gap] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == FREE)
+                continue;
+
+            int slot = slot(key);
+            while (keys[slot] != FREE)
+                slot = (slot + 1) & mask;
+
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+    }
+
+    private int slot(long key) {
+        // Barcodes are mostly sequential within a prefix, mix all bits first
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / 0.75) + 1);
+        if (needed > 1 << 30)
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
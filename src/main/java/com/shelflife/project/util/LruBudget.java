@@ -0,0 +1,85 @@
+package com.shelflife.project.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the sizes of cached entries in least recently used order under a
+ * byte budget. It only does the accounting: adding an entry returns the keys
+ * that no longer fit, the caller drops whatever they stand for.
+ *
+ * Not thread safe.
+ */
+public final class LruBudget<K> {
+
+    private final long budget;
+    private final LinkedHashMap<K, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public LruBudget(long budget) {
+        if (budget < 0)
+            throw new IllegalArgumentException("The budget can't be negative");
+
+        this.budget = budget;
+    }
+
+    /**
+     * Marks the entry as used, returns false if it isn't tracked.
+     */
+    public boolean touch(K key) {
+        return sizes.get(key) != null;
+    }
+
+    /**
+     * Tracks the entry as the most recently used one and returns the least
+     * recently used keys that had to go to stay within the budget. An entry
+     * larger than the whole budget is evicted right away.
+     */
+    public List<K> add(K key, long bytes) {
+        if (bytes < 0)
+            throw new IllegalArgumentException("Size can't be negative");
+
+        Long previous = sizes.put(key, bytes);
+        totalBytes += bytes - (previous == null ? 0 : previous);
+
+        List<K> evicted = new ArrayList<>();
+        Iterator<Map.Entry<K, Long>> it = sizes.entrySet().iterator();
+
+        while (totalBytes > budget && it.hasNext()) {
+            Map.Entry<K, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            it.remove();
+        }
+
+        return evicted;
+    }
+
+    public boolean remove(K key) {
+        Long bytes = sizes.remove(key);
+        if (bytes == null)
+            return false;
+
+        totalBytes -= bytes;
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return sizes.containsKey(key);
+    }
+
+    public int size() {
+        return sizes.size();
+    }
+
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    public long budget() {
+        return budget;
+    }
+}
@@ -0,0 +1,667 @@
+package com.shelflife.project.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Product names in a radix trie for type-ahead, the most popular matches
+ * first. A name is found by a prefix of its first word or of any later one,
+ * so "mil" finds "Milk" and "Semi-skimmed milk". Names are compared folded:
+ * lower case, accents dropped, anything but letters and digits a single
+ * space.
+ *
+ * The trie is kept in parallel int arrays instead of node objects, labels
+ * point into one char array holding every name. Each node knows the best
+ * rank below it and keeps its own names best first, so the top k are found
+ * best first and a query visits about k paths no matter how many names
+ * share the prefix.
+ *
+ * Removed and renamed names stay in the text until {@link #compacted()}
+ * copies the live ones into a new index. Not thread safe.
+ */
+public final class NamePrefixIndex {
+
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+
+    // The rank is popularity, then a match on the first word, then shorter names
+    private static final int MAX_POPULARITY = (1 << 24) - 1;
+    private static final int FIRST_WORD = 1 << 6;
+    private static final int MAX_LENGTH_BONUS = FIRST_WORD - 1;
+
+    private static final long POSTING = 1L << 31;
+
+    // Nodes: a label in text, children as a linked list and the best rank in the subtree
+    private int[] labelStart;
+    private int[] labelLength;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] best;
+    private int[] postings;
+    private int nodeCount;
+    private int freeNodes = NONE;
+
+    // Postings: a product whose key ends at a node, at most one per key
+    private int[] postingSlot;
+    private int[] postingRank;
+    private int[] postingNext;
+    private int postingCount;
+    private int freePostings = NONE;
+
+    // Products by slot, freed slots are reused
+    private long[] ids;
+    private int[] popularity;
+    private int[] nameStart;
+    private int[] nameLength;
+    private int[] keyStart;
+    private int[] keyLength;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private final LongLongHashMap slots;
+
+    private char[] text;
+    private int textLength;
+    private long garbage;
+
+    // Nodes on the path walked last, reused between calls
+    private int[] path = new int[64];
+
+    public record Suggestion(long id, String name, int popularity) {
+    }
+
+    public NamePrefixIndex() {
+        this(16);
+    }
+
+    public NamePrefixIndex(int expectedSize) {
+        int products = Math.max(16, expectedSize);
+        // About three words a name and two nodes a key
+        int keys = products * 3;
+
+        labelStart = new int[keys * 2];
+        labelLength = new int[keys * 2];
+        firstChild = new int[keys * 2];
+        nextSibling = new int[keys * 2];
+        best = new int[keys * 2];
+        postings = new int[keys * 2];
+
+        postingSlot = new int[keys];
+        postingRank = new int[keys];
+        postingNext = new int[keys];
+
+        ids = new long[products];
+        popularity = new int[products];
+        nameStart = new int[products];
+        nameLength = new int[products];
+        keyStart = new int[products];
+        keyLength = new int[products];
+        slots = new LongLongHashMap(products);
+
+        text = new char[products * 32];
+
+        newNode(0, 0);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    /**
+     * Adds the product or renames it, keeping its popularity.
+     */
+    public void put(long id, String name) {
+        long slot = slots.get(id);
+        put(id, name, slot == LongLongHashMap.NO_VALUE ? 0 : popularity[(int) slot]);
+    }
+
+    public void put(long id, String name, int popularity) {
+        add(id, name, popularity, true);
+    }
+
+    /**
+     * Adds a name without keeping postings in order, for filling a new index.
+     * Sorting every posting list once in {@link #finishLoad()} is cheaper
+     * than an ordered insert each time, which walks long lists of names
+     * sharing a word. Call it before the first query.
+     */
+    public void load(long id, String name, int popularity) {
+        add(id, name, popularity, false);
+    }
+
+    public void finishLoad() {
+        long[] sorted = new long[16];
+
+        for (int node = 0; node < nodeCount; node++) {
+            int count = 0;
+            for (int p = postings[node]; p != NONE; p = postingNext[p]) {
+                if (count == sorted.length)
+                    sorted = Arrays.copyOf(sorted, count * 2);
+                sorted[count++] = (long) postingRank[p] << 32 | p;
+            }
+
+            if (count < 2)
+                continue;
+
+            Arrays.sort(sorted, 0, count);
+            int next = NONE;
+            for (int i = 0; i < count; i++) {
+                int p = (int) sorted[i];
+                postingNext[p] = next;
+                next = p;
+            }
+            postings[node] = next;
+        }
+    }
+
+    private void add(long id, String name, int popularity, boolean ordered) {
+        remove(id);
+
+        String key = normalize(name);
+        int slot = allocateSlot();
+        ids[slot] = id;
+        this.popularity[slot] = clamp(popularity);
+        nameStart[slot] = append(name);
+        nameLength[slot] = name.length();
+        keyStart[slot] = append(key);
+        keyLength[slot] = key.length();
+        slots.put(id, slot);
+
+        for (int from = 0; from < key.length(); from = nextWord(slot, from))
+            insert(slot, from, ordered);
+    }
+
+    public boolean remove(long id) {
+        long found = slots.remove(id);
+        if (found == LongLongHashMap.NO_VALUE)
+            return false;
+
+        int slot = (int) found;
+        for (int from = 0; from < keyLength[slot]; from = nextWord(slot, from))
+            removeKey(slot, from);
+
+        garbage += nameLength[slot] + keyLength[slot];
+        if (freeSlotCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        freeSlots[freeSlotCount++] = slot;
+        return true;
+    }
+
+    public int popularity(long id) {
+        long slot = slots.get(id);
+        return slot == LongLongHashMap.NO_VALUE ? 0 : popularity[(int) slot];
+    }
+
+    public void addPopularity(long id, int delta) {
+        long slot = slots.get(id);
+        if (slot != LongLongHashMap.NO_VALUE)
+            setPopularity(id, popularity[(int) slot] + delta);
+    }
+
+    public void setPopularity(long id, int value) {
+        long found = slots.get(id);
+        if (found == LongLongHashMap.NO_VALUE)
+            return;
+
+        int slot = (int) found;
+        int clamped = clamp(value);
+        if (popularity[slot] == clamped)
+            return;
+
+        popularity[slot] = clamped;
+        for (int from = 0; from < keyLength[slot]; from = nextWord(slot, from))
+            rerank(slot, from);
+    }
+
+    /**
+     * The k best names matching the prefix, best first. Ties beyond the
+     * rank are broken arbitrarily.
+     */
+    public List<Suggestion> top(String prefix, int k) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || k <= 0)
+            return List.of();
+
+        int node = ROOT;
+        int pos = 0;
+        while (pos < key.length()) {
+            int child = child(node, key.charAt(pos));
+            if (child == NONE)
+                return List.of();
+
+            int start = labelStart[child];
+            int length = Math.min(labelLength[child], key.length() - pos);
+            for (int i = 1; i < length; i++) {
+                if (text[start + i] != key.charAt(pos + i))
+                    return List.of();
+            }
+
+            node = child;
+            pos += length;
+        }
+
+        List<Suggestion> found = new ArrayList<>(k);
+        int[] seen = new int[k];
+        LongHeap heap = new LongHeap();
+        heap.push(entry(best[node], false, node));
+
+        while (heap.size > 0 && found.size() < k) {
+            long top = heap.pop();
+            int index = (int) (top & (POSTING - 1));
+
+            if ((top & POSTING) != 0) {
+                int next = postingNext[index];
+                if (next != NONE)
+                    heap.push(entry(postingRank[next], true, next));
+
+                int slot = postingSlot[index];
+                // The same product may match through two of its words
+                boolean duplicate = false;
+                for (int i = 0; i < found.size() && !duplicate; i++)
+                    duplicate = seen[i] == slot;
+
+                if (!duplicate) {
+                    seen[found.size()] = slot;
+                    found.add(new Suggestion(ids[slot], new String(text, nameStart[slot], nameLength[slot]),
+                            popularity[slot]));
+                }
+                continue;
+            }
+
+            if (postings[index] != NONE)
+                heap.push(entry(postingRank[postings[index]], true, postings[index]));
+            for (int c = firstChild[index]; c != NONE; c = nextSibling[c])
+                heap.push(entry(best[c], false, c));
+        }
+
+        return found;
+    }
+
+    /**
+     * Chars of removed and renamed names still held in the text.
+     */
+    public long garbageChars() {
+        return garbage;
+    }
+
+    public long textChars() {
+        return textLength;
+    }
+
+    /**
+     * A copy with only the live names, sized for them.
+     */
+    public NamePrefixIndex compacted() {
+        NamePrefixIndex copy = new NamePrefixIndex(size());
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots.get(ids[slot]) == slot)
+                copy.load(ids[slot], new String(text, nameStart[slot], nameLength[slot]), popularity[slot]);
+        }
+        copy.finishLoad();
+        return copy;
+    }
+
+    /**
+     * Bytes held by the arrays, object headers left out.
+     */
+    public long memoryBytes() {
+        return (long) labelStart.length * Integer.BYTES * 6
+                + (long) postingSlot.length * Integer.BYTES * 3
+                + (long) ids.length * (Long.BYTES + Integer.BYTES * 5)
+                + (long) freeSlots.length * Integer.BYTES
+                + slots.tableBytes()
+                + (long) text.length * Character.BYTES;
+    }
+
+    public static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder key = new StringBuilder(decomposed.length());
+        boolean gap = false;
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK)
+                continue;
+
+            if (!Character.isLetterOrDigit(c)) {
+                gap = true;
+                continue;
+            }
+
+            if (gap && key.length() > 0)
+                key.append(' ');
+            gap = false;
+            key.append(Character.toLowerCase(c));
+        }
+
+        return key.toString();
+    }
+
+    private void insert(int slot, int from, boolean ordered) {
+        int rank = rank(slot, from);
+        int pos = keyStart[slot] + from;
+        int end = keyStart[slot] + keyLength[slot];
+        int node = ROOT;
+        best[ROOT] = Math.max(best[ROOT], rank);
+
+        while (pos < end) {
+            int prev = NONE;
+            int child = firstChild[node];
+            while (child != NONE && text[labelStart[child]] != text[pos]) {
+                prev = child;
+                child = nextSibling[child];
+            }
+
+            if (child == NONE) {
+                int leaf = newNode(pos, end - pos);
+                nextSibling[leaf] = firstChild[node];
+                firstChild[node] = leaf;
+                best[leaf] = rank;
+                node = leaf;
+                break;
+            }
+
+            int start = labelStart[child];
+            int length = labelLength[child];
+            int matched = 1;
+            while (matched < length && pos + matched < end && text[start + matched] == text[pos + matched])
+                matched++;
+
+            if (matched < length) {
+                // Split the label: the shared part becomes a new parent of the rest
+                int split = newNode(start, matched);
+                labelStart[child] = start + matched;
+                labelLength[child] = length - matched;
+                firstChild[split] = child;
+                nextSibling[split] = nextSibling[child];
+                nextSibling[child] = NONE;
+                best[split] = best[child];
+
+                if (prev == NONE) {
+                    firstChild[node] = split;
+                } else {
+                    nextSibling[prev] = split;
+                }
+                child = split;
+            }
+
+            best[child] = Math.max(best[child], rank);
+            node = child;
+            pos += matched;
+        }
+
+        int posting = allocatePosting();
+        postingSlot[posting] = slot;
+        postingRank[posting] = rank;
+
+        if (ordered) {
+            link(node, posting);
+        } else {
+            postingNext[posting] = postings[node];
+            postings[node] = posting;
+        }
+    }
+
+    private void removeKey(int slot, int from) {
+        int depth = walk(slot, from);
+        int node = path[depth];
+
+        int p = unlinkPosting(node, slot);
+        if (p != NONE) {
+            postingNext[p] = freePostings;
+            freePostings = p;
+        }
+
+        for (int i = depth; i > 0; i--) {
+            int n = path[i];
+            if (postings[n] == NONE && firstChild[n] == NONE) {
+                unlink(path[i - 1], n);
+            } else {
+                best[n] = bestOf(n);
+            }
+        }
+        best[ROOT] = bestOf(ROOT);
+    }
+
+    private void rerank(int slot, int from) {
+        int depth = walk(slot, from);
+        int node = path[depth];
+
+        int p = unlinkPosting(node, slot);
+        postingRank[p] = rank(slot, from);
+        link(node, p);
+
+        for (int i = depth; i >= 0; i--)
+            best[path[i]] = bestOf(path[i]);
+    }
+
+    // Fills path with the nodes down to the end of the key and returns the last index
+    private int walk(int slot, int from) {
+        int pos = keyStart[slot] + from;
+        int end = keyStart[slot] + keyLength[slot];
+        int depth = 0;
+        int node = ROOT;
+        path[0] = ROOT;
+
+        while (pos < end) {
+            node = child(node, text[pos]);
+            pos += labelLength[node];
+
+            if (++depth == path.length)
+                path = Arrays.copyOf(path, depth * 2);
+            path[depth] = node;
+        }
+
+        return depth;
+    }
+
+    // Postings stay sorted best first, so a query takes them one at a time
+    private void link(int node, int posting) {
+        int rank = postingRank[posting];
+        int prev = NONE;
+        int p = postings[node];
+        while (p != NONE && postingRank[p] >= rank) {
+            prev = p;
+            p = postingNext[p];
+        }
+
+        postingNext[posting] = p;
+        if (prev == NONE) {
+            postings[node] = posting;
+        } else {
+            postingNext[prev] = posting;
+        }
+    }
+
+    private int unlinkPosting(int node, int slot) {
+        int prev = NONE;
+        int p = postings[node];
+        while (p != NONE && postingSlot[p] != slot) {
+            prev = p;
+            p = postingNext[p];
+        }
+
+        if (p == NONE)
+            return NONE;
+
+        if (prev == NONE) {
+            postings[node] = postingNext[p];
+        } else {
+            postingNext[prev] = postingNext[p];
+        }
+        return p;
+    }
+
+    private int child(int node, char first) {
+        int child = firstChild[node];
+        while (child != NONE && text[labelStart[child]] != first)
+            child = nextSibling[child];
+        return child;
+    }
+
+    private void unlink(int parent, int node) {
+        int prev = NONE;
+        int child = firstChild[parent];
+        while (child != node) {
+            prev = child;
+            child = nextSibling[child];
+        }
+
+        if (prev == NONE) {
+            firstChild[parent] = nextSibling[node];
+        } else {
+            nextSibling[prev] = nextSibling[node];
+        }
+
+        nextSibling[node] = freeNodes;
+        freeNodes = node;
+    }
+
+    private int bestOf(int node) {
+        int result = postings[node] == NONE ? NONE : postingRank[postings[node]];
+        for (int c = firstChild[node]; c != NONE; c = nextSibling[c])
+            result = Math.max(result, best[c]);
+        return result;
+    }
+
+    private int rank(int slot, int from) {
+        int lengthBonus = MAX_LENGTH_BONUS - Math.min(MAX_LENGTH_BONUS, keyLength[slot]);
+        return popularity[slot] << 7 | (from == 0 ? FIRST_WORD : 0) | lengthBonus;
+    }
+
+    private int nextWord(int slot, int from) {
+        int start = keyStart[slot];
+        int length = keyLength[slot];
+        for (int i = from + 1; i < length; i++) {
+            if (text[start + i - 1] == ' ')
+                return i;
+        }
+        return length;
+    }
+
+    private int newNode(int start, int length) {
+        int node;
+        if (freeNodes != NONE) {
+            node = freeNodes;
+            freeNodes = nextSibling[node];
+        } else {
+            if (nodeCount == labelStart.length)
+                growNodes();
+            node = nodeCount++;
+        }
+
+        labelStart[node] = start;
+        labelLength[node] = length;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        best[node] = NONE;
+        postings[node] = NONE;
+        return node;
+    }
+
+    private void growNodes() {
+        int capacity = labelStart.length * 2;
+        labelStart = Arrays.copyOf(labelStart, capacity);
+        labelLength = Arrays.copyOf(labelLength, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        best = Arrays.copyOf(best, capacity);
+        postings = Arrays.copyOf(postings, capacity);
+    }
+
+    private int allocatePosting() {
+        if (freePostings != NONE) {
+            int posting = freePostings;
+            freePostings = postingNext[posting];
+            return posting;
+        }
+
+        if (postingCount == postingSlot.length) {
+            int capacity = postingSlot.length * 2;
+            postingSlot = Arrays.copyOf(postingSlot, capacity);
+            postingRank = Arrays.copyOf(postingRank, capacity);
+            postingNext = Arrays.copyOf(postingNext, capacity);
+        }
+        return postingCount++;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0)
+            return freeSlots[--freeSlotCount];
+
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            popularity = Arrays.copyOf(popularity, capacity);
+            nameStart = Arrays.copyOf(nameStart, capacity);
+            nameLength = Arrays.copyOf(nameLength, capacity);
+            keyStart = Arrays.copyOf(keyStart, capacity);
+            keyLength = Arrays.copyOf(keyLength, capacity);
+        }
+        return slotCount++;
+    }
+
+    private int append(String value) {
+        if (textLength + value.length() > text.length)
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + value.length()));
+
+        int start = textLength;
+        value.getChars(0, value.length(), text, start);
+        textLength += value.length();
+        return start;
+    }
+
+    private static int clamp(int popularity) {
+        return Math.max(0, Math.min(MAX_POPULARITY, popularity));
+    }
+
+    private static long entry(int rank, boolean posting, int index) {
+        return (long) rank << 32 | (posting ? POSTING : 0) | index;
+    }
+
+    // Max-heap of longs, so entries need no objects
+    private static final class LongHeap {
+        private long[] items = new long[64];
+        private int size;
+
+        void push(long value) {
+            if (size == items.length)
+                items = Arrays.copyOf(items, size * 2);
+
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (items[parent] >= value)
+                    break;
+                items[i] = items[parent];
+                i = parent;
+            }
+            items[i] = value;
+        }
+
+        long pop() {
+            long top = items[0];
+            long last = items[--size];
+
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && items[child + 1] > items[child])
+                    child++;
+                if (last >= items[child])
+                    break;
+                items[i] = items[child];
+                i = child;
+            }
+            items[i] = last;
+            return top;
+        }
+    }
+}
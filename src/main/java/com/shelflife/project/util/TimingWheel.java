@@ -0,0 +1,179 @@
+package com.shelflife.project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one bucket per tick, every level
+ * above has buckets as wide as a whole turn of the level below, so a few
+ * small levels span years. Scheduling and cancelling link or unlink a node
+ * in a bucket, both O(1). When a higher level bucket comes due its timers
+ * are spread over the level below, each timer moves down at most once per
+ * level.
+ *
+ * Time is counted in ticks from zero and only moves forward through
+ * {@link #advanceTo(long)}. Not thread safe.
+ */
+public final class TimingWheel<T> {
+
+    private final int wheelSize;
+    private final long[] spans;
+    private final Timer<T>[][] buckets;
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int wheelSize, int levels) {
+        if (wheelSize < 2 || levels < 1)
+            throw new IllegalArgumentException("A wheel needs at least two buckets and one level");
+
+        this.wheelSize = wheelSize;
+        this.spans = new long[levels];
+        this.buckets = new Timer[levels][wheelSize];
+
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            spans[level] = span;
+            span = Math.multiplyExact(span, wheelSize);
+        }
+    }
+
+    public static final class Timer<T> {
+        private final T value;
+        private final long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int level = -1;
+        private int bucket;
+
+        private Timer(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Deadlines that already passed fire on the next tick.
+     */
+    public Timer<T> schedule(T value, long deadline) {
+        Timer<T> timer = new Timer<>(value, Math.max(deadline, currentTick + 1));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isScheduled())
+            return false;
+
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves time forward tick by tick and returns the values of every timer
+     * that came due, earlier ticks first.
+     */
+    public List<T> advanceTo(long tick) {
+        List<T> due = new ArrayList<>();
+
+        while (currentTick < tick) {
+            currentTick++;
+
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0)
+                    cascade(level, (int) ((currentTick / spans[level]) % wheelSize));
+            }
+
+            int slot = (int) (currentTick % wheelSize);
+            Timer<T> timer = buckets[0][slot];
+            buckets[0][slot] = null;
+
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.prev = timer.next = null;
+                timer.level = -1;
+                due.add(timer.value);
+                size--;
+                timer = next;
+            }
+        }
+
+        return due;
+    }
+
+    private void cascade(int level, int slot) {
+        Timer<T> timer = buckets[level][slot];
+        buckets[level][slot] = null;
+
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = timer.next = null;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadline - currentTick;
+        int top = spans.length - 1;
+
+        int level = 0;
+        while (level < top && delta >= spans[level] * wheelSize)
+            level++;
+
+        long slot;
+        if (delta >= spans[top] * wheelSize) {
+            // Beyond the top level: park it in the last bucket, it is placed
+            // again when that bucket comes due
+            slot = currentTick / spans[top] + wheelSize - 1;
+        } else {
+            slot = timer.deadline / spans[level];
+        }
+
+        int index = (int) (slot % wheelSize);
+        Timer<T> head = buckets[level][index];
+        timer.next = head;
+        if (head != null)
+            head.prev = timer;
+        buckets[level][index] = timer;
+        timer.level = level;
+        timer.bucket = index;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.level][timer.bucket] = timer.next;
+        }
+
+        if (timer.next != null)
+            timer.next.prev = timer.prev;
+
+        timer.prev = timer.next = null;
+        timer.level = -1;
+    }
+}
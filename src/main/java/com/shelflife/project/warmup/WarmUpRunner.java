@@ -0,0 +1,102 @@
+package com.shelflife.project.warmup;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs synthetic calls through the hot request paths before the application
+ * reports itself ready. Spring Boot only publishes the ACCEPTING_TRAFFIC
+ * readiness state after all runners finished, so the readiness probe stays
+ * down until the JIT had a chance to compile these paths.
+ *
+ * Nothing is written to the database, the user only exists in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final String WARMUP_EMAIL = "warmup@shelflife.invalid";
+    private static final String WARMUP_PASSWORD = "warmup-password";
+
+    @Value("${app.warmup.iterations:500}")
+    private int iterations;
+
+    @Value("${app.warmup.password-iterations:10}")
+    private int passwordIterations;
+
+    @Value("${app.warmup.max-duration:30s}")
+    private Duration maxDuration;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private Duration lastDuration;
+    private int lastIterations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        User user = new User();
+        user.setId(-1);
+        user.setEmail(WARMUP_EMAIL);
+        user.setUsername("warmup");
+
+        String hash = encoder.encode(WARMUP_PASSWORD);
+        user.setPassword(hash);
+
+        int done = 0;
+        for (; done < iterations && System.nanoTime() < deadline; done++) {
+            String token = jwtService.generateToken(WARMUP_EMAIL);
+            jwtService.extractEmail(token);
+
+            jsonMapper.writeValueAsBytes(user);
+
+            userRepository.findByEmail(WARMUP_EMAIL);
+            userRepository.existsByEmail(WARMUP_EMAIL);
+            userRepository.findById(user.getId());
+
+            if (done < passwordIterations)
+                encoder.matches(WARMUP_PASSWORD, hash);
+        }
+
+        lastIterations = done;
+        lastDuration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Warm-up finished {} iterations in {} ms", done, lastDuration.toMillis());
+    }
+
+    public Duration getLastDuration() {
+        return lastDuration;
+    }
+
+    public int getLastIterations() {
+        return lastIterations;
+    }
+}
@@ -0,0 +1,16 @@
+CREATE TABLE stock_thresholds (
+    id BIGINT NOT NULL,
+    storage_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    min_quantity INT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_thresholds_storage_product UNIQUE (storage_id, product_id),
+    CONSTRAINT fk_stock_thresholds_storage FOREIGN KEY (storage_id) REFERENCES storages (id) ON DELETE CASCADE,
+    CONSTRAINT fk_stock_thresholds_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE stock_thresholds_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO stock_thresholds_seq (next_val) VALUES (1);
@@ -0,0 +1,30 @@
+CREATE TABLE recipes (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    instructions TEXT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE recipes_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO recipes_seq (next_val) VALUES (1);
+
+CREATE TABLE recipe_ingredients (
+    id BIGINT NOT NULL,
+    recipe_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    amount VARCHAR(255) NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_recipe_ingredients_recipe_product UNIQUE (recipe_id, product_id),
+    CONSTRAINT fk_recipe_ingredients_recipe FOREIGN KEY (recipe_id) REFERENCES recipes (id) ON DELETE CASCADE,
+    CONSTRAINT fk_recipe_ingredients_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE,
+    INDEX idx_recipe_ingredients_product (product_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE recipe_ingredients_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO recipe_ingredients_seq (next_val) VALUES (1);
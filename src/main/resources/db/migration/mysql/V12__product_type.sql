@@ -0,0 +1,2 @@
+ALTER TABLE products
+    ADD COLUMN type VARCHAR(16) NOT NULL DEFAULT 'OTHER';
@@ -0,0 +1,16 @@
+-- Databases baselined at V1 still have the email unique key Hibernate
+-- generated (UK followed by a hash). Duplicate signups are recognized by
+-- the name uk_users_email, so it is renamed to that where it differs.
+SET @legacy_key = (
+    SELECT s.index_name FROM information_schema.statistics s
+    WHERE s.table_schema = DATABASE() AND s.table_name = 'users'
+        AND s.column_name = 'email' AND s.seq_in_index = 1 AND s.non_unique = 0
+        AND s.index_name NOT IN ('PRIMARY', 'uk_users_email')
+    LIMIT 1);
+
+SET @rename_key = IF(@legacy_key IS NULL, 'DO 0',
+    CONCAT('ALTER TABLE users RENAME INDEX `', @legacy_key, '` TO uk_users_email'));
+
+PREPARE rename_key FROM @rename_key;
+EXECUTE rename_key;
+DEALLOCATE PREPARE rename_key;
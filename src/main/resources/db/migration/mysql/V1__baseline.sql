@@ -0,0 +1,32 @@
+-- The tables Hibernate created before migrations were introduced, with the
+-- unique keys named. Existing databases are baselined at this version and
+-- skip it, so they keep Hibernate's generated key names; V14 renames the
+-- email key there.
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    is_admin BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS users_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO users_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM users_seq);
+
+CREATE TABLE IF NOT EXISTS invalidjwts (
+    id BIGINT NOT NULL,
+    token VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS invalidjwts_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO invalidjwts_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM invalidjwts_seq);
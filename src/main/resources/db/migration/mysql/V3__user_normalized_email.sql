@@ -0,0 +1,9 @@
+-- Case-insensitive email lookups go through this column and its unique index.
+-- Accounts whose emails only differ in case have to be merged before running this.
+ALTER TABLE users ADD COLUMN normalized_email VARCHAR(255) NULL;
+
+UPDATE users SET normalized_email = LOWER(TRIM(email));
+
+ALTER TABLE users MODIFY normalized_email VARCHAR(255) NOT NULL;
+
+ALTER TABLE users ADD CONSTRAINT uk_users_normalized_email UNIQUE (normalized_email);
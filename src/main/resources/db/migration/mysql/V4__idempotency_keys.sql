@@ -0,0 +1,11 @@
+-- Only used with app.idempotency.store=jpa
+CREATE TABLE idempotency_keys (
+    scope_key CHAR(64) NOT NULL,
+    fingerprint CHAR(64) NOT NULL,
+    status INT NULL,
+    content_type VARCHAR(255) NULL,
+    body LONGBLOB NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (scope_key),
+    INDEX idx_idempotency_keys_created_at (created_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,31 @@
+CREATE TABLE storages (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_storages_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE storages_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO storages_seq (next_val) VALUES (1);
+
+-- Invited users, the owner is not listed here
+CREATE TABLE storage_members (
+    id BIGINT NOT NULL,
+    storage_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_storage_members_storage_user UNIQUE (storage_id, user_id),
+    CONSTRAINT fk_storage_members_storage FOREIGN KEY (storage_id) REFERENCES storages (id) ON DELETE CASCADE,
+    CONSTRAINT fk_storage_members_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    INDEX idx_storage_members_user (user_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE storage_members_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO storage_members_seq (next_val) VALUES (1);
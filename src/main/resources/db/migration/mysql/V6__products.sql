@@ -0,0 +1,14 @@
+CREATE TABLE products (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    barcode BIGINT NULL,
+    expiration_days INT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_barcode UNIQUE (barcode)
+) ENGINE=InnoDB;
+
+CREATE TABLE products_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO products_seq (next_val) VALUES (1);
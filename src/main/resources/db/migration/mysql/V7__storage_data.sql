@@ -0,0 +1,17 @@
+CREATE TABLE storage_data (
+    id BIGINT NOT NULL,
+    storage_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    created_at DATE NOT NULL,
+    expires_at DATE NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_storage_data_storage FOREIGN KEY (storage_id) REFERENCES storages (id) ON DELETE CASCADE,
+    CONSTRAINT fk_storage_data_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE storage_data_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO storage_data_seq (next_val) VALUES (1);
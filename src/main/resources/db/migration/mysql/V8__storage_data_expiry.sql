@@ -0,0 +1,3 @@
+ALTER TABLE storage_data
+    ADD COLUMN expiry_notified BIT NOT NULL DEFAULT 0,
+    ADD INDEX idx_storage_data_expires_at (expires_at);
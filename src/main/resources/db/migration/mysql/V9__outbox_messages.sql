@@ -0,0 +1,20 @@
+CREATE TABLE outbox_messages (
+    id BIGINT NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    kind VARCHAR(32) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    available_at DATETIME(6) NOT NULL,
+    attempts INT NOT NULL,
+    failed_at DATETIME(6) NULL,
+    last_error VARCHAR(1000) NULL,
+    PRIMARY KEY (id),
+    INDEX idx_outbox_messages_available_at (available_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE outbox_messages_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO outbox_messages_seq (next_val) VALUES (1);
@@ -66,11 +66,29 @@ public class LoginTests {
                 .andExpect(jsonPath("$.isAdmin").value(testUser.isAdmin()));
     }
 
+    @Test
+    void loginEmailIsCaseInsensitive() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(getLoginJson("Test@TEST.test", "test123")))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists("jwt"))
+                .andReturn();
+
+        Cookie jwtCookie = new Cookie("jwt", result.getResponse().getCookie("jwt").getValue());
+
+        mockMvc.perform(get("/api/auth/me")
+                .cookie(jwtCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(testUser.getId()))
+                .andExpect(jsonPath("$.email").value(testUser.getEmail()));
+    }
+
     @Test
     void loginInvalidEmail() throws Exception {
         mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(getLoginJson("test@Test.test", "test123")))
+                .content(getLoginJson("test@other.test", "test123")))
                 .andExpect(status().isBadRequest())
                 .andExpect(cookie().doesNotExist("jwt"))
                 .andReturn();
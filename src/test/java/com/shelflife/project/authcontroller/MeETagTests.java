@@ -0,0 +1,78 @@
+package com.shelflife.project.authcontroller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class MeETagTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private User testUser;
+    private Cookie jwtCookie;
+
+    @BeforeEach
+    void setup() {
+        testUser = new User();
+        testUser.setEmail("test@test.test");
+        testUser.setUsername("test");
+        testUser.setPassword(encoder.encode("test123"));
+        userRepository.saveAndFlush(testUser);
+
+        jwtCookie = new Cookie("jwt", jwtService.generateToken(testUser.getEmail()));
+    }
+
+    @Test
+    void meReturnsETag() throws Exception {
+        mockMvc.perform(get("/api/auth/me")
+                .cookie(jwtCookie))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + testUser.getId() + "-0\""));
+    }
+
+    @Test
+    void meNotModified() throws Exception {
+        mockMvc.perform(get("/api/auth/me")
+                .cookie(jwtCookie)
+                .header("If-None-Match", "\"" + testUser.getId() + "-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void meModifiedWithOtherETag() throws Exception {
+        mockMvc.perform(get("/api/auth/me")
+                .cookie(jwtCookie)
+                .header("If-None-Match", "\"" + testUser.getId() + "-5\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(testUser.getEmail()));
+    }
+}
@@ -79,6 +79,16 @@ public class SignupTests {
                 .andExpect(jsonPath("$.passwordRepeat").doesNotExist());
     }
 
+    @Test
+    void emailAlreadyUsedWithOtherCaseError() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                        "{\"email\":\"Test@TEST.test\", \"username\":\"test1\", \"password\":\"Test123\", \"passwordRepeat\":\"Test123\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.email").exists());
+    }
+
     @Test
     void invalidEmailError() throws Exception {
         mockMvc.perform(post("/api/auth/signup")
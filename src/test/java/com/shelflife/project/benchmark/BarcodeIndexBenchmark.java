@@ -0,0 +1,119 @@
+package com.shelflife.project.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.shelflife.project.util.LongLongHashMap;
+
+/**
+ * Barcode lookups against a million products in {@link LongLongHashMap} and
+ * in a HashMap with boxed keys. main first prints the retained heap of both
+ * maps, measured as the used heap difference after a full GC.
+ *
+ * Run with:
+ * {@code mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath com.shelflife.project.benchmark.BarcodeIndexBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BarcodeIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int PROBES = 1 << 16;
+
+    private LongLongHashMap primitive;
+    private Map<Long, Long> boxed;
+    private long[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        long[] barcodes = barcodes();
+        primitive = primitive(barcodes);
+        boxed = boxed(barcodes);
+
+        // Three out of four scans hit a known product
+        Random random = new Random(7);
+        probes = new long[PROBES];
+        for (int i = 0; i < PROBES; i++)
+            probes[i] = random.nextInt(4) == 0 ? 2_000_000_000_000L + random.nextInt(PRODUCTS)
+                    : barcodes[random.nextInt(PRODUCTS)];
+    }
+
+    @Benchmark
+    public long primitiveLookup() {
+        return primitive.get(probes[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public Long boxedLookup() {
+        return boxed.get(probes[next++ & (PROBES - 1)]);
+    }
+
+    // EAN-13 like numbers, dense within a few manufacturer prefixes
+    private static long[] barcodes() {
+        long[] barcodes = new long[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++)
+            barcodes[i] = 5_900_000_000_000L + (i % 20) * 10_000_000L + i / 20;
+        return barcodes;
+    }
+
+    private static LongLongHashMap primitive(long[] barcodes) {
+        LongLongHashMap map = new LongLongHashMap(barcodes.length);
+        for (int i = 0; i < barcodes.length; i++)
+            map.put(barcodes[i], i + 1);
+        return map;
+    }
+
+    private static Map<Long, Long> boxed(long[] barcodes) {
+        Map<Long, Long> map = new HashMap<>();
+        for (int i = 0; i < barcodes.length; i++)
+            map.put(barcodes[i], (long) i + 1);
+        return map;
+    }
+
+    private static long retained(Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object map = build.get();
+        long after = usedAfterGc();
+        if (map.hashCode() == 42)
+            System.out.print("");
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws Exception {
+        long[] barcodes = barcodes();
+        System.out.printf("LongLongHashMap:     %6.1f MiB%n", retained(() -> primitive(barcodes)) / 1048576.0);
+        System.out.printf("HashMap<Long, Long>: %6.1f MiB%n", retained(() -> boxed(barcodes)) / 1048576.0);
+
+        new Runner(new OptionsBuilder()
+                .include(BarcodeIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.shelflife.project.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.shelflife.project.ProjectApplication;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+/**
+ * Compares payload bytes and end-to-end latency of a 10k user
+ * {@code GET /api/users} over HTTP/1.1 and h2c, with and without gzip.
+ * Latency includes decompressing the body on the client.
+ *
+ * Starts the application in-process with the test profile (H2), so it runs
+ * from the test classpath:
+ * {@code mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath com.shelflife.project.benchmark.CompressionBenchmark [users] [requests]"}
+ */
+public class CompressionBenchmark {
+
+    private final int port;
+    private final String token;
+
+    CompressionBenchmark(int port, String token) {
+        this.port = port;
+        this.token = token;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Devtools would restart the context in a new thread
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjectApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=warn")) {
+
+            seed(context.getBean(UserRepository.class), users);
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            String token = context.getBean(JwtService.class).generateToken("bench0@test.test");
+            CompressionBenchmark benchmark = new CompressionBenchmark(port, token);
+
+            for (HttpClient.Version version : HttpClient.Version.values())
+                for (boolean gzip : new boolean[] { false, true })
+                    benchmark.run(version, gzip, requests);
+        }
+    }
+
+    void run(HttpClient.Version version, boolean gzip, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(version).build();
+
+        // Warm up the server and the connection
+        for (int i = 0; i < requests / 4; i++)
+            fetch(client, gzip);
+
+        long[] nanos = new long[requests];
+        long bytes = 0;
+        HttpClient.Version negotiated = null;
+
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = fetch(client, gzip);
+            decode(response);
+            nanos[i] = System.nanoTime() - start;
+
+            bytes = response.body().length;
+            negotiated = response.version();
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("%-8s gzip=%-5s bytes=%-9d p50=%.2fms p99=%.2fms%n", negotiated, gzip, bytes,
+                nanos[requests / 2] / 1e6, nanos[requests * 99 / 100] / 1e6);
+    }
+
+    private HttpResponse<byte[]> fetch(HttpClient client, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users"))
+                .header("Authorization", "Bearer " + token)
+                .GET();
+
+        if (gzip)
+            request.header("Accept-Encoding", "gzip");
+
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("GET /api/users answered " + response.statusCode());
+
+        return response;
+    }
+
+    private static byte[] decode(HttpResponse<byte[]> response) throws Exception {
+        if (!response.headers().firstValue("Content-Encoding").orElse("").equals("gzip"))
+            return response.body();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void seed(UserRepository repo, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail("bench" + i + "@test.test");
+            user.setUsername("bench" + i);
+            user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3J0nbCfE0e4oWqUQtJ1K5W.");
+            user.setAdmin(i == 0);
+            users.add(user);
+        }
+        repo.saveAll(users);
+    }
+}
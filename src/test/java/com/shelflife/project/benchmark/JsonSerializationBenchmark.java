@@ -0,0 +1,127 @@
+package com.shelflife.project.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.shelflife.project.json.ErrorBody;
+import com.shelflife.project.model.User;
+
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Compares default reflective serialization through a plain JsonMapper with
+ * Blackbird and precomputed ObjectWriters, and Map error bodies with
+ * {@link ErrorBody}. Every benchmark writes one response body into a reused
+ * buffer, so the gc.alloc.rate.norm column of the GC profiler is the number
+ * of bytes allocated per response.
+ *
+ * Run with:
+ * {@code mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath com.shelflife.project.benchmark.JsonSerializationBenchmark"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+
+    private JsonMapper reflective;
+    private ObjectWriter userWriter;
+    private ObjectWriter userListWriter;
+
+    private User user;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        reflective = JsonMapper.builder().build();
+
+        JsonMapper blackbird = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+        userWriter = blackbird.writerFor(User.class);
+        userListWriter = blackbird.writerFor(blackbird.getTypeFactory().constructCollectionType(List.class, User.class));
+
+        users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User u = new User();
+            u.setId(i);
+            u.setEmail("user" + i + "@shelflife.test");
+            u.setUsername("user" + i);
+            u.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            u.setAdmin(i % 10 == 0);
+            users.add(u);
+        }
+        user = users.get(1);
+    }
+
+    @Benchmark
+    public int userReflective() {
+        out.reset();
+        reflective.writeValue(out, user);
+        return out.size();
+    }
+
+    @Benchmark
+    public int userPrecomputed() {
+        out.reset();
+        userWriter.writeValue(out, user);
+        return out.size();
+    }
+
+    @Benchmark
+    public int userListReflective() {
+        out.reset();
+        reflective.writeValue(out, users);
+        return out.size();
+    }
+
+    @Benchmark
+    public int userListPrecomputed() {
+        out.reset();
+        userListWriter.writeValue(out, users);
+        return out.size();
+    }
+
+    @Benchmark
+    public int errorMap() {
+        out.reset();
+        reflective.writeValue(out, Map.of("error", "Invalid email or password"));
+        return out.size();
+    }
+
+    @Benchmark
+    public int errorPreSerialized() throws IOException {
+        out.reset();
+        ErrorBody.INVALID_LOGIN.writeTo(out);
+        return out.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.shelflife.project.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.shelflife.project.util.NamePrefixIndex;
+
+/**
+ * Top 10 product names for a typed prefix out of a million, with
+ * {@link NamePrefixIndex} and by ranking every name in the matching range
+ * of a sorted array, the in-memory version of a LIKE 'prefix%' range scan.
+ * The sorted array only matches the start of names, the index matches
+ * every word. main first prints the retained heap of the index.
+ *
+ * Run with:
+ * {@code mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath com.shelflife.project.benchmark.NamePrefixIndexBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class NamePrefixIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int PROBES = 1024;
+    private static final int TOP = 10;
+
+    private static final String[] NOUNS = { "milk", "butter", "cheese", "yoghurt", "cream", "bread", "rolls", "flour",
+            "sugar", "salt", "rice", "pasta", "beans", "lentils", "tomatoes", "potatoes", "onions", "apples",
+            "bananas", "oranges", "chicken", "beef", "pork", "salmon", "tuna", "eggs", "coffee", "tea", "juice",
+            "water", "chocolate", "biscuits", "crisps", "cereal", "oats", "honey", "jam", "sauce", "soup", "peas" };
+    private static final String[] ADJECTIVES = { "organic", "whole", "semi skimmed", "smoked", "fresh", "frozen",
+            "sliced", "grated", "light", "extra", "classic", "spicy", "sweet", "salted", "unsalted", "wholegrain" };
+    private static final String[] SYLLABLES = { "ka", "lo", "mi", "ra", "ve", "to", "su", "ni", "pe", "da", "go",
+            "bi", "ze", "fa", "qu", "xo" };
+
+    @Param({ "1", "2", "4" })
+    private int prefixLength;
+
+    private NamePrefixIndex index;
+    private String[] sortedKeys;
+    private int[] sortedPopularity;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5);
+        String[] names = names(random);
+        int[] popularity = popularity(random);
+        index = index(names, popularity);
+
+        Integer[] order = new Integer[PRODUCTS];
+        String[] keys = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            order[i] = i;
+            keys[i] = NamePrefixIndex.normalize(names[i]);
+        }
+        Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+
+        sortedKeys = new String[PRODUCTS];
+        sortedPopularity = new int[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedPopularity[i] = popularity[order[i]];
+        }
+
+        // What people type: the start of a brand or of a word in the name
+        prefixes = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            String[] words = keys[random.nextInt(PRODUCTS)].split(" ");
+            String word = words[random.nextInt(words.length)];
+            prefixes[i] = word.substring(0, Math.min(prefixLength, word.length()));
+        }
+    }
+
+    @Benchmark
+    public List<NamePrefixIndex.Suggestion> index() {
+        return index.top(prefixes[next++ & (PROBES - 1)], TOP);
+    }
+
+    @Benchmark
+    public int[] sortedRangeScan() {
+        String prefix = prefixes[next++ & (PROBES - 1)];
+        int from = lowerBound(prefix);
+        PriorityQueue<Integer> top = new PriorityQueue<>((a, b) -> Integer.compare(sortedPopularity[a],
+                sortedPopularity[b]));
+
+        for (int i = from; i < sortedKeys.length && sortedKeys[i].startsWith(prefix); i++) {
+            top.add(i);
+            if (top.size() > TOP)
+                top.poll();
+        }
+
+        return top.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // "<brand> <adjective> <noun> <size>", with a few thousand made up brands
+    private static String[] names(Random random) {
+        String[] brands = new String[4000];
+        for (int i = 0; i < brands.length; i++) {
+            StringBuilder brand = new StringBuilder();
+            for (int s = 0; s < 2 + random.nextInt(2); s++)
+                brand.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            brands[i] = Character.toUpperCase(brand.charAt(0)) + brand.substring(1);
+        }
+
+        String[] names = new String[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            names[i] = brands[random.nextInt(brands.length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " "
+                    + (50 + random.nextInt(950)) + "g";
+        }
+        return names;
+    }
+
+    // Most products are rarely stocked, a few are everywhere
+    private static int[] popularity(Random random) {
+        int[] popularity = new int[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++)
+            popularity[i] = (int) (1 / (random.nextDouble() + 0.001));
+        return popularity;
+    }
+
+    private static NamePrefixIndex index(String[] names, int[] popularity) {
+        NamePrefixIndex index = new NamePrefixIndex(names.length);
+        for (int i = 0; i < names.length; i++)
+            index.load(i + 1, names[i], popularity[i]);
+        index.finishLoad();
+        return index;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(5);
+        String[] names = names(random);
+        int[] popularity = popularity(random);
+
+        long before = usedAfterGc();
+        NamePrefixIndex index = index(names, popularity);
+        long retained = usedAfterGc() - before;
+
+        System.out.printf("NamePrefixIndex: %6.1f MiB retained, %d bytes per name, arrays %d bytes per name%n",
+                retained / 1048576.0, retained / index.size(), index.memoryBytes() / index.size());
+
+        new Runner(new OptionsBuilder()
+                .include(NamePrefixIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
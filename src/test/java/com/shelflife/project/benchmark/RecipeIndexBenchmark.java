@@ -0,0 +1,129 @@
+package com.shelflife.project.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.shelflife.project.util.IngredientIndex;
+import com.shelflife.project.util.LongArraySet;
+
+/**
+ * Top 10 recipes out of 100k for pantries of typical sizes, with
+ * {@link IngredientIndex} and by scoring every recipe against the pantry
+ * the way a join over all recipes would. Ingredients and pantries lean
+ * towards common products, like real ones do.
+ *
+ * Run with:
+ * {@code mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test -Dexec.args="-cp %classpath com.shelflife.project.benchmark.RecipeIndexBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RecipeIndexBenchmark {
+
+    private static final int RECIPES = 100_000;
+    private static final int PRODUCTS = 5_000;
+    private static final int PANTRIES = 64;
+    private static final int TOP = 10;
+
+    @Param({ "10", "30", "100" })
+    private int pantrySize;
+
+    private IngredientIndex index;
+    private long[][] recipes;
+    private long[][] pantries;
+    private long[][] expiring;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(47);
+        index = new IngredientIndex(RECIPES);
+        recipes = new long[RECIPES][];
+
+        for (int i = 0; i < RECIPES; i++) {
+            long[] ingredients = new long[4 + random.nextInt(9)];
+            for (int j = 0; j < ingredients.length; j++)
+                ingredients[j] = product(random);
+            recipes[i] = LongArraySet.of(ingredients).toArray();
+            index.put(i + 1, recipes[i]);
+        }
+
+        pantries = new long[PANTRIES][];
+        expiring = new long[PANTRIES][];
+        for (int i = 0; i < PANTRIES; i++) {
+            long[] pantry = new long[pantrySize];
+            for (int j = 0; j < pantrySize; j++)
+                pantry[j] = product(random);
+            pantries[i] = LongArraySet.of(pantry).toArray();
+            expiring[i] = new long[] { pantries[i][0], pantries[i][pantries[i].length / 2] };
+        }
+    }
+
+    // Product 0 is the most common, about a cube law down from there
+    private static long product(Random random) {
+        double r = random.nextDouble();
+        return (long) (PRODUCTS * r * r * r);
+    }
+
+    @Benchmark
+    public List<IngredientIndex.Match> index() {
+        int i = next++ & (PANTRIES - 1);
+        return index.topK(pantries[i], expiring[i], TOP);
+    }
+
+    @Benchmark
+    public List<IngredientIndex.Match> scanAll() {
+        int i = next++ & (PANTRIES - 1);
+        LongArraySet pantry = LongArraySet.of(pantries[i]);
+        LongArraySet soon = LongArraySet.of(expiring[i]);
+
+        PriorityQueue<IngredientIndex.Match> best = new PriorityQueue<>(TOP + 1,
+                (a, b) -> a.coverage() != b.coverage() ? Double.compare(a.coverage(), b.coverage())
+                        : Integer.compare(a.expiring(), b.expiring()));
+
+        for (int r = 0; r < RECIPES; r++) {
+            int matched = 0;
+            int used = 0;
+            for (long productId : recipes[r]) {
+                if (pantry.contains(productId))
+                    matched++;
+                if (soon.contains(productId))
+                    used++;
+            }
+            if (matched == 0)
+                continue;
+
+            best.add(new IngredientIndex.Match(r + 1, recipes[r].length, matched, used));
+            if (best.size() > TOP)
+                best.poll();
+        }
+
+        return new ArrayList<>(best);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RecipeIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
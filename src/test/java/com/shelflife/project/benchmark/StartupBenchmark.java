@@ -0,0 +1,135 @@
+package com.shelflife.project.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures the time from process start to the first successful
+ * {@code GET /api/auth/me}, once with a plain launch and once with the AOT
+ * code and AppCDS archive produced by the {@code aot-cds} profile.
+ *
+ * Build with {@code mvn -B -Paot-cds package -DskipTests}, then run:
+ * {@code java -cp target/test-classes com.shelflife.project.benchmark.StartupBenchmark [runs] [port]}
+ *
+ * Every run signs up a fresh user, so the datasource from .env has to be
+ * reachable.
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private final int port;
+
+    StartupBenchmark(int port) {
+        this.port = port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+
+        Path cds = Path.of("target", "cds");
+        String jar = cds.resolve("project-0.0.1-SNAPSHOT.jar").toString();
+        String archive = cds.resolve("application.jsa").toString();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        StartupBenchmark benchmark = new StartupBenchmark(port);
+
+        List<Long> plain = benchmark.measure(runs,
+                List.of(java, "-Dserver.port=" + port, "-jar", jar));
+        List<Long> optimized = benchmark.measure(runs,
+                List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                        "-Dserver.port=" + port, "-jar", jar));
+
+        report("plain", plain);
+        report("aot+cds", optimized);
+    }
+
+    List<Long> measure(int runs, List<String> command) throws Exception {
+        List<Long> results = new ArrayList<>();
+
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+
+            try {
+                awaitFirstMe(start);
+                results.add(Duration.ofNanos(System.nanoTime() - start).toMillis());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+
+        return results;
+    }
+
+    private void awaitFirstMe(long start) throws Exception {
+        String email = "startup-" + UUID.randomUUID() + "@test.test";
+        String token = null;
+
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            try {
+                if (token == null)
+                    token = signUpAndLogin(email);
+
+                HttpResponse<Void> me = client.send(HttpRequest.newBuilder(uri("/api/auth/me"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(), HttpResponse.BodyHandlers.discarding());
+
+                if (me.statusCode() == 200)
+                    return;
+            } catch (java.io.IOException e) {
+                // Not listening yet
+            }
+
+            Thread.sleep(10);
+        }
+
+        throw new IllegalStateException("Application did not answer /api/auth/me within " + TIMEOUT);
+    }
+
+    private String signUpAndLogin(String email) throws Exception {
+        client.send(HttpRequest.newBuilder(uri("/api/auth/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email
+                        + "\", \"username\":\"startup\", \"password\":\"test123\", \"passwordRepeat\":\"test123\"}"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        HttpResponse<Void> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\", \"password\":\"test123\"}"))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        return login.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("jwt="))
+                .map(c -> c.substring(4, c.indexOf(';')))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void report(String name, List<Long> millis) {
+        long min = millis.stream().mapToLong(Long::longValue).min().orElse(0);
+        double avg = millis.stream().mapToLong(Long::longValue).average().orElse(0);
+        System.out.printf("%-8s runs=%d min=%dms avg=%.0fms all=%s%n", name, millis.size(), min, avg, millis);
+    }
+}
@@ -0,0 +1,214 @@
+package com.shelflife.project.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.exception.ItemNotFoundException;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+import com.shelflife.project.service.StorageService;
+import com.shelflife.project.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadWriteRoutingTests {
+    private static final long REPLICA_ONLY_ID = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+
+    private User testUser;
+
+    @BeforeEach
+    void setup() {
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+
+        // Give the replica the schema Hibernate created on the primary
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        List<String> ddl = primaryJdbc.queryForList("SCRIPT NODATA", String.class);
+        ddl.stream()
+                .filter(sql -> !sql.startsWith("CREATE USER"))
+                .forEach(replicaJdbc::execute);
+
+        testUser = new User();
+        testUser.setEmail("test@test.test");
+        testUser.setUsername("test");
+        testUser.setPassword(encoder.encode("test123"));
+        userRepository.save(testUser);
+        copyToReplica(testUser.getId(), testUser.getEmail(), testUser.getUsername());
+
+        copyToReplica(REPLICA_ONLY_ID, "replica@test.test", "replica");
+
+        // The second-level cache would answer reads without asking either database
+        entityManagerFactory.getCache().evictAll();
+        ReplicaStickiness.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        ReplicaStickiness.clear();
+        storageRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        User user = userService.getUserById(REPLICA_ONLY_ID);
+        assertEquals("replica", user.getUsername());
+    }
+
+    // The replica may lag, only what the primary returns is cached
+    @Test
+    void replicaReadsAreNotCached() {
+        userService.getUserById(testUser.getId());
+        userService.getUserByEmail("replica@test.test");
+        assertFalse(entityManagerFactory.getCache().contains(User.class, testUser.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(User.class, REPLICA_ONLY_ID));
+
+        testUser.setUsername("changed");
+        userRepository.save(testUser);
+        entityManagerFactory.getCache().evictAll();
+
+        userService.getUserById(testUser.getId());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, testUser.getId()));
+    }
+
+    @Test
+    void writeTransactionUsesPrimary() {
+        testUser.setUsername("changed");
+        userRepository.save(testUser);
+
+        assertEquals("changed", primaryJdbc.queryForObject(
+                "SELECT username FROM users WHERE id = ?", String.class, testUser.getId()));
+        assertEquals("test", replicaJdbc.queryForObject(
+                "SELECT username FROM users WHERE id = ?", String.class, testUser.getId()));
+    }
+
+    @Test
+    void readsAfterWriteStickToPrimary() {
+        testUser.setUsername("changed");
+        userRepository.save(testUser);
+
+        assertEquals("changed", userService.getUserById(testUser.getId()).getUsername());
+        assertThrows(ItemNotFoundException.class, () -> userService.getUserById(REPLICA_ONLY_ID));
+
+        ReplicaStickiness.clear();
+        entityManagerFactory.getCache().evictAll();
+        assertEquals("test", userService.getUserById(testUser.getId()).getUsername());
+    }
+
+    @Test
+    void stickinessEndsWithRequest() throws Exception {
+        testUser.setUsername("changed");
+        userRepository.save(testUser);
+
+        Cookie jwtCookie = new Cookie("jwt", jwtService.generateToken(testUser.getEmail()));
+
+        mockMvc.perform(get("/api/users/" + REPLICA_ONLY_ID)
+                .cookie(jwtCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("replica"));
+    }
+
+    // The scheduler has a single thread, both tasks run on it
+    @Test
+    void stickinessEndsWithScheduledTask() throws Exception {
+        taskScheduler.schedule(() -> {
+            testUser.setUsername("changed");
+            userRepository.save(testUser);
+        }, Instant.now()).get();
+
+        AtomicReference<User> user = new AtomicReference<>();
+        taskScheduler.schedule(() -> user.set(userService.getUserById(REPLICA_ONLY_ID)), Instant.now()).get();
+        assertEquals("replica", user.get().getUsername());
+    }
+
+    @Test
+    void accessSetIsReadFromPrimary() {
+        Storage storage = new Storage();
+        storage.setName("Fridge");
+        storage.setOwner(testUser);
+        storageRepository.save(storage);
+        ReplicaStickiness.clear();
+
+        Authentication auth = new UsernamePasswordAuthenticationToken(testUser.getEmail(), null, List.of());
+        assertEquals(testUser.getId(), storageService.checkAccess(storage.getId(), auth).getId());
+    }
+
+    private void copyToReplica(long id, String email, String username) {
+        replicaJdbc.update("INSERT INTO users (id, email, normalized_email, username, password, is_admin, version) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                id, email, email, username, "x", false, 0);
+    }
+}
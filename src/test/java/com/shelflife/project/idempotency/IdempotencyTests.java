@@ -0,0 +1,166 @@
+package com.shelflife.project.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.querycount.QueryCount;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class IdempotencyTests {
+    private static final String SIGNUP = "{\"email\":\"retry@test.test\", \"username\":\"retry\", \"password\":\"Test123\", \"passwordRepeat\":\"Test123\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void signupRetryIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(post("/api/auth/signup")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        userRepository.flush();
+
+        // Neither the handler nor bcrypt run again, not even a query is needed
+        QueryCount.assertMaxQueries(0, () -> mockMvc.perform(post("/api/auth/signup")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(first.getResponse().getContentAsString(), true)));
+
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void signupRetryWithoutKeyRunsAgain() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.email").exists());
+    }
+
+    @Test
+    void keyReusedWithOtherBodyError() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/auth/signup")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/auth/signup")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP.replace("retry@", "other@")))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void tooLongKeyError() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .header(IdempotencyFilter.HEADER, "k".repeat(256))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['Idempotency-Key']").exists());
+    }
+
+    @Test
+    void tooLargeBodyError() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .header(IdempotencyFilter.HEADER, UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(SIGNUP.replace("\"retry\"", "\"" + "r".repeat(300 * 1024) + "\"")))
+                .andExpect(status().isContentTooLarge())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    void passwordChangeRetryIsReplayed() throws Exception {
+        User user = fixtures.user("test@test.test");
+        Cookie cookie = fixtures.cookieOf(user);
+        String key = UUID.randomUUID().toString();
+        String request = "{\"oldPassword\":\"test123\", \"newPassword\":\"Test1234\", \"newPasswordRepeat\":\"Test1234\"}";
+
+        mockMvc.perform(post("/api/auth/password")
+                .header(IdempotencyFilter.HEADER, key)
+                .cookie(cookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isOk());
+
+        // The old password is no longer valid, running it again would fail
+        mockMvc.perform(post("/api/auth/password")
+                .header(IdempotencyFilter.HEADER, key)
+                .cookie(cookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    void keysAreScopedToTheCaller() throws Exception {
+        User first = fixtures.user("first@test.test");
+        User second = fixtures.user("second@test.test");
+        String key = UUID.randomUUID().toString();
+        String request = "{\"oldPassword\":\"test123\", \"newPassword\":\"Test1234\", \"newPasswordRepeat\":\"Test1234\"}";
+
+        for (User user : new User[] { first, second })
+            mockMvc.perform(post("/api/auth/password")
+                    .header(IdempotencyFilter.HEADER, key)
+                    .cookie(fixtures.cookieOf(user))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+}
@@ -0,0 +1,116 @@
+package com.shelflife.project.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.shelflife.project.model.IdempotencyRecord;
+
+public class InMemoryIdempotencyStoreTests {
+    private InMemoryIdempotencyStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new InMemoryIdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(store, "maxEntries", 3);
+        ReflectionTestUtils.setField(store, "maxBytes", DataSize.ofBytes(10));
+    }
+
+    @Test
+    void reserveThenComplete() {
+        assertNull(store.reserve("a", "f"));
+
+        IdempotencyRecord running = store.reserve("a", "f");
+        assertNotNull(running);
+        assertFalse(running.isCompleted());
+
+        store.complete("a", 201, "application/json", new byte[] { 1 });
+
+        IdempotencyRecord done = store.reserve("a", "f");
+        assertTrue(done.isCompleted());
+        assertEquals(201, done.getStatus());
+    }
+
+    @Test
+    void releasedKeyCanBeReservedAgain() {
+        store.reserve("a", "f");
+        store.release("a");
+
+        assertNull(store.reserve("a", "f"));
+    }
+
+    @Test
+    void oldestKeysAreDropped() {
+        for (String key : new String[] { "a", "b", "c", "d" }) {
+            store.reserve(key, "f");
+            store.complete(key, 200, null, null);
+        }
+
+        assertEquals(3, store.size());
+        assertNull(store.reserve("a", "f"));
+    }
+
+    @Test
+    void oldestResponsesAreDroppedOverTheByteBudget() {
+        store.reserve("a", "f");
+        store.complete("a", 200, null, new byte[6]);
+        store.reserve("b", "f");
+        store.complete("b", 200, null, new byte[4]);
+        assertEquals(10, store.bytes());
+
+        store.reserve("c", "f");
+        store.complete("c", 200, null, new byte[3]);
+
+        assertEquals(2, store.size());
+        assertEquals(7, store.bytes());
+        assertNull(store.reserve("a", "f"));
+
+        // Larger than the whole budget: not kept, the others stay
+        store.complete("a", 200, null, new byte[11]);
+        assertEquals(2, store.size());
+        assertEquals(7, store.bytes());
+        assertNull(store.reserve("a", "f"));
+    }
+
+    @Test
+    void runningRequestsAreNotDropped() {
+        store.reserve("a", "f");
+        store.reserve("b", "f");
+        store.complete("b", 200, null, new byte[1]);
+        store.reserve("c", "f");
+        store.reserve("d", "f");
+
+        assertEquals(3, store.size());
+        assertNotNull(store.reserve("a", "f"));
+        assertNull(store.reserve("b", "f"));
+
+        store.reserve("e", "f");
+        store.reserve("g", "f");
+        assertEquals(6, store.size());
+        assertNotNull(store.reserve("a", "f"));
+    }
+
+    @Test
+    void expiredKeysAreFreeAndPurged() throws Exception {
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofMillis(1));
+        store.reserve("a", "f");
+        store.reserve("b", "f");
+        Thread.sleep(5);
+
+        assertNull(store.reserve("a", "f"));
+
+        Thread.sleep(5);
+        store.purgeExpired();
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.shelflife.project.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.IdempotencyRecord;
+import com.shelflife.project.repository.IdempotencyRecordRepository;
+import com.shelflife.project.repository.UserRepository;
+
+import jakarta.transaction.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.idempotency.store=jpa")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class JpaIdempotencyStoreTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void signupRetryIsReplayedFromTable() throws Exception {
+        assertInstanceOf(JpaIdempotencyStore.class, store);
+
+        String key = UUID.randomUUID().toString();
+        String signup = "{\"email\":\"retry@test.test\", \"username\":\"retry\", \"password\":\"Test123\", \"passwordRepeat\":\"Test123\"}";
+
+        for (int i = 0; i < 2; i++)
+            mockMvc.perform(post("/api/auth/signup")
+                    .header(IdempotencyFilter.HEADER, key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(signup))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.email").value("retry@test.test"));
+
+        assertEquals(1, userRepository.count());
+
+        IdempotencyRecord record = recordRepository.findAll().get(0);
+        assertEquals(201, record.getStatus());
+    }
+}
@@ -0,0 +1,309 @@
+package com.shelflife.project.imagecontroller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ImageTests {
+    private static final Path ROOT = Path.of("target/test-images");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Cookie adminCookie;
+    private Cookie userCookie;
+    private long milkId;
+    private long breadId;
+
+    @BeforeEach
+    void setup() {
+        adminCookie = fixtures.cookieOf(fixtures.user("admin@test.test", true));
+        userCookie = fixtures.cookieOf(fixtures.user("testuser@test.test", false));
+        milkId = product("Milk");
+        breadId = product("Bread");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        clear(ROOT.resolve("originals"));
+        clear(ROOT.resolve("thumbnails"));
+    }
+
+    private static void clear(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                if (!path.equals(dir))
+                    Files.delete(path);
+            }
+        }
+    }
+
+    private long product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        return productRepository.save(product).getId();
+    }
+
+    private static byte[] image(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.BLUE);
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private String upload(long productId, byte[] bytes, MediaType type, Cookie cookie) throws Exception {
+        return mockMvc.perform(put("/api/products/" + productId + "/image")
+                .cookie(cookie)
+                .contentType(type)
+                .content(bytes))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static BufferedImage read(MvcResult result) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void uploadedImageIsServedByItsHash() throws Exception {
+        byte[] png = image("png", 600, 300);
+        String key = hash(png) + ".png";
+
+        upload(milkId, png, MediaType.IMAGE_PNG, adminCookie);
+
+        mockMvc.perform(get("/api/products/" + milkId)
+                .cookie(userCookie))
+                .andExpect(jsonPath("$.image").value(key));
+
+        MvcResult result = mockMvc.perform(get("/api/images/" + key)
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"" + hash(png) + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"))
+                .andExpect(header().longValue("Content-Length", png.length))
+                .andReturn();
+
+        assertArrayEquals(png, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void sameImageIsStoredOnce() throws Exception {
+        byte[] png = image("png", 100, 100);
+        String key = hash(png) + ".png";
+
+        upload(milkId, png, MediaType.IMAGE_PNG, adminCookie);
+        upload(breadId, png, MediaType.IMAGE_PNG, adminCookie);
+
+        assertEquals(key, productRepository.findById(breadId).get().getImage());
+        try (Stream<Path> files = Files.walk(ROOT.resolve("originals"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void matchingETagIsNotModified() throws Exception {
+        byte[] png = image("png", 100, 100);
+        String key = hash(png) + ".png";
+        upload(milkId, png, MediaType.IMAGE_PNG, adminCookie);
+
+        mockMvc.perform(get("/api/images/" + key)
+                .cookie(userCookie)
+                .header("If-None-Match", "\"" + hash(png) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/images/" + key + "?size=64")
+                .cookie(userCookie)
+                .header("If-None-Match", "\"" + hash(png) + "\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void thumbnailIsMadeOnFirstRequest() throws Exception {
+        byte[] png = image("png", 600, 300);
+        String hash = hash(png);
+        upload(milkId, png, MediaType.IMAGE_PNG, adminCookie);
+
+        Path cached = ROOT.resolve("thumbnails/64/" + hash + ".png");
+        assertTrue(Files.notExists(cached));
+
+        MvcResult result = mockMvc.perform(get("/api/images/" + hash + ".png?size=64")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"" + hash + "-64\""))
+                .andReturn();
+
+        BufferedImage thumbnail = read(result);
+        assertEquals(64, thumbnail.getWidth());
+        assertEquals(32, thumbnail.getHeight());
+        assertTrue(Files.exists(cached));
+
+        MvcResult again = mockMvc.perform(get("/api/images/" + hash + ".png?size=64")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertArrayEquals(result.getResponse().getContentAsByteArray(), again.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void jpegThumbnailsStayJpeg() throws Exception {
+        byte[] jpeg = image("jpeg", 300, 600);
+        String key = hash(jpeg) + ".jpg";
+        upload(milkId, jpeg, MediaType.IMAGE_JPEG, adminCookie);
+
+        MvcResult result = mockMvc.perform(get("/api/images/" + key + "?size=256")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andReturn();
+
+        BufferedImage thumbnail = read(result);
+        assertEquals(128, thumbnail.getWidth());
+        assertEquals(256, thumbnail.getHeight());
+    }
+
+    @Test
+    void unknownImagesAndSizes() throws Exception {
+        byte[] png = image("png", 100, 100);
+        String key = hash(png) + ".png";
+        upload(milkId, png, MediaType.IMAGE_PNG, adminCookie);
+
+        mockMvc.perform(get("/api/images/" + key + "?size=100")
+                .cookie(userCookie))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.size").exists());
+
+        mockMvc.perform(get("/api/images/" + hash(new byte[] { 1 }) + ".png")
+                .cookie(userCookie))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/images/..%2Foriginals")
+                .cookie(userCookie))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void rejectsWhatIsNotAnImage() throws Exception {
+        mockMvc.perform(put("/api/products/" + milkId + "/image")
+                .cookie(adminCookie)
+                .contentType(MediaType.IMAGE_PNG)
+                .content("not an image".getBytes()))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.image").exists());
+
+        mockMvc.perform(put("/api/products/" + milkId + "/image")
+                .cookie(adminCookie)
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(image("png", 10, 10)))
+                .andExpect(status().isUnsupportedMediaType());
+
+        byte[] large = new byte[2 * 1024 * 1024];
+        System.arraycopy(image("png", 10, 10), 0, large, 0, 8);
+        mockMvc.perform(put("/api/products/" + milkId + "/image")
+                .cookie(adminCookie)
+                .contentType(MediaType.IMAGE_PNG)
+                .content(large))
+                .andExpect(status().isContentTooLarge());
+
+        assertEquals(null, productRepository.findById(milkId).get().getImage());
+        try (Stream<Path> files = Files.walk(ROOT.resolve("incoming"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    // Scanning creates products freely, an image upload for any of them would let users fill the disk
+    @Test
+    void onlyAdminsSetOrRemoveImages() throws Exception {
+        mockMvc.perform(put("/api/products/" + milkId + "/image")
+                .cookie(userCookie)
+                .contentType(MediaType.IMAGE_PNG)
+                .content(image("png", 10, 10)))
+                .andExpect(status().isForbidden());
+
+        upload(milkId, image("png", 10, 10), MediaType.IMAGE_PNG, adminCookie);
+
+        mockMvc.perform(delete("/api/products/" + milkId + "/image")
+                .cookie(userCookie))
+                .andExpect(status().isForbidden());
+
+        upload(milkId, image("png", 20, 20), MediaType.IMAGE_PNG, adminCookie);
+
+        mockMvc.perform(delete("/api/products/" + milkId + "/image")
+                .cookie(adminCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.image").doesNotExist());
+    }
+
+    @Test
+    void unknownProduct() throws Exception {
+        mockMvc.perform(put("/api/products/" + (breadId + 1000) + "/image")
+                .cookie(adminCookie)
+                .contentType(MediaType.IMAGE_PNG)
+                .content(image("png", 10, 10)))
+                .andExpect(status().isNotFound());
+    }
+}
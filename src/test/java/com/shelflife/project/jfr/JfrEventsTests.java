@@ -0,0 +1,130 @@
+package com.shelflife.project.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class JfrEventsTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    private User testUser;
+
+    @BeforeEach
+    void setup() {
+        testUser = new User();
+        testUser.setEmail("test@test.test");
+        testUser.setUsername("test");
+        testUser.setPassword(encoder.encode("test123"));
+        userRepository.save(testUser);
+    }
+
+    @Test
+    void loginAndMeEmitEvents() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            MvcResult result = mockMvc.perform(post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"email\":\"test@test.test\", \"password\":\"test123\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            Cookie jwtCookie = new Cookie("jwt", result.getResponse().getCookie("jwt").getValue());
+
+            mockMvc.perform(get("/api/auth/me")
+                    .cookie(jwtCookie))
+                    .andExpect(status().isOk());
+        });
+
+        Set<String> names = events.stream()
+                .map(e -> e.getEventType().getName())
+                .collect(Collectors.toSet());
+
+        assertTrue(names.contains("com.shelflife.TokenVerification"));
+        assertTrue(names.contains("com.shelflife.RevocationCheck"));
+        assertTrue(names.contains("com.shelflife.PasswordHash"));
+        assertTrue(names.contains("com.shelflife.RepositoryCall"));
+
+        assertTrue(events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.shelflife.PasswordHash"))
+                .anyMatch(e -> e.getString("operation").equals("matches") && e.getBoolean("matched")));
+
+        assertTrue(events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.shelflife.RepositoryCall"))
+                .anyMatch(e -> e.getString("repository").equals("userRepository")
+                        && e.getString("method").equals("findByEmail")));
+    }
+
+    @Test
+    void settingsFileIsValid() throws Exception {
+        try (InputStreamReader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/shelflife.jfc"))) {
+            Configuration config = Configuration.create(reader);
+
+            assertTrue(config.getSettings().containsKey("com.shelflife.PasswordHash#threshold"));
+            assertTrue(config.getSettings().containsKey("com.shelflife.RepositoryCall#stackTrace"));
+        }
+    }
+
+    private List<RecordedEvent> record(ThrowingRunnable action) throws Exception {
+        Path file = Files.createTempFile("shelflife", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("com.shelflife.TokenVerification", "com.shelflife.RevocationCheck",
+                    "com.shelflife.PasswordHash", "com.shelflife.RepositoryCall")) {
+                recording.enable(name).withoutThreshold();
+            }
+
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
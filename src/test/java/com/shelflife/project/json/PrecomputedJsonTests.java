@@ -0,0 +1,134 @@
+package com.shelflife.project.json;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class PrecomputedJsonTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private User testAdmin;
+
+    @BeforeEach
+    void setup() {
+        testAdmin = new User();
+        testAdmin.setEmail("test@test.test");
+        testAdmin.setUsername("test");
+        testAdmin.setPassword(encoder.encode("test123"));
+        testAdmin.setAdmin(true);
+        userRepository.save(testAdmin);
+    }
+
+    @Test
+    void blackbirdIsRegistered() {
+        assertTrue(jsonMapper.registeredModules().stream().anyMatch(BlackbirdModule.class::isInstance));
+    }
+
+    @Test
+    void precomputedConverterComesBeforeJackson() {
+        List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+
+        int precomputed = indexOf(converters, PrecomputedJsonHttpMessageConverter.class);
+        int jackson = indexOf(converters, JacksonJsonHttpMessageConverter.class);
+
+        assertTrue(precomputed >= 0 && precomputed < jackson);
+    }
+
+    @Test
+    void errorBodyIsWrittenAsJson() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"test@test.test\", \"password\":\"wrong\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, ErrorBody.INVALID_LOGIN.length()))
+                .andExpect(content().json("{\"error\":\"Invalid email or password\"}", true));
+    }
+
+    @Test
+    void errorBodyMatchesJacksonOutput() {
+        ErrorBody body = ErrorBody.invalidInput("size");
+
+        assertTrue(body == ErrorBody.invalidInput("size"));
+        assertTrue(jsonMapper.writeValueAsString(body).equals("{\"size\":\"Invalid input\"}"));
+    }
+
+    @Test
+    void errorBodyForAnyMessageIsBuiltDirectly() {
+        ErrorBody body = ErrorBody.invalidInput("For input string: \"x\"");
+
+        assertTrue(body != ErrorBody.invalidInput("For input string: \"x\""));
+        assertTrue(jsonMapper.writeValueAsString(body).equals("{\"For input string: \\\"x\\\"\":\"Invalid input\"}"));
+        assertTrue(jsonMapper.writeValueAsString(ErrorBody.invalidInput(null)).equals("{\"error\":\"Invalid input\"}"));
+    }
+
+    @Test
+    void userIsWrittenLikeJackson() throws Exception {
+        mockMvc.perform(get("/api/users/" + testAdmin.getId())
+                .cookie(new Cookie("jwt", jwtService.generateToken(testAdmin.getEmail()))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(jsonMapper.writeValueAsString(testAdmin), true));
+    }
+
+    @Test
+    void userListIsWrittenLikeJackson() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .cookie(new Cookie("jwt", jwtService.generateToken(testAdmin.getEmail()))))
+                .andExpect(status().isOk())
+                .andExpect(content().json(jsonMapper.writeValueAsString(userRepository.findAll()), true));
+    }
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++)
+            if (type.isInstance(converters.get(i)))
+                return i;
+        return -1;
+    }
+}
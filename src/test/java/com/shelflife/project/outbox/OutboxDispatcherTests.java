@@ -0,0 +1,173 @@
+package com.shelflife.project.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.shelflife.project.model.OutboxMessage;
+import com.shelflife.project.repository.OutboxMessageRepository;
+
+import jakarta.mail.internet.MimeMessage;
+
+// Not transactional: the dispatcher claims and finishes in its own transactions
+@SpringBootTest
+@ActiveProfiles("test")
+public class OutboxDispatcherTests {
+
+    // Listens on 3025, spring.mail.port in application-test.properties
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxMessageRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        repo.deleteAll();
+    }
+
+    private void enqueue(String recipient, String subject) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> outbox.enqueue(recipient, OutboxMessage.Kind.ITEM_EXPIRING, subject, subject + " body"));
+    }
+
+    @Test
+    void sendsOneDigestPerRecipient() throws Exception {
+        enqueue("a@test.test", "Milk expires");
+        enqueue("b@test.test", "Bread expires");
+        enqueue("a@test.test", "Eggs expire");
+        enqueue("a@test.test", "Cheese expires");
+
+        assertEquals(4, dispatcher.dispatch());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+
+        MimeMessage digest = greenMail.getReceivedMessagesForDomain("a@test.test")[0];
+        assertEquals("ShelfLife: 3 notifications", digest.getSubject());
+        String body = GreenMailUtil.getBody(digest);
+        assertTrue(body.contains("Milk expires body"));
+        assertTrue(body.contains("Cheese expires body"));
+        assertTrue(body.indexOf("Milk") < body.indexOf("Eggs"));
+
+        assertEquals("Bread expires", greenMail.getReceivedMessagesForDomain("b@test.test")[0].getSubject());
+        assertEquals(0, repo.count());
+        assertEquals(0, dispatcher.dispatch());
+    }
+
+    @Test
+    void enqueueNeedsATransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outbox.enqueue("a@test.test", OutboxMessage.Kind.WELCOME, "Welcome", "Hi"));
+    }
+
+    @Test
+    void failedSendIsRetriedWithBackoff() {
+        enqueue("a@test.test", "Milk expires");
+        greenMail.stop();
+
+        assertEquals(1, dispatcher.dispatch());
+
+        OutboxMessage message = repo.findAll().get(0);
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getLastError());
+        assertTrue(message.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        // Not due yet
+        assertEquals(0, dispatcher.dispatch());
+
+        message.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        repo.save(message);
+        greenMail.start();
+
+        assertEquals(1, dispatcher.dispatch());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(0, repo.count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        enqueue("a@test.test", "Milk expires");
+        OutboxMessage message = repo.findAll().get(0);
+        message.setAttempts(7);
+        repo.save(message);
+        greenMail.stop();
+
+        assertEquals(1, dispatcher.dispatch());
+
+        message = repo.findAll().get(0);
+        assertEquals(8, message.getAttempts());
+        assertNotNull(message.getFailedAt());
+
+        message.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        repo.save(message);
+        assertEquals(0, dispatcher.dispatch());
+    }
+
+    @Test
+    void concurrentClaimsSkipLockedRows() throws Exception {
+        for (int i = 0; i < 4; i++)
+            enqueue("a@test.test", "Message " + i);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<Long> ids = repo.findClaimable(LocalDateTime.now(), Limit.of(2)).stream()
+                    .map(OutboxMessage::getId).toList();
+            claimed.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+        List<Long> second = transaction.execute(status -> repo.findClaimable(LocalDateTime.now(), Limit.of(10))
+                .stream().map(OutboxMessage::getId).toList());
+        release.countDown();
+
+        // The second claim returned without waiting for the first. H2 also
+        // locks rows its sorted scan passed over, MySQL only the returned ones,
+        // so only check that no row was claimed twice
+        Set<Long> all = new HashSet<>(first.get(10, TimeUnit.SECONDS));
+        assertEquals(2, all.size());
+        all.addAll(second);
+        assertEquals(2 + second.size(), all.size());
+    }
+}
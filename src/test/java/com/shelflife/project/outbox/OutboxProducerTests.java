@@ -0,0 +1,138 @@
+package com.shelflife.project.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.OutboxMessage;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.StorageMember;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.OutboxMessageRepository;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageMemberRepository;
+import com.shelflife.project.service.ExpiryNotifier;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.transaction.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class OutboxProducerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private StorageMemberRepository memberRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private ExpiryNotifier expiryNotifier;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User owner;
+    private User member;
+    private Storage storage;
+
+    @BeforeEach
+    void setup() {
+        owner = fixtures.user("owner@test.test");
+        member = fixtures.user("member@test.test");
+
+        storage = fixtures.storage("Fridge", owner);
+    }
+
+    @Test
+    void signUpQueuesWelcome() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"new@test.test\",\"username\":\"new\",\"password\":\"test1234\",\"passwordRepeat\":\"test1234\"}"))
+                .andExpect(status().is2xxSuccessful());
+
+        List<OutboxMessage> messages = outboxRepository.findByRecipientOrderById("new@test.test");
+        assertEquals(1, messages.size());
+        assertEquals(OutboxMessage.Kind.WELCOME, messages.get(0).getKind());
+    }
+
+    @Test
+    void failedSignUpQueuesNothing() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"owner@test.test\",\"username\":\"new\",\"password\":\"test1234\",\"passwordRepeat\":\"test1234\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertTrue(outboxRepository.findByRecipientOrderById("owner@test.test").isEmpty());
+    }
+
+    @Test
+    void inviteQueuesInvitation() throws Exception {
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"member@test.test\"}"))
+                .andExpect(status().isCreated());
+
+        List<OutboxMessage> messages = outboxRepository.findByRecipientOrderById("member@test.test");
+        assertEquals(1, messages.size());
+        assertEquals(OutboxMessage.Kind.STORAGE_INVITE, messages.get(0).getKind());
+        assertTrue(messages.get(0).getSubject().contains("Fridge"));
+    }
+
+    @Test
+    void expiringItemQueuesMailForOwnerAndMembers() {
+        StorageMember membership = new StorageMember();
+        membership.setStorage(storage);
+        membership.setUser(member);
+        memberRepository.save(membership);
+
+        Product milk = new Product();
+        milk.setName("Milk");
+        productRepository.save(milk);
+
+        StorageData item = new StorageData();
+        item.setStorage(storage);
+        item.setProduct(milk);
+        item.setQuantity(1);
+        item.setCreatedAt(LocalDate.now());
+        item.setExpiresAt(LocalDate.now().plusDays(1));
+        storageDataRepository.save(item);
+
+        expiryNotifier.notifyExpiring(List.of(item.getId()));
+
+        for (User user : List.of(owner, member)) {
+            List<OutboxMessage> messages = outboxRepository.findByRecipientOrderById(user.getEmail());
+            assertEquals(1, messages.size());
+            assertEquals(OutboxMessage.Kind.ITEM_EXPIRING, messages.get(0).getKind());
+            assertTrue(messages.get(0).getBody().contains("Milk"));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.shelflife.project.productcontroller;
+
+import static com.shelflife.project.querycount.QueryCount.assertMaxQueries;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.service.ProductNameIndex;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+// Not transactional: the name index only sees committed changes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ProductSuggestTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Cookie userCookie;
+    private Cookie adminCookie;
+    private Storage pantry;
+
+    @BeforeEach
+    void setup() {
+        User user = fixtures.user("testuser@test.test", false);
+        userCookie = fixtures.cookieOf(user);
+        adminCookie = new Cookie("jwt", jwtService.generateToken(fixtures.user("admin@test.test", true).getEmail()));
+
+        pantry = fixtures.storage("Pantry", user);
+
+        product("Milk", 4000000000001L);
+        Product oatMilk = product("Oat milk", 4000000000002L);
+        product("Milk chocolate", 4000000000003L);
+        product("Bread", null);
+
+        for (int i = 0; i < 3; i++)
+            item(oatMilk);
+
+        nameIndex.rebuild();
+        barcodeIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        nameIndex.rebuild();
+        barcodeIndex.rebuild();
+    }
+
+    private Product product(String name, Long barcode) {
+        Product product = new Product();
+        product.setName(name);
+        product.setBarcode(barcode);
+        return productRepository.save(product);
+    }
+
+    private void item(Product product) {
+        StorageData item = new StorageData();
+        item.setStorage(pantry);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setCreatedAt(LocalDate.now());
+        storageDataRepository.save(item);
+    }
+
+    @Test
+    void matchesAnyWordMostStoredFirst() throws Exception {
+        mockMvc.perform(get("/api/products/suggest?q=mil")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].name").value("Oat milk"))
+                .andExpect(jsonPath("$[1].name").value("Milk"))
+                .andExpect(jsonPath("$[2].name").value("Milk chocolate"));
+
+        mockMvc.perform(get("/api/products/suggest?q=CHOC&limit=1")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Milk chocolate"));
+
+        mockMvc.perform(get("/api/products/suggest?q=x")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void scannedItemsRaisePopularity() throws Exception {
+        mockMvc.perform(post("/api/storages/" + pantry.getId() + "/items/scan")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":4000000000003},{\"barcode\":4000000000003},"
+                        + "{\"barcode\":4000000000003},{\"barcode\":4000000000003}]}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/products/suggest?q=milk")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$[0].name").value("Milk chocolate"))
+                .andExpect(jsonPath("$[1].name").value("Oat milk"));
+    }
+
+    @Test
+    void followsCreatedRenamedAndRemovedProducts() throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Mozzarella\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = tools.jackson.databind.json.JsonMapper.shared().readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/products/suggest?q=mozz")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$[0].id").value(id));
+
+        mockMvc.perform(put("/api/products/" + id)
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Burrata\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/suggest?q=mozz")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/products/suggest?q=bur")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$[0].name").value("Burrata"));
+
+        mockMvc.perform(delete("/api/products/" + id)
+                .cookie(adminCookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/suggest?q=bur")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void answeredWithoutQueryingProducts() throws Exception {
+        mockMvc.perform(get("/api/products/suggest?q=m").cookie(userCookie));
+
+        assertMaxQueries(1, () -> mockMvc.perform(get("/api/products/suggest?q=m")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$", hasSize(3))));
+    }
+
+    @Test
+    void limitIsChecked() throws Exception {
+        mockMvc.perform(get("/api/products/suggest?q=m&limit=0")
+                .cookie(userCookie))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.limit").exists());
+
+        mockMvc.perform(get("/api/products/suggest?q=m&limit=51")
+                .cookie(userCookie))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products/suggest?q=%20-%20")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -0,0 +1,221 @@
+package com.shelflife.project.productcontroller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not transactional: the barcode index only sees committed changes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ProductTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Cookie adminCookie;
+    private Cookie userCookie;
+
+    @BeforeEach
+    void setup() {
+        adminCookie = new Cookie("jwt", jwtService.generateToken(fixtures.user("admin@test.test", true).getEmail()));
+        userCookie = new Cookie("jwt", jwtService.generateToken(fixtures.user("testuser@test.test", false).getEmail()));
+        barcodeIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        barcodeIndex.rebuild();
+    }
+
+    private long create(String name, Long barcode) throws Exception {
+        String body = mockMvc.perform(post("/api/products")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"barcode\":" + barcode + ",\"expirationDays\":7}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        return JsonMapper.shared().readTree(body).get("id").asLong();
+    }
+
+    @Test
+    void createdProductIsFoundByBarcode() throws Exception {
+        create("Milk", 5901234123457L);
+
+        mockMvc.perform(get("/api/products/barcode/5901234123457")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Milk"))
+                .andExpect(jsonPath("$.expirationDays").value(7));
+
+        assertEquals(1, barcodeIndex.size());
+    }
+
+    @Test
+    void productWithoutBarcode() throws Exception {
+        create("Homemade jam", null);
+
+        mockMvc.perform(get("/api/products")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].barcode").doesNotExist());
+
+        assertEquals(0, barcodeIndex.size());
+    }
+
+    @Test
+    void typeDefaultsToOther() throws Exception {
+        create("Homemade jam", null);
+
+        mockMvc.perform(post("/api/products")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Salmon\",\"type\":\"FISH\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.type").value("FISH"));
+
+        mockMvc.perform(get("/api/products")
+                .cookie(userCookie))
+                .andExpect(jsonPath("$[0].type").value("OTHER"));
+    }
+
+    @Test
+    void unknownBarcode() throws Exception {
+        mockMvc.perform(get("/api/products/barcode/123")
+                .cookie(userCookie))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void duplicateBarcodeFails() throws Exception {
+        create("Milk", 5901234123457L);
+
+        mockMvc.perform(post("/api/products")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Other milk\",\"barcode\":5901234123457}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.barcode").exists());
+    }
+
+    // Added behind the index's back, as by another instance: the unique key decides
+    @Test
+    void barcodeTheIndexMissedFails() throws Exception {
+        Product other = new Product();
+        other.setName("Milk");
+        other.setBarcode(5901234123457L);
+        productRepository.save(other);
+
+        mockMvc.perform(post("/api/products")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Other milk\",\"barcode\":5901234123457}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.barcode").exists());
+
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void invalidProductFails() throws Exception {
+        mockMvc.perform(post("/api/products")
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"\",\"barcode\":-1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void notLoggedIn() throws Exception {
+        mockMvc.perform(get("/api/products/barcode/5901234123457"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminChangesBarcode() throws Exception {
+        long id = create("Milk", 5901234123457L);
+
+        mockMvc.perform(put("/api/products/" + id)
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Milk 2.8%\",\"barcode\":5901234123464}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/barcode/5901234123457")
+                .cookie(userCookie))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/products/barcode/5901234123464")
+                .cookie(userCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Milk 2.8%"));
+    }
+
+    @Test
+    void userCantUpdateOrDelete() throws Exception {
+        long id = create("Milk", 5901234123457L);
+
+        mockMvc.perform(put("/api/products/" + id)
+                .cookie(userCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Juice\"}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(delete("/api/products/" + id)
+                .cookie(userCookie))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminDeletesProduct() throws Exception {
+        long id = create("Milk", 5901234123457L);
+
+        mockMvc.perform(delete("/api/products/" + id)
+                .cookie(adminCookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/barcode/5901234123457")
+                .cookie(userCookie))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, barcodeIndex.size());
+    }
+}
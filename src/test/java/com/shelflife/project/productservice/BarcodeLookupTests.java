@@ -0,0 +1,83 @@
+package com.shelflife.project.productservice;
+
+import static com.shelflife.project.querycount.QueryCount.count;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.service.ProductService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BarcodeLookupTests {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 100; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setBarcode(5_900_000_000_000L + i);
+            productRepository.save(product);
+        }
+
+        barcodeIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAll();
+        barcodeIndex.rebuild();
+    }
+
+    @Test
+    void indexMatchesDatabase() {
+        assertEquals(100, barcodeIndex.size());
+
+        for (Product product : productRepository.findAll())
+            assertEquals(product.getId(), barcodeIndex.findProductId(product.getBarcode()).getAsLong());
+    }
+
+    @Test
+    void cachedScanRunsNoQuery() throws Exception {
+        assertTrue(productService.findByBarcode(5_900_000_000_042L).isPresent());
+
+        assertEquals(0, count(() -> {
+            assertEquals("Product 42", productService.findByBarcode(5_900_000_000_042L).get().getName());
+            assertFalse(productService.findByBarcode(4_000_000_000_000L).isPresent());
+        }));
+    }
+
+    @Test
+    void beforeTheIndexIsReadyBarcodesAreResolvedInOneQuery() throws Exception {
+        ReflectionTestUtils.setField(barcodeIndex, "ready", false);
+        List<Long> barcodes = List.of(5_900_000_000_001L, 5_900_000_000_002L, 4_000_000_000_000L);
+
+        assertEquals(1, count(() -> {
+            Map<Long, Product> found = productService.findByBarcodes(barcodes);
+            assertEquals(2, found.size());
+            assertEquals("Product 2", found.get(5_900_000_000_002L).getName());
+        }));
+    }
+}
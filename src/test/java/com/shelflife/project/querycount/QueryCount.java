@@ -0,0 +1,32 @@
+package com.shelflife.project.querycount;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the number of SQL statements an action runs. MockMvc handles
+ * the request on the test thread, so a whole request can be measured.
+ *
+ * Flush pending changes from the test setup first, otherwise the inserts are
+ * counted as part of the action.
+ */
+public final class QueryCount {
+
+    private QueryCount() {
+    }
+
+    public static int count(ThrowingRunnable action) throws Exception {
+        QueryCountInspector.reset();
+        action.run();
+        return QueryCountInspector.count();
+    }
+
+    public static void assertMaxQueries(int max, ThrowingRunnable action) throws Exception {
+        int count = count(action);
+        assertTrue(count <= max, "Expected at most " + max + " SQL statements but " + count + " were executed");
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
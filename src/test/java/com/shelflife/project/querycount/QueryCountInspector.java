@@ -0,0 +1,37 @@
+package com.shelflife.project.querycount;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts and keeps every SQL statement Hibernate prepares on the current
+ * thread, so tests can also check what was generated. Registered for the
+ * test profile in application-test.properties.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<Integer> count = ThreadLocal.withInitial(() -> 0);
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        count.set(count.get() + 1);
+        statements.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        count.set(0);
+        statements.get().clear();
+    }
+
+    public static int count() {
+        return count.get();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements.get());
+    }
+}
@@ -0,0 +1,274 @@
+package com.shelflife.project.recipecontroller;
+
+import static com.shelflife.project.querycount.QueryCount.assertMaxQueries;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.RecipeRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.RecipeIndex;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+// Not transactional: the recipe index only sees committed changes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RecipeTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeIndex recipeIndex;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Storage fridge;
+    private Product eggs;
+    private Product milk;
+    private Product flour;
+    private Product cheese;
+    private Cookie ownerCookie;
+    private Cookie otherCookie;
+    private Cookie adminCookie;
+
+    @BeforeEach
+    void setup() {
+        User owner = fixtures.user("owner@test.test", false);
+        User other = fixtures.user("other@test.test", false);
+        User admin = fixtures.user("admin@test.test", true);
+        ownerCookie = fixtures.cookieOf(owner);
+        otherCookie = fixtures.cookieOf(other);
+        adminCookie = fixtures.cookieOf(admin);
+
+        fridge = fixtures.storage("Fridge", owner);
+
+        eggs = product("Eggs");
+        milk = product("Milk");
+        flour = product("Flour");
+        cheese = product("Cheese");
+
+        recipeIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        recipeRepository.deleteAll();
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        recipeIndex.rebuild();
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        return productRepository.save(product);
+    }
+
+    private void stock(Product product, LocalDate expiresAt) {
+        StorageData item = new StorageData();
+        item.setStorage(fridge);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setCreatedAt(LocalDate.now());
+        item.setExpiresAt(expiresAt);
+        storageDataRepository.save(item);
+    }
+
+    private static String recipeJson(String name, Product... ingredients) {
+        StringBuilder json = new StringBuilder("{\"name\":\"" + name + "\",\"ingredients\":[");
+        for (int i = 0; i < ingredients.length; i++)
+            json.append(i == 0 ? "" : ",").append("{\"productId\":").append(ingredients[i].getId()).append("}");
+        return json.append("]}").toString();
+    }
+
+    private long createRecipe(String name, Product... ingredients) throws Exception {
+        String body = mockMvc.perform(post("/api/recipes")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(recipeJson(name, ingredients)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    private String recommendUrl() {
+        return "/api/storages/" + fridge.getId() + "/recipes";
+    }
+
+    @Test
+    void createAndGetRecipe() throws Exception {
+        long id = createRecipe("Pancakes", eggs, milk, flour);
+
+        mockMvc.perform(get("/api/recipes/" + id)
+                .cookie(otherCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Pancakes"))
+                .andExpect(jsonPath("$.ingredients", hasSize(3)))
+                .andExpect(jsonPath("$.ingredients[0].product.name").value("Eggs"));
+
+        assertEquals(1, recipeIndex.size());
+    }
+
+    @Test
+    void ingredientsMustBeKnownAndDistinct() throws Exception {
+        mockMvc.perform(post("/api/recipes")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(recipeJson("Omelette", eggs, eggs)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ingredients").exists());
+
+        mockMvc.perform(post("/api/recipes")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Omelette\",\"ingredients\":[{\"productId\":" + (cheese.getId() + 1000) + "}]}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/recipes")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Omelette\",\"ingredients\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void recommendsBestCoverageFirst() throws Exception {
+        long pancakes = createRecipe("Pancakes", eggs, milk, flour);
+        long omelette = createRecipe("Omelette", eggs, cheese);
+        createRecipe("Bread", flour);
+
+        stock(eggs, null);
+        stock(cheese, null);
+        stock(milk, null);
+
+        mockMvc.perform(get(recommendUrl())
+                .cookie(ownerCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].recipe.id").value(omelette))
+                .andExpect(jsonPath("$[0].coverage").value(1.0))
+                .andExpect(jsonPath("$[0].missing").value(0))
+                .andExpect(jsonPath("$[1].recipe.id").value(pancakes))
+                .andExpect(jsonPath("$[1].missing").value(1))
+                .andExpect(jsonPath("$[1].recipe.ingredients", hasSize(3)));
+    }
+
+    @Test
+    void expiringItemsBreakTies() throws Exception {
+        createRecipe("Omelette", eggs, cheese);
+        long milkshake = createRecipe("Milkshake", milk, flour);
+
+        stock(eggs, null);
+        stock(milk, LocalDate.now().plusDays(1));
+
+        mockMvc.perform(get(recommendUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$[0].recipe.id").value(milkshake))
+                .andExpect(jsonPath("$[0].expiring").value(1));
+    }
+
+    @Test
+    void recommendingLoadsOnlyTheReturnedRecipes() throws Exception {
+        for (int i = 0; i < 20; i++)
+            createRecipe("Recipe " + i, eggs, milk);
+        stock(eggs, null);
+
+        mockMvc.perform(get(recommendUrl()).cookie(ownerCookie));
+        assertMaxQueries(3, () -> mockMvc.perform(get(recommendUrl() + "?limit=5")
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(5))));
+    }
+
+    @Test
+    void updateAndRemoveFollowTheIndex() throws Exception {
+        long id = createRecipe("Omelette", eggs, cheese);
+        stock(milk, null);
+
+        mockMvc.perform(put("/api/recipes/" + id)
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(recipeJson("Omelette", eggs, milk)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/api/recipes/" + id)
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(recipeJson("Omelette", eggs, milk)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ingredients", hasSize(2)));
+
+        mockMvc.perform(get(recommendUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(delete("/api/recipes/" + id)
+                .cookie(adminCookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(recommendUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+        assertEquals(0, recipeIndex.size());
+    }
+
+    @Test
+    void otherUsersGetNoRecommendations() throws Exception {
+        mockMvc.perform(get(recommendUrl())
+                .cookie(otherCookie))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void limitIsChecked() throws Exception {
+        mockMvc.perform(get(recommendUrl() + "?limit=0")
+                .cookie(ownerCookie))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(recommendUrl() + "?limit=51")
+                .cookie(ownerCookie))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,142 @@
+package com.shelflife.project.server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Through a real connector, where Tomcat sends the file itself
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ImageSendfileTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String token;
+    private long productId;
+
+    @BeforeEach
+    void setup() {
+        User user = new User();
+        user.setEmail("user@test.test");
+        user.setUsername("user");
+        user.setPassword("x");
+        user.setAdmin(true);
+        userRepository.save(user);
+        token = jwtService.generateToken(user.getEmail());
+
+        Product product = new Product();
+        product.setName("Milk");
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    // Noise doesn't compress, so the file is a few hundred kilobytes
+    private static byte[] noise() throws Exception {
+        BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++)
+                image.setRGB(x, y, random.nextInt());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void imageIsSentWholeOverHttp1AndH2c() throws Exception {
+        byte[] png = noise();
+
+        HttpClient http1 = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> uploaded = http1.send(HttpRequest.newBuilder(uri("/api/products/" + productId + "/image"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "image/png")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(png))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, uploaded.statusCode());
+        String key = JsonMapper.shared().readTree(uploaded.body()).get("image").asString();
+
+        HttpClient h2c = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        for (HttpClient client : new HttpClient[] { http1, h2c }) {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri("/api/images/" + key))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept-Encoding", "gzip")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(client.version(), response.version());
+            assertEquals("image/png", response.headers().firstValue("Content-Type").orElse(null));
+            assertEquals("max-age=31536000, private, immutable",
+                    response.headers().firstValue("Cache-Control").orElse(null));
+            assertArrayEquals(png, response.body());
+
+            String etag = response.headers().firstValue("ETag").orElse(null);
+            HttpResponse<byte[]> cached = client.send(HttpRequest.newBuilder(uri("/api/images/" + key))
+                    .header("Authorization", "Bearer " + token)
+                    .header("If-None-Match", etag)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(304, cached.statusCode());
+            assertEquals(0, cached.body().length);
+
+            HttpResponse<byte[]> thumbnail = client.send(HttpRequest.newBuilder(uri("/api/images/" + key + "?size=64"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(200, thumbnail.statusCode());
+            assertEquals(String.valueOf(thumbnail.body().length),
+                    thumbnail.headers().firstValue("Content-Length").orElse(null));
+            assertEquals(64, ImageIO.read(new ByteArrayInputStream(thumbnail.body())).getWidth());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,227 @@
+package com.shelflife.project.shoppinglistcontroller;
+
+import static com.shelflife.project.querycount.QueryCount.assertMaxQueries;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StockThresholdRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.service.ShoppingListIndex;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+// Not transactional: the shopping list only sees committed changes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ShoppingListTests {
+    private static final long MILK_BARCODE = 5_900_000_000_001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private StockThresholdRepository thresholdRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ShoppingListIndex shoppingList;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Storage fridge;
+    private Product milk;
+    private Cookie ownerCookie;
+    private Cookie otherCookie;
+
+    @BeforeEach
+    void setup() {
+        User owner = fixtures.user("owner@test.test");
+        User other = fixtures.user("other@test.test");
+        ownerCookie = fixtures.cookieOf(owner);
+        otherCookie = fixtures.cookieOf(other);
+
+        fridge = fixtures.storage("Fridge", owner);
+
+        milk = new Product();
+        milk.setName("Milk");
+        milk.setBarcode(MILK_BARCODE);
+        productRepository.save(milk);
+
+        barcodeIndex.rebuild();
+        shoppingList.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        thresholdRepository.deleteAll();
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        barcodeIndex.rebuild();
+        shoppingList.rebuild();
+    }
+
+    private String listUrl() {
+        return "/api/storages/" + fridge.getId() + "/shopping-list";
+    }
+
+    private void setThreshold(int minQuantity) throws Exception {
+        mockMvc.perform(put(listUrl() + "/" + milk.getId())
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"minQuantity\":" + minQuantity + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.minQuantity").value(minQuantity));
+    }
+
+    private long scanMilk(int quantity) throws Exception {
+        String body = mockMvc.perform(post("/api/storages/" + fridge.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":" + MILK_BARCODE + ",\"quantity\":" + quantity + "}]}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        return ((Number) JsonPath.read(body, "$.results[0].item.id")).longValue();
+    }
+
+    @Test
+    void productBelowThresholdIsListed() throws Exception {
+        setThreshold(3);
+
+        mockMvc.perform(get(listUrl())
+                .cookie(ownerCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].product.name").value("Milk"))
+                .andExpect(jsonPath("$[0].quantity").value(0))
+                .andExpect(jsonPath("$[0].missing").value(3));
+    }
+
+    @Test
+    void listFollowsScansAndConsumption() throws Exception {
+        setThreshold(3);
+        long itemId = scanMilk(3);
+
+        mockMvc.perform(get(listUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(post("/api/storages/" + fridge.getId() + "/items/" + itemId + "/consume")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":1}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(listUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].quantity").value(2))
+                .andExpect(jsonPath("$[0].missing").value(1));
+
+        mockMvc.perform(delete("/api/storages/" + fridge.getId() + "/items/" + itemId)
+                .cookie(ownerCookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(listUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$[0].quantity").value(0))
+                .andExpect(jsonPath("$[0].missing").value(3));
+    }
+
+    @Test
+    void removingThresholdTakesProductOff() throws Exception {
+        setThreshold(3);
+
+        mockMvc.perform(delete(listUrl() + "/" + milk.getId())
+                .cookie(ownerCookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(listUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(delete(listUrl() + "/" + milk.getId())
+                .cookie(ownerCookie))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void readingTheListDoesNotScanItems() throws Exception {
+        setThreshold(3);
+        scanMilk(1);
+
+        mockMvc.perform(get(listUrl()).cookie(ownerCookie));
+        assertMaxQueries(2, () -> mockMvc.perform(get(listUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(1))));
+    }
+
+    @Test
+    void otherUsersCantUseTheList() throws Exception {
+        mockMvc.perform(get(listUrl())
+                .cookie(otherCookie))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put(listUrl() + "/" + milk.getId())
+                .cookie(otherCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"minQuantity\":3}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unknownProductIsNotFound() throws Exception {
+        mockMvc.perform(put(listUrl() + "/" + (milk.getId() + 1000))
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"minQuantity\":3}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void thresholdMustBePositive() throws Exception {
+        mockMvc.perform(put(listUrl() + "/" + milk.getId())
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"minQuantity\":0}"))
+                .andExpect(status().isBadRequest());
+    }
+}
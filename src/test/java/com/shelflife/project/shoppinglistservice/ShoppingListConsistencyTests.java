@@ -0,0 +1,232 @@
+package com.shelflife.project.shoppinglistservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.shelflife.project.dto.BatchScanRequest;
+import com.shelflife.project.dto.MoveItemRequest;
+import com.shelflife.project.dto.ScanItem;
+import com.shelflife.project.dto.StockThresholdRequest;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StockThresholdRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.service.ShoppingListIndex;
+import com.shelflife.project.service.ShoppingListService;
+import com.shelflife.project.service.StorageDataService;
+import com.shelflife.project.service.StorageService;
+
+// Not transactional: the index only sees committed changes
+@SpringBootTest
+@ActiveProfiles("test")
+public class ShoppingListConsistencyTests {
+    private static final long FIRST_BARCODE = 5_900_000_000_001L;
+    private static final int PRODUCTS = 6;
+
+    @Autowired
+    private ShoppingListIndex index;
+
+    @Autowired
+    private ShoppingListService shoppingListService;
+
+    @Autowired
+    private StorageDataService storageDataService;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private StockThresholdRepository thresholdRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    private Authentication auth;
+    private List<Storage> storages;
+    private List<Product> products;
+
+    @BeforeEach
+    void setup() {
+        User owner = new User();
+        owner.setEmail("owner@test.test");
+        owner.setUsername("owner");
+        owner.setPassword("test123");
+        owner.setAdmin(false);
+        userRepository.save(owner);
+        auth = new UsernamePasswordAuthenticationToken(owner.getEmail(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_user")));
+
+        storages = new ArrayList<>();
+        for (String name : List.of("Fridge", "Freezer", "Pantry")) {
+            Storage storage = new Storage();
+            storage.setName(name);
+            storage.setOwner(owner);
+            storages.add(storageRepository.save(storage));
+        }
+
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setBarcode(FIRST_BARCODE + i);
+            products.add(productRepository.save(product));
+        }
+
+        barcodeIndex.rebuild();
+        index.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        thresholdRepository.deleteAll();
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        barcodeIndex.rebuild();
+        index.rebuild();
+    }
+
+    // Quantity and threshold of every listed product, and the quantity of
+    // every product in every storage
+    private Map<String, Long> snapshot() {
+        Map<String, Long> state = new HashMap<>();
+
+        for (Storage storage : storages) {
+            for (ShoppingListIndex.Entry entry : index.get(storage.getId())) {
+                state.put(storage.getId() + "/" + entry.productId() + "/listed", entry.quantity());
+                state.put(storage.getId() + "/" + entry.productId() + "/min", (long) entry.minQuantity());
+            }
+            for (Product product : products)
+                state.put(storage.getId() + "/" + product.getId(), index.quantity(storage.getId(), product.getId()));
+        }
+
+        return state;
+    }
+
+    private Storage randomStorage(Random random) {
+        return storages.get(random.nextInt(storages.size()));
+    }
+
+    private void randomChange(Random random) {
+        Storage storage = randomStorage(random);
+        List<StorageData> items = storageDataRepository.findByStorageId(storage.getId());
+        int action = random.nextInt(6);
+
+        if (action == 0 || items.isEmpty()) {
+            List<ScanItem> scans = new ArrayList<>();
+            for (int i = 1 + random.nextInt(4); i > 0; i--) {
+                ScanItem scan = new ScanItem();
+                scan.setBarcode(FIRST_BARCODE + random.nextInt(PRODUCTS));
+                scan.setQuantity(1 + random.nextInt(5));
+                scans.add(scan);
+            }
+            BatchScanRequest request = new BatchScanRequest();
+            request.setItems(scans);
+            storageDataService.addScanned(storage.getId(), request, auth);
+            return;
+        }
+
+        StorageData item = items.get(random.nextInt(items.size()));
+        Product product = products.get(random.nextInt(PRODUCTS));
+
+        switch (action) {
+            case 1 -> storageDataService.consume(storage.getId(), item.getId(),
+                    random.nextBoolean() ? null : 1 + random.nextInt(item.getQuantity()), auth);
+            case 2 -> storageDataService.removeItem(storage.getId(), item.getId(), auth);
+            case 3 -> {
+                MoveItemRequest request = new MoveItemRequest();
+                request.setStorageId(randomStorage(random).getId());
+                storageDataService.moveItem(storage.getId(), item.getId(), request, auth);
+            }
+            case 4 -> {
+                StockThresholdRequest request = new StockThresholdRequest();
+                request.setMinQuantity(1 + random.nextInt(8));
+                shoppingListService.setThreshold(storage.getId(), product.getId(), request, auth);
+            }
+            default -> {
+                if (thresholdRepository.findByStorageIdAndProductId(storage.getId(), product.getId()).isPresent())
+                    shoppingListService.removeThreshold(storage.getId(), product.getId(), auth);
+            }
+        }
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRecount() {
+        Random random = new Random(46);
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 30; i++)
+                randomChange(random);
+
+            Map<String, Long> incremental = snapshot();
+            index.rebuild();
+            assertEquals(snapshot(), incremental, "after round " + round);
+        }
+    }
+
+    @Test
+    void quantitiesMatchTheItems() {
+        Random random = new Random(460);
+        for (int i = 0; i < 100; i++)
+            randomChange(random);
+
+        for (Storage storage : storages) {
+            Map<Long, Long> expected = new HashMap<>();
+            for (StorageData item : storageDataRepository.findByStorageId(storage.getId()))
+                expected.merge(item.getProduct().getId(), (long) item.getQuantity(), Long::sum);
+
+            for (Product product : products)
+                assertEquals(expected.getOrDefault(product.getId(), 0L),
+                        index.quantity(storage.getId(), product.getId()));
+        }
+    }
+
+    @Test
+    void removedStorageIsDropped() {
+        Storage fridge = storages.get(0);
+        StockThresholdRequest request = new StockThresholdRequest();
+        request.setMinQuantity(2);
+        shoppingListService.setThreshold(fridge.getId(), products.get(0).getId(), request, auth);
+        assertEquals(1, index.get(fridge.getId()).size());
+
+        storageService.removeStorage(fridge.getId(), auth);
+        storages.remove(0);
+
+        assertTrue(index.get(fridge.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.shelflife.project.shutdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import com.shelflife.project.ProjectApplication;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+/**
+ * Starts its own application, because the test closes it.
+ */
+public class GracefulShutdownTests {
+    private static final int IN_FLIGHT = 16;
+    private static final CountDownLatch ENTERED = new CountDownLatch(IN_FLIGHT);
+    private static final CountDownLatch RELEASED = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class SlowEndpointConfig {
+        // Held until the server refuses new connections, then still needs
+        // the connection pool
+        @Bean
+        RouterFunction<ServerResponse> slowEndpoint(UserRepository repo, ApplicationAvailability availability) {
+            return RouterFunctions.route()
+                    .GET("/test/slow", request -> {
+                        ENTERED.countDown();
+                        RELEASED.await(30, TimeUnit.SECONDS);
+                        repo.count();
+                        return ServerResponse.ok().body(availability.getReadinessState().name());
+                    })
+                    .GET("/test/fast", request -> ServerResponse.ok().build())
+                    .build();
+        }
+    }
+
+    @Test
+    void inFlightRequestsFinishOnShutdown() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjectApplication.class,
+                SlowEndpointConfig.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:shutdown");
+
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        URI slow = URI.create("http://localhost:" + port + "/test/slow");
+        URI fast = URI.create("http://localhost:" + port + "/test/fast");
+
+        User user = new User();
+        user.setEmail("test@test.test");
+        user.setUsername("test");
+        user.setPassword("x");
+        context.getBean(UserRepository.class).save(user);
+        String token = context.getBean(JwtService.class).generateToken(user.getEmail());
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(slow).header("Authorization", "Bearer " + token).build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < IN_FLIGHT; i++)
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+
+        assertTrue(ENTERED.await(30, TimeUnit.SECONDS));
+
+        Thread closer = new Thread(context::close);
+        closer.start();
+
+        assertTrue(refusesNewConnections(fast, token));
+        RELEASED.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> finished = response.get(30, TimeUnit.SECONDS);
+            assertEquals(200, finished.statusCode());
+            assertEquals("REFUSING_TRAFFIC", finished.body());
+        }
+
+        closer.join(TimeUnit.SECONDS.toMillis(30));
+        assertFalse(context.isActive());
+    }
+
+    private static boolean refusesNewConnections(URI uri, String token) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+
+        while (System.nanoTime() < deadline) {
+            HttpClient newClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            try {
+                newClient.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
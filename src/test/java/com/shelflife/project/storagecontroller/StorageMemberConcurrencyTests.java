@@ -0,0 +1,107 @@
+package com.shelflife.project.storagecontroller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.OutboxMessageRepository;
+import com.shelflife.project.repository.StorageMemberRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StorageMemberConcurrencyTests {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private StorageMemberRepository memberRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @AfterEach
+    void cleanup() {
+        outboxRepository.deleteAll();
+        memberRepository.deleteAll();
+        storageRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelInvitesOfSameUser() throws Exception {
+        User owner = fixtures.user("owner@test.test");
+        fixtures.user("invitee@test.test");
+        Storage storage = fixtures.storage("Fridge", owner);
+        Cookie cookie = fixtures.cookieOf(owner);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                            .cookie(cookie)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"invitee@test.test\"}"))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                }));
+            }
+
+            start.countDown();
+
+            int invited = 0;
+            for (Future<Integer> result : results) {
+                int status = result.get();
+                assertTrue(status == 201 || status == 400, "Unexpected status " + status);
+                if (status == 201)
+                    invited++;
+            }
+
+            assertEquals(1, invited);
+            assertEquals(1, memberRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.shelflife.project.storagecontroller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.transaction.Transactional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class StorageMemberTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User owner;
+    private User invitee;
+    private User otherUser;
+    private Storage storage;
+
+    @BeforeEach
+    void setup() {
+        owner = fixtures.user("owner@test.test", "owner", false);
+        invitee = fixtures.user("invitee@test.test", "invitee", false);
+        otherUser = fixtures.user("other@test.test", "other", false);
+
+        storage = fixtures.storage("Fridge", owner);
+    }
+
+    private void invite(User user) throws Exception {
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + user.getEmail() + "\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value(user.getEmail()));
+    }
+
+    @Test
+    void invitedUserGetsAccess() throws Exception {
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isForbidden());
+
+        invite(invitee);
+
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/storages")
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value(invitee.getEmail()));
+    }
+
+    @Test
+    void inviteTwiceFails() throws Exception {
+        invite(invitee);
+
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + invitee.getEmail() + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.email").exists());
+    }
+
+    @Test
+    void inviteOwnerFails() throws Exception {
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + owner.getEmail() + "\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void inviteUnknownUserFails() throws Exception {
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(owner))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@test.test\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void memberCantInvite() throws Exception {
+        invite(invitee);
+
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/members")
+                .cookie(fixtures.cookieOf(invitee))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + otherUser.getEmail() + "\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void ownerCanRemoveMember() throws Exception {
+        invite(invitee);
+
+        mockMvc.perform(delete("/api/storages/" + storage.getId() + "/members/" + invitee.getId())
+                .cookie(fixtures.cookieOf(owner)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void memberCanLeave() throws Exception {
+        invite(invitee);
+
+        mockMvc.perform(delete("/api/storages/" + storage.getId() + "/members/" + invitee.getId())
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void memberCantRemoveOthers() throws Exception {
+        invite(invitee);
+        invite(otherUser);
+
+        mockMvc.perform(delete("/api/storages/" + storage.getId() + "/members/" + otherUser.getId())
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void removeNonMemberFails() throws Exception {
+        mockMvc.perform(delete("/api/storages/" + storage.getId() + "/members/" + otherUser.getId())
+                .cookie(fixtures.cookieOf(owner)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deletingStorageRevokesAccess() throws Exception {
+        invite(invitee);
+
+        mockMvc.perform(delete("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(owner)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/storages")
+                .cookie(fixtures.cookieOf(invitee)))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -0,0 +1,169 @@
+package com.shelflife.project.storagecontroller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.transaction.Transactional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class StorageTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User testAdmin;
+    private User testUser;
+    private User otherUser;
+    private Storage storage;
+
+    @BeforeEach
+    void setup() {
+        testAdmin = fixtures.user("admin@test.test", "admin", true);
+        testUser = fixtures.user("testuser@test.test", "testuser", false);
+        otherUser = fixtures.user("other@test.test", "other", false);
+
+        storage = fixtures.storage("Fridge", testUser);
+    }
+
+    @Test
+    void createStorage() throws Exception {
+        mockMvc.perform(post("/api/storages")
+                .cookie(fixtures.cookieOf(otherUser))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Pantry\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("Pantry"))
+                .andExpect(jsonPath("$.owner.email").value(otherUser.getEmail()));
+
+        mockMvc.perform(get("/api/storages")
+                .cookie(fixtures.cookieOf(otherUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Pantry"));
+    }
+
+    @Test
+    void createStorageWithBlankNameFails() throws Exception {
+        mockMvc.perform(post("/api/storages")
+                .cookie(fixtures.cookieOf(testUser))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createStorageWithoutLoginFails() throws Exception {
+        mockMvc.perform(post("/api/storages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Pantry\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void listOnlyContainsAccessibleStorages() throws Exception {
+        mockMvc.perform(get("/api/storages")
+                .cookie(fixtures.cookieOf(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/storages")
+                .cookie(fixtures.cookieOf(otherUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void ownerCanGetStorage() throws Exception {
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Fridge"));
+    }
+
+    @Test
+    void strangerCantGetStorage() throws Exception {
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(otherUser)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminCanGetStorage() throws Exception {
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(testAdmin)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getMissingStorage() throws Exception {
+        mockMvc.perform(get("/api/storages/" + (storage.getId() + 1000))
+                .cookie(fixtures.cookieOf(otherUser)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void ownerCanRenameStorage() throws Exception {
+        mockMvc.perform(patch("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(testUser))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Freezer\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Freezer"));
+    }
+
+    @Test
+    void strangerCantRenameStorage() throws Exception {
+        mockMvc.perform(patch("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(otherUser))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Freezer\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void ownerCanDeleteStorage() throws Exception {
+        mockMvc.perform(delete("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(testUser)))
+                .andExpect(status().isOk());
+
+        assertFalse(storageRepository.findById(storage.getId()).isPresent());
+
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(testUser)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void adminCanDeleteStorage() throws Exception {
+        mockMvc.perform(delete("/api/storages/" + storage.getId())
+                .cookie(fixtures.cookieOf(testAdmin)))
+                .andExpect(status().isOk());
+
+        assertFalse(storageRepository.findById(storage.getId()).isPresent());
+    }
+}
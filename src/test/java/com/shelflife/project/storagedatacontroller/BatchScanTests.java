@@ -0,0 +1,214 @@
+package com.shelflife.project.storagedatacontroller;
+
+import static com.shelflife.project.querycount.QueryCount.assertMaxQueries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not transactional: known barcodes have to be in the barcode index
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BatchScanTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Storage storage;
+    private Cookie ownerCookie;
+    private Cookie strangerCookie;
+
+    @BeforeEach
+    void setup() {
+        User owner = fixtures.user("owner@test.test");
+        ownerCookie = fixtures.cookieOf(owner);
+        strangerCookie = new Cookie("jwt", jwtService.generateToken(fixtures.user("stranger@test.test").getEmail()));
+
+        storage = fixtures.storage("Fridge", owner);
+
+        for (int i = 0; i < 40; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setBarcode(5_900_000_000_000L + i);
+            product.setExpirationDays(i);
+            productRepository.save(product);
+        }
+
+        barcodeIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        barcodeIndex.rebuild();
+    }
+
+    @Test
+    void scanKnownAndUnknownBarcodes() throws Exception {
+        LocalDate today = LocalDate.now();
+
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":["
+                        + "{\"barcode\":5900000000003},"
+                        + "{\"barcode\":4000000000001,\"quantity\":2},"
+                        + "{\"barcode\":5900000000003,\"expiresAt\":\"2030-01-31\"},"
+                        + "{\"barcode\":4000000000001}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.results", hasSize(4)))
+                .andExpect(jsonPath("$.results[0].outcome").value("ADDED"))
+                .andExpect(jsonPath("$.results[0].item.product.name").value("Product 3"))
+                .andExpect(jsonPath("$.results[0].item.quantity").value(1))
+                .andExpect(jsonPath("$.results[0].item.expiresAt").value(today.plusDays(3).toString()))
+                .andExpect(jsonPath("$.results[1].outcome").value("ADDED_NEW_PRODUCT"))
+                .andExpect(jsonPath("$.results[1].item.quantity").value(2))
+                .andExpect(jsonPath("$.results[1].item.expiresAt").doesNotExist())
+                .andExpect(jsonPath("$.results[2].item.expiresAt").value("2030-01-31"))
+                .andExpect(jsonPath("$.results[3].outcome").value("ADDED_NEW_PRODUCT"));
+
+        assertEquals(41, productRepository.count());
+
+        mockMvc.perform(get("/api/storages/" + storage.getId() + "/items")
+                .cookie(ownerCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)));
+
+        // The placeholder is known from now on
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":4000000000001}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.results[0].outcome").value("ADDED"));
+    }
+
+    // Another scan or instance created it after the index was asked
+    @Test
+    void placeholderTheIndexMissedIsReadBack() throws Exception {
+        Product other = new Product();
+        other.setName("Other");
+        other.setBarcode(4_000_000_000_009L);
+        productRepository.save(other);
+
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":4000000000009},{\"barcode\":4000000000010}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.results[0].item.product.id").value(other.getId()))
+                .andExpect(jsonPath("$.results[0].item.product.name").value("Other"))
+                .andExpect(jsonPath("$.results[0].outcome").value("ADDED"))
+                .andExpect(jsonPath("$.results[1].item.product.name").value("4000000000010"))
+                .andExpect(jsonPath("$.results[1].outcome").value("ADDED_NEW_PRODUCT"));
+
+        assertEquals(42, productRepository.count());
+        assertEquals(2, storageDataRepository.count());
+    }
+
+    @Test
+    void batchRunsAConstantNumberOfQueries() throws Exception {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 40; i++)
+            items.append(i == 0 ? "" : ",").append("{\"barcode\":").append(5_900_000_000_000L + i).append('}');
+
+        // Warms the user and access caches
+        mockMvc.perform(get("/api/storages/" + storage.getId())
+                .cookie(ownerCookie))
+                .andExpect(status().isOk());
+
+        // Storage, products, sequence and one batched insert
+        assertMaxQueries(6, () -> mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[" + items + "]}"))
+                .andExpect(status().isCreated()));
+
+        assertEquals(40, storageDataRepository.count());
+    }
+
+    @Test
+    void strangerCantScan() throws Exception {
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(strangerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":5900000000003}]}"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(0, storageDataRepository.count());
+    }
+
+    @Test
+    void missingStorage() throws Exception {
+        mockMvc.perform(post("/api/storages/" + (storage.getId() + 1000) + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":5900000000003}]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void invalidBatchFails() throws Exception {
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/storages/" + storage.getId() + "/items/scan")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"barcode\":5900000000003,\"quantity\":0}]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
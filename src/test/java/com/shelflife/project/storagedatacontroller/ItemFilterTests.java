@@ -0,0 +1,230 @@
+package com.shelflife.project.storagedatacontroller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.ProductType;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.StorageItemIndex;
+import com.shelflife.project.support.TestFixtures;
+import com.shelflife.project.util.ItemBitmapIndex;
+
+import jakarta.servlet.http.Cookie;
+
+// Not transactional: the item index only sees committed changes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ItemFilterTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private StorageItemIndex itemIndex;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Storage fridge;
+    private Storage freezer;
+    private Product milk;
+    private Product cheese;
+    private Product chicken;
+    private StorageData milkItem;
+    private Cookie ownerCookie;
+    private Cookie otherCookie;
+    private Cookie adminCookie;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setup() {
+        User owner = fixtures.user("owner@test.test", false);
+        User other = fixtures.user("other@test.test", false);
+        User admin = fixtures.user("admin@test.test", true);
+        ownerCookie = fixtures.cookieOf(owner);
+        otherCookie = fixtures.cookieOf(other);
+        adminCookie = fixtures.cookieOf(admin);
+
+        fridge = fixtures.storage("Fridge", owner);
+        freezer = fixtures.storage("Freezer", owner);
+
+        milk = product("Milk", ProductType.DAIRY);
+        cheese = product("Cheese", ProductType.DAIRY);
+        chicken = product("Chicken", ProductType.MEAT);
+
+        milkItem = item(fridge, milk, today.plusDays(2));
+        item(fridge, cheese, today.plusDays(20));
+        item(fridge, chicken, today.plusDays(1));
+        item(fridge, chicken, null);
+        item(freezer, chicken, today.plusDays(90));
+
+        itemIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        itemIndex.rebuild();
+    }
+
+    private Product product(String name, ProductType type) {
+        Product product = new Product();
+        product.setName(name);
+        product.setType(type);
+        return productRepository.save(product);
+    }
+
+    private StorageData item(Storage storage, Product product, LocalDate expiresAt) {
+        StorageData item = new StorageData();
+        item.setStorage(storage);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setCreatedAt(today);
+        item.setExpiresAt(expiresAt);
+        return storageDataRepository.save(item);
+    }
+
+    private String filterUrl() {
+        return "/api/storages/" + fridge.getId() + "/items/filter";
+    }
+
+    @Test
+    void filtersByTypeWithCounts() throws Exception {
+        mockMvc.perform(get(filterUrl() + "?type=DAIRY")
+                .cookie(ownerCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].product.name").value("Milk"))
+                .andExpect(jsonPath("$.typeCounts.DAIRY").value(2))
+                .andExpect(jsonPath("$.typeCounts.MEAT").value(2))
+                .andExpect(jsonPath("$.typeCounts.FISH").value(0));
+    }
+
+    @Test
+    void filtersByExpiry() throws Exception {
+        mockMvc.perform(get(filterUrl() + "?expiresBefore=" + today.plusDays(3))
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.typeCounts.DAIRY").value(1))
+                .andExpect(jsonPath("$.typeCounts.MEAT").value(1));
+
+        mockMvc.perform(get(filterUrl() + "?type=MEAT&type=FISH&expiresBefore=" + today.plusDays(3))
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].product.name").value("Chicken"));
+    }
+
+    @Test
+    void indexMatchesSql() {
+        List<Set<ProductType>> typeFilters = List.of(Set.of(), Set.of(ProductType.DAIRY),
+                Set.of(ProductType.MEAT, ProductType.FISH));
+        List<LocalDate> expiryFilters = Arrays.asList(null, today.plusDays(1), today.plusDays(3),
+                today.plusDays(365));
+
+        for (Storage storage : List.of(fridge, freezer)) {
+            for (Set<ProductType> types : typeFilters) {
+                for (LocalDate before : expiryFilters) {
+                    ItemBitmapIndex.Result result = itemIndex.query(storage.getId(), types, before);
+                    List<Long> sqlIds = storageDataRepository.filter(storage.getId(), types, before).stream()
+                            .map(StorageData::getId).toList();
+                    Map<ProductType, Integer> sqlCounts = storageDataRepository.countByType(storage.getId(), before);
+
+                    assertEquals(sqlIds, Arrays.stream(result.itemIds()).boxed().toList());
+                    for (ProductType type : ProductType.values())
+                        assertEquals(sqlCounts.get(type), result.typeCounts()[type.ordinal()]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void followsItemAndProductChanges() throws Exception {
+        mockMvc.perform(post("/api/storages/" + fridge.getId() + "/items/" + milkItem.getId() + "/move")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"storageId\":" + freezer.getId() + "}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(filterUrl())
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$.typeCounts.DAIRY").value(1));
+
+        mockMvc.perform(put("/api/products/" + chicken.getId())
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Chicken\",\"type\":\"FROZEN\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("FROZEN"));
+
+        mockMvc.perform(get(filterUrl() + "?type=FROZEN")
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.typeCounts.MEAT").value(0));
+    }
+
+    @Test
+    void storagesDeletedWithTheirOwnerAreDropped() throws Exception {
+        User owner = userRepository.findByEmail("owner@test.test").get();
+        assertEquals(5, itemIndex.size());
+
+        mockMvc.perform(delete("/api/users/" + owner.getId())
+                .cookie(adminCookie))
+                .andExpect(status().isOk());
+
+        assertEquals(0, itemIndex.size());
+    }
+
+    @Test
+    void otherUsersCantFilter() throws Exception {
+        mockMvc.perform(get(filterUrl())
+                .cookie(otherCookie))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unknownTypeIsRejected() throws Exception {
+        mockMvc.perform(get(filterUrl() + "?type=SWEETS")
+                .cookie(ownerCookie))
+                .andExpect(status().isBadRequest());
+    }
+}
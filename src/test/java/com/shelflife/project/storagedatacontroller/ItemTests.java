@@ -0,0 +1,140 @@
+package com.shelflife.project.storagedatacontroller;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class ItemTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Storage fridge;
+    private Storage freezer;
+    private Storage otherStorage;
+    private StorageData item;
+    private Cookie ownerCookie;
+
+    @BeforeEach
+    void setup() {
+        User owner = fixtures.user("owner@test.test");
+        User other = fixtures.user("other@test.test");
+        ownerCookie = fixtures.cookieOf(owner);
+
+        fridge = fixtures.storage("Fridge", owner);
+        freezer = fixtures.storage("Freezer", owner);
+        otherStorage = fixtures.storage("Other", other);
+
+        Product milk = new Product();
+        milk.setName("Milk");
+        productRepository.save(milk);
+
+        item = new StorageData();
+        item.setStorage(fridge);
+        item.setProduct(milk);
+        item.setQuantity(3);
+        item.setCreatedAt(LocalDate.now());
+        item.setExpiresAt(LocalDate.now().plusDays(5));
+        storageDataRepository.save(item);
+    }
+
+    private String itemUrl() {
+        return "/api/storages/" + fridge.getId() + "/items/" + item.getId();
+    }
+
+    @Test
+    void consumePartOfAnItem() throws Exception {
+        mockMvc.perform(post(itemUrl() + "/consume")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(1));
+    }
+
+    @Test
+    void consumeAll() throws Exception {
+        mockMvc.perform(post(itemUrl() + "/consume")
+                .cookie(ownerCookie))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/storages/" + fridge.getId() + "/items")
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void removeItem() throws Exception {
+        mockMvc.perform(delete(itemUrl())
+                .cookie(ownerCookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete(itemUrl())
+                .cookie(ownerCookie))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void itemOfAnotherStorageIsNotFound() throws Exception {
+        mockMvc.perform(delete("/api/storages/" + freezer.getId() + "/items/" + item.getId())
+                .cookie(ownerCookie))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void moveItem() throws Exception {
+        mockMvc.perform(post(itemUrl() + "/move")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"storageId\":" + freezer.getId() + ",\"expiresAt\":\"2030-01-31\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expiresAt").value("2030-01-31"));
+
+        mockMvc.perform(get("/api/storages/" + freezer.getId() + "/items")
+                .cookie(ownerCookie))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void cantMoveToForeignStorage() throws Exception {
+        mockMvc.perform(post(itemUrl() + "/move")
+                .cookie(ownerCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"storageId\":" + otherStorage.getId() + "}"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,224 @@
+package com.shelflife.project.storagedataservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.shelflife.project.dto.BatchScanRequest;
+import com.shelflife.project.dto.MoveItemRequest;
+import com.shelflife.project.dto.ScanItem;
+import com.shelflife.project.event.ItemsExpiringEvent;
+import com.shelflife.project.model.Product;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.StorageData;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.ProductRepository;
+import com.shelflife.project.repository.StorageDataRepository;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.ExpiryNotifier;
+import com.shelflife.project.service.ExpiryScheduler;
+import com.shelflife.project.service.ProductBarcodeIndex;
+import com.shelflife.project.service.StorageDataService;
+import com.shelflife.project.support.TestFixtures;
+
+// Not transactional: the wheel only sees committed changes
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+public class ExpirySchedulerTests {
+    @Autowired
+    private ExpiryScheduler scheduler;
+
+    @Autowired
+    private ExpiryNotifier notifier;
+
+    @Autowired
+    private StorageDataService storageDataService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageDataRepository storageDataRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private Authentication auth;
+    private Storage fridge;
+    private Storage freezer;
+
+    @BeforeEach
+    void setup() {
+        User owner = new User();
+        owner.setEmail("owner@test.test");
+        owner.setUsername("owner");
+        owner.setPassword("test123");
+        owner.setAdmin(false);
+        userRepository.save(owner);
+        auth = new UsernamePasswordAuthenticationToken(owner.getEmail(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_user")));
+
+        fridge = fixtures.storage("Fridge", owner);
+        freezer = fixtures.storage("Freezer", owner);
+
+        Product milk = new Product();
+        milk.setName("Milk");
+        milk.setBarcode(5_900_000_000_001L);
+        milk.setExpirationDays(5);
+        productRepository.save(milk);
+
+        barcodeIndex.rebuild();
+        scheduler.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        storageDataRepository.deleteAll();
+        storageRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+        barcodeIndex.rebuild();
+        scheduler.rebuild();
+    }
+
+    private StorageData scan(LocalDate expiresAt) {
+        ScanItem scan = new ScanItem();
+        scan.setBarcode(5_900_000_000_001L);
+        scan.setExpiresAt(expiresAt);
+
+        BatchScanRequest request = new BatchScanRequest();
+        request.setItems(List.of(scan));
+        return storageDataService.addScanned(fridge.getId(), request, auth).getResults().get(0).getItem();
+    }
+
+    private List<ItemsExpiringEvent> fired() {
+        return events.stream(ItemsExpiringEvent.class).toList();
+    }
+
+    @Test
+    void noticeFiresOnceAtItsTime() {
+        StorageData item = scan(null);
+        assertTrue(scheduler.isScheduled(item.getId()));
+
+        LocalDate expiresAt = LocalDate.now().plusDays(5);
+        scheduler.advance(scheduler.noticeAt(expiresAt).minus(Duration.ofMinutes(2)));
+        assertEquals(0, fired().size());
+
+        scheduler.advance(scheduler.noticeAt(expiresAt).plus(Duration.ofMinutes(1)));
+        assertEquals(1, fired().size());
+        assertEquals(item.getId(), fired().get(0).getItems().get(0).getId());
+        assertFalse(scheduler.isScheduled(item.getId()));
+        assertTrue(storageDataRepository.findById(item.getId()).get().isExpiryNotified());
+
+        // Notified items are not loaded again
+        scheduler.rebuild();
+        assertFalse(scheduler.isScheduled(item.getId()));
+    }
+
+    @Test
+    void rebuildLoadsPendingItems() {
+        StorageData item = scan(LocalDate.now().plusDays(3));
+        StorageData longExpired = scan(LocalDate.now().minusDays(30));
+
+        scheduler.rebuild();
+
+        assertTrue(scheduler.isScheduled(item.getId()));
+        assertFalse(scheduler.isScheduled(longExpired.getId()));
+    }
+
+    @Test
+    void consumedItemIsCancelled() {
+        StorageData item = scan(null);
+
+        storageDataService.consume(fridge.getId(), item.getId(), null, auth);
+
+        assertFalse(scheduler.isScheduled(item.getId()));
+        scheduler.advance(scheduler.noticeAt(LocalDate.now().plusDays(30)));
+        assertEquals(0, fired().size());
+    }
+
+    @Test
+    void moveWithNewDateReschedules() {
+        StorageData item = scan(null);
+        LocalDate later = LocalDate.now().plusDays(90);
+
+        MoveItemRequest request = new MoveItemRequest();
+        request.setStorageId(freezer.getId());
+        request.setExpiresAt(later);
+        storageDataService.moveItem(fridge.getId(), item.getId(), request, auth);
+
+        scheduler.advance(scheduler.noticeAt(LocalDate.now().plusDays(10)));
+        assertEquals(0, fired().size());
+
+        scheduler.advance(scheduler.noticeAt(later).plus(Duration.ofMinutes(1)));
+        assertEquals(1, fired().size());
+        assertEquals(freezer.getId(), fired().get(0).getItems().get(0).getStorage().getId());
+    }
+
+    @Test
+    void failedNoticesAreRetriedOnTheNextTick() {
+        StorageData item = scan(null);
+        Instant due = scheduler.noticeAt(LocalDate.now().plusDays(5)).plus(Duration.ofMinutes(1));
+
+        ReflectionTestUtils.setField(scheduler, "notifier", new ExpiryNotifier() {
+            @Override
+            public List<StorageData> notifyExpiring(Collection<Long> itemIds) {
+                throw new IllegalStateException("Database unavailable");
+            }
+        });
+        try {
+            scheduler.advance(due);
+        } finally {
+            ReflectionTestUtils.setField(scheduler, "notifier", notifier);
+        }
+
+        assertEquals(0, fired().size());
+        assertTrue(scheduler.isScheduled(item.getId()));
+
+        scheduler.advance(due.plus(Duration.ofMinutes(1)));
+        assertEquals(1, fired().size());
+        assertFalse(scheduler.isScheduled(item.getId()));
+    }
+
+    @Test
+    void itemsOfDeletedStorageAreSkipped() {
+        scan(null);
+        storageDataRepository.deleteAll();
+
+        scheduler.advance(scheduler.noticeAt(LocalDate.now().plusDays(30)));
+        assertEquals(0, fired().size());
+    }
+}
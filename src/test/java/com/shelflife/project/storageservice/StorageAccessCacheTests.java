@@ -0,0 +1,118 @@
+package com.shelflife.project.storageservice;
+
+import static com.shelflife.project.querycount.QueryCount.count;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.shelflife.project.dto.StorageRequest;
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.service.StorageAccessCache;
+import com.shelflife.project.service.StorageService;
+import com.shelflife.project.service.UserService;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class StorageAccessCacheTests {
+    @Autowired
+    private StorageAccessCache accessCache;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User admin;
+    private User owner;
+    private User invitee;
+    private Storage storage;
+
+    @BeforeEach
+    void setup() {
+        admin = fixtures.user("admin@test.test", true);
+        owner = fixtures.user("owner@test.test", false);
+        invitee = fixtures.user("invitee@test.test", false);
+
+        storage = fixtures.storage("Fridge", owner);
+        entityManager.flush();
+    }
+
+    private Authentication authOf(User user) {
+        return new UsernamePasswordAuthenticationToken(user.getEmail(), null,
+                List.of(new SimpleGrantedAuthority(user.isAdmin() ? "ROLE_ADMIN" : "ROLE_USER")));
+    }
+
+    @Test
+    void repeatedChecksDontQuery() throws Exception {
+        assertTrue(accessCache.canAccess(owner.getId(), storage.getId()));
+
+        assertEquals(0, count(() -> {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(accessCache.canAccess(owner.getId(), storage.getId()));
+                assertFalse(accessCache.canAccess(owner.getId(), storage.getId() + 1));
+            }
+        }));
+    }
+
+    @Test
+    void inviteAndRemoveInvalidate() {
+        assertFalse(accessCache.canAccess(invitee.getId(), storage.getId()));
+
+        storageService.addMember(storage.getId(), invitee.getEmail(), authOf(owner));
+        assertTrue(accessCache.canAccess(invitee.getId(), storage.getId()));
+
+        storageService.removeMember(storage.getId(), invitee.getId(), authOf(owner));
+        assertFalse(accessCache.canAccess(invitee.getId(), storage.getId()));
+    }
+
+    @Test
+    void newStorageIsAccessibleToItsOwner() {
+        assertEquals(1, accessCache.get(owner.getId()).size());
+
+        Storage created = storageService.createStorage(request("Pantry"), authOf(owner));
+
+        assertTrue(accessCache.canAccess(owner.getId(), created.getId()));
+        assertEquals(2, accessCache.get(owner.getId()).size());
+    }
+
+    @Test
+    void removingUserClearsCache() {
+        storageService.addMember(storage.getId(), invitee.getEmail(), authOf(owner));
+        assertTrue(accessCache.canAccess(invitee.getId(), storage.getId()));
+
+        userService.removeUser(invitee.getId(), authOf(admin));
+        entityManager.flush();
+
+        assertFalse(accessCache.canAccess(invitee.getId(), storage.getId()));
+    }
+
+    private StorageRequest request(String name) {
+        StorageRequest request = new StorageRequest();
+        request.setName(name);
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.shelflife.project.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.shelflife.project.model.Storage;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Users, storages and login cookies for test setup. Every user gets the
+ * password test123.
+ */
+@Component
+public class TestFixtures {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    public User user(String email) {
+        return user(email, false);
+    }
+
+    public User user(String email, boolean admin) {
+        return user(email, email, admin);
+    }
+
+    public User user(String email, String username, boolean admin) {
+        User user = new User();
+        user.setEmail(email);
+        user.setUsername(username);
+        user.setPassword(encoder.encode("test123"));
+        user.setAdmin(admin);
+        return userRepository.save(user);
+    }
+
+    public Storage storage(String name, User owner) {
+        Storage storage = new Storage();
+        storage.setName(name);
+        storage.setOwner(owner);
+        return storageRepository.save(storage);
+    }
+
+    public Cookie cookieOf(User user) {
+        return new Cookie("jwt", jwtService.generateToken(user.getEmail()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.shelflife.project.usercache;
+
+import static com.shelflife.project.querycount.QueryCount.count;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.dto.ChangePasswordRequest;
+import com.shelflife.project.dto.ChangeUserDataRequest;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+import com.shelflife.project.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UserSecondLevelCacheTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User testAdmin;
+    private User testUser;
+
+    @BeforeEach
+    void setup() {
+        testAdmin = new User();
+        testAdmin.setEmail("test@test.test");
+        testAdmin.setUsername("test");
+        testAdmin.setPassword(encoder.encode("test123"));
+        testAdmin.setAdmin(true);
+        userRepository.save(testAdmin);
+
+        testUser = new User();
+        testUser.setEmail("testuser@test.test");
+        testUser.setUsername("testuser");
+        testUser.setPassword(encoder.encode("test123"));
+        userRepository.save(testUser);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByIdHitsCacheOnSecondLoad() throws Exception {
+        userRepository.findById(testUser.getId());
+
+        assertEquals(0, count(() -> userRepository.findById(testUser.getId())));
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void findByEmailUsesNaturalIdCache() throws Exception {
+        userRepository.findByEmail(testUser.getEmail());
+
+        assertEquals(0, count(() -> userRepository.findByEmail(testUser.getEmail())));
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    void updateUserKeepsCacheCoherent() {
+        userRepository.findById(testUser.getId());
+        userRepository.findByEmail(testUser.getEmail());
+
+        ChangeUserDataRequest request = new ChangeUserDataRequest();
+        request.setEmail("changed@test.test");
+        request.setUsername("changed");
+        userService.updateUser(testUser.getId(), request, auth(testUser));
+
+        assertEquals("changed", userRepository.findById(testUser.getId()).get().getUsername());
+        assertFalse(userRepository.findByEmail("testuser@test.test").isPresent());
+        assertTrue(userRepository.findByEmail("changed@test.test").isPresent());
+    }
+
+    @Test
+    void changePasswordKeepsCacheCoherent() {
+        userRepository.findByEmail(testUser.getEmail());
+
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setOldPassword("test123");
+        request.setNewPassword("newpassword");
+        request.setNewPasswordRepeat("newpassword");
+        userService.changePassword(request, auth(testUser));
+
+        String hash = userRepository.findByEmail(testUser.getEmail()).get().getPassword();
+        assertTrue(encoder.matches("newpassword", hash));
+    }
+
+    @Test
+    void removeUserKeepsCacheCoherent() {
+        userRepository.findById(testUser.getId());
+        userRepository.findByEmail(testUser.getEmail());
+
+        userService.removeUser(testUser.getId(), auth(testAdmin));
+
+        assertFalse(userRepository.findById(testUser.getId()).isPresent());
+        assertFalse(userRepository.findByEmail(testUser.getEmail()).isPresent());
+    }
+
+    @Test
+    void statisticsEndpointAsAdmin() throws Exception {
+        userRepository.findById(testUser.getId());
+        userRepository.findById(testUser.getId());
+
+        mockMvc.perform(get("/actuator/hibernatecache")
+                .cookie(new Cookie("jwt", jwtService.generateToken(testAdmin.getEmail()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").isNumber())
+                .andExpect(jsonPath("$.regions['com.shelflife.project.model.User']").exists());
+    }
+
+    @Test
+    void statisticsEndpointForbiddenAsUser() throws Exception {
+        mockMvc.perform(get("/actuator/hibernatecache")
+                .cookie(new Cookie("jwt", jwtService.generateToken(testUser.getEmail()))))
+                .andExpect(status().isForbidden());
+    }
+
+    private Authentication auth(User user) {
+        return new UsernamePasswordAuthenticationToken(user.getEmail(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_user")));
+    }
+}
@@ -0,0 +1,157 @@
+package com.shelflife.project.usercontroller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.querycount.QueryCount;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class BulkUserTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User testAdmin;
+    private User testUser;
+    private Cookie adminCookie;
+
+    @BeforeEach
+    void setup() {
+        testAdmin = fixtures.user("test@test.test", "test", true);
+        testUser = fixtures.user("testuser@test.test", "testuser", false);
+        adminCookie = fixtures.cookieOf(testAdmin);
+    }
+
+    @Test
+    void deleteUsersReportsEveryId() throws Exception {
+        User other = fixtures.user("other@test.test", "other", false);
+
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids(testUser.getId(), other.getId(), testAdmin.getId(), -1L, testUser.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results['" + testUser.getId() + "']").value("DELETED"))
+                .andExpect(jsonPath("$.results['" + other.getId() + "']").value("DELETED"))
+                .andExpect(jsonPath("$.results['" + testAdmin.getId() + "']").value("FORBIDDEN"))
+                .andExpect(jsonPath("$.results['-1']").value("NOT_FOUND"));
+
+        assertFalse(userRepository.existsById(testUser.getId()));
+        assertFalse(userRepository.existsById(other.getId()));
+        assertTrue(userRepository.existsById(testAdmin.getId()));
+    }
+
+    @Test
+    void promoteAndDemoteUsers() throws Exception {
+        long versionBefore = testUser.getVersion();
+
+        mockMvc.perform(post("/api/users/bulk/promote")
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids(testUser.getId(), testAdmin.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results['" + testUser.getId() + "']").value("UPDATED"))
+                .andExpect(jsonPath("$.results['" + testAdmin.getId() + "']").value("FORBIDDEN"));
+
+        User promoted = userRepository.findById(testUser.getId()).get();
+        assertTrue(promoted.isAdmin());
+        assertEquals(versionBefore + 1, promoted.getVersion());
+
+        mockMvc.perform(post("/api/users/bulk/demote")
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids(testUser.getId(), testAdmin.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results['" + testUser.getId() + "']").value("UPDATED"));
+
+        assertFalse(userRepository.findById(testUser.getId()).get().isAdmin());
+        assertTrue(userRepository.findById(testAdmin.getId()).get().isAdmin());
+    }
+
+    @Test
+    void deleteManyUsersInFewStatements() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            User user = new User();
+            user.setEmail("bulk" + i + "@test.test");
+            user.setUsername("bulk" + i);
+            user.setPassword("x");
+            users.add(user);
+        }
+        List<Long> ids = userRepository.saveAll(users).stream().map(User::getId).toList();
+        userRepository.flush();
+
+        // Login lookup, then an existence check, an owned storage lookup and a
+        // delete per chunk of 500
+        QueryCount.assertMaxQueries(11, () -> mockMvc.perform(post("/api/users/bulk/delete")
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids(ids.toArray(Long[]::new))))
+                .andExpect(status().isOk()));
+
+        assertEquals(2, userRepository.count());
+    }
+
+    @Test
+    void cantBulkDeleteAsUser() throws Exception {
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .cookie(fixtures.cookieOf(testUser))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids(testAdmin.getId())))
+                .andExpect(status().isForbidden());
+
+        assertTrue(userRepository.existsById(testAdmin.getId()));
+    }
+
+    @Test
+    void cantBulkPromoteAsGuest() throws Exception {
+        mockMvc.perform(post("/api/users/bulk/promote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids(testUser.getId())))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void emptyIdsError() throws Exception {
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String ids(Long... ids) {
+        return List.of(ids).stream().map(String::valueOf).collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+    }
+}
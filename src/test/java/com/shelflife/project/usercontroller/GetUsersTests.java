@@ -1,5 +1,7 @@
 package com.shelflife.project.usercontroller;
 
+import static com.shelflife.project.querycount.QueryCount.assertMaxQueries;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -74,6 +76,17 @@ public class GetUsersTests {
                 .andExpect(jsonPath("$[0].isAdmin").value(true));
     }
 
+    @Test
+    void getUsersQueryCount() throws Exception {
+        String jwt = jwtService.generateToken(testAdmin.getEmail());
+        Cookie jwtCookie = new Cookie("jwt", jwt);
+        userRepository.flush();
+
+        assertMaxQueries(4, () -> mockMvc.perform(get("/api/users")
+                .cookie(jwtCookie))
+                .andExpect(status().isOk()));
+    }
+
     @Test
     void cantGetUsersAsUser() throws Exception {
         String jwt = jwtService.generateToken(testUser.getEmail());
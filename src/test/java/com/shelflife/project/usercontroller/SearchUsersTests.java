@@ -0,0 +1,155 @@
+package com.shelflife.project.usercontroller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.UserSearchIndex;
+import com.shelflife.project.support.TestFixtures;
+
+import jakarta.servlet.http.Cookie;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SearchUsersTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User testAdmin;
+    private User testUser;
+    private Cookie adminCookie;
+
+    @BeforeEach
+    void setup() {
+        testAdmin = fixtures.user("admin@shelflife.test", "admin", true);
+        testUser = fixtures.user("testuser@test.test", "testuser", false);
+        fixtures.user("john.smith@example.com", "johnny", false);
+        fixtures.user("smithy@example.com", "smith", false);
+
+        searchIndex.rebuild();
+        adminCookie = fixtures.cookieOf(testAdmin);
+    }
+
+    @AfterEach
+    void cleanup() {
+        userRepository.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void searchBySubstringRanked() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "Smith")
+                .cookie(adminCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.results[0].email").value("smithy@example.com"))
+                .andExpect(jsonPath("$.results[1].email").value("john.smith@example.com"))
+                .andExpect(jsonPath("$.results[0].password").doesNotExist());
+    }
+
+    @Test
+    void searchShortQuery() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "jo")
+                .cookie(adminCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.results[0].username").value("johnny"));
+    }
+
+    @Test
+    void searchPaginated() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "e")
+                .param("page", "1")
+                .param("size", "2")
+                .cookie(adminCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.results", hasSize(2)));
+    }
+
+    @Test
+    void searchInvalidSize() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "smith")
+                .param("size", "1000")
+                .cookie(adminCookie))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.size").exists());
+    }
+
+    @Test
+    void cantSearchAsUser() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "smith")
+                .cookie(fixtures.cookieOf(testUser)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void cantSearchAsGuest() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "smith"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void indexFollowsSignupUpdateAndDelete() throws Exception {
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"newcomer@test.test\", \"username\":\"newcomer\", \"password\":\"Test123\", \"passwordRepeat\":\"Test123\"}"))
+                .andExpect(status().isCreated());
+
+        long id = userRepository.findByEmail("newcomer@test.test").get().getId();
+        expectSearchTotal("newcomer", 1);
+
+        mockMvc.perform(patch("/api/users/" + id)
+                .cookie(adminCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"renamed@test.test\", \"username\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        expectSearchTotal("newcomer", 0);
+        expectSearchTotal("renamed", 1);
+
+        mockMvc.perform(delete("/api/users/" + id)
+                .cookie(adminCookie))
+                .andExpect(status().isOk());
+
+        expectSearchTotal("renamed", 0);
+    }
+
+    private void expectSearchTotal(String query, int total) throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                .param("q", query)
+                .cookie(adminCookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(total));
+    }
+}
@@ -1,5 +1,6 @@
 package com.shelflife.project.usercontroller;
 
+import static com.shelflife.project.querycount.QueryCount.assertMaxQueries;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -122,6 +123,20 @@ public class UpdateUserAsUserTests {
         assertEquals(testUser.isAdmin(), repoData.get().isAdmin());
     }
 
+    @Test
+    void updateSuccessful_OnSelf_QueryCount() throws Exception {
+        String jwt = jwtService.generateToken(testUser.getEmail());
+        Cookie jwtCookie = new Cookie("jwt", jwt);
+        userRepository.flush();
+
+        assertMaxQueries(4, () -> mockMvc.perform(patch("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                        "{\"email\":\"testuser@gmail.com\", \"username\":\"testtest\"}"))
+                .andExpect(status().isOk()));
+    }
+
     // Fails
     @Test
     void updateFails_OnSelf_Admin() throws Exception {
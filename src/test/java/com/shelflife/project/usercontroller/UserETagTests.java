@@ -0,0 +1,148 @@
+package com.shelflife.project.usercontroller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.JwtService;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.transaction.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class UserETagTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private User testUser;
+    private Cookie jwtCookie;
+
+    @BeforeEach
+    void setup() {
+        testUser = new User();
+        testUser.setEmail("testuser@test.test");
+        testUser.setUsername("testuser");
+        testUser.setPassword(encoder.encode("test123"));
+        userRepository.saveAndFlush(testUser);
+
+        jwtCookie = new Cookie("jwt", jwtService.generateToken(testUser.getEmail()));
+    }
+
+    @Test
+    void getUserReturnsETag() throws Exception {
+        mockMvc.perform(get("/api/users/" + testUser.getId())
+                .cookie(jwtCookie))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + testUser.getId() + "-0\""));
+    }
+
+    @Test
+    void getUserNotModified() throws Exception {
+        String etag = getETag();
+
+        mockMvc.perform(get("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUserModifiedAfterUpdate() throws Exception {
+        String etag = getETag();
+
+        mockMvc.perform(patch("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"changed\"}"))
+                .andExpect(status().isOk());
+        userRepository.flush();
+
+        mockMvc.perform(get("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("changed"));
+
+        assertNotEquals(etag, getETag());
+    }
+
+    @Test
+    void updateWithMatchingIfMatch() throws Exception {
+        mockMvc.perform(patch("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .header("If-Match", getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"changed\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals("changed", userRepository.findById(testUser.getId()).get().getUsername());
+    }
+
+    @Test
+    void updateWithStaleIfMatch() throws Exception {
+        String etag = getETag();
+
+        mockMvc.perform(patch("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"first\"}"))
+                .andExpect(status().isOk());
+        userRepository.flush();
+
+        mockMvc.perform(patch("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"second\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("first", userRepository.findById(testUser.getId()).get().getUsername());
+    }
+
+    @Test
+    void updateWithIfMatchOfOtherUser() throws Exception {
+        mockMvc.perform(patch("/api/users/" + testUser.getId())
+                .cookie(jwtCookie)
+                .header("If-Match", "\"" + (testUser.getId() + 1) + "-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"changed\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private String getETag() throws Exception {
+        return mockMvc.perform(get("/api/users/" + testUser.getId())
+                .cookie(jwtCookie))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+    }
+}
@@ -0,0 +1,109 @@
+package com.shelflife.project.userrepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.shelflife.project.model.User;
+import com.shelflife.project.querycount.QueryCountInspector;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.CustomUserDetailsService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class NormalizedEmailTests {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User testUser;
+
+    @BeforeEach
+    void setup() {
+        testUser = new User();
+        testUser.setEmail(" Test.User@Test.test");
+        testUser.setUsername("test");
+        testUser.setPassword("test123");
+        userRepository.saveAndFlush(testUser);
+    }
+
+    @Test
+    void setEmailNormalizes() {
+        assertEquals("test.user@test.test", testUser.getNormalizedEmail());
+        assertEquals(" Test.User@Test.test", testUser.getEmail());
+    }
+
+    @Test
+    void findByEmailIgnoresCase() {
+        assertEquals(testUser.getId(), userRepository.findByEmail("test.user@TEST.TEST").get().getId());
+        assertEquals(testUser.getId(), userRepository.findByEmail("TEST.USER@test.test ").get().getId());
+        assertFalse(userRepository.findByEmail("other@test.test").isPresent());
+    }
+
+    @Test
+    void existsByEmailIgnoresCase() {
+        assertTrue(userRepository.existsByEmail("TEST.user@test.TEST"));
+        assertFalse(userRepository.existsByEmail("other@test.test"));
+    }
+
+    @Test
+    void loadUserByUsernameIgnoresCase() {
+        assertEquals(testUser.getEmail(), userDetailsService.loadUserByUsername("TEST.USER@TEST.TEST").getUsername());
+    }
+
+    // Explains the statements Hibernate actually generated for the lookups
+    @Test
+    void lookupsUseNormalizedEmailIndex() {
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        QueryCountInspector.reset();
+
+        userRepository.findByEmail("TEST.USER@test.test");
+        userRepository.existsByEmail("TEST.USER@test.test");
+
+        List<String> lookups = QueryCountInspector.statements();
+        assertEquals(2, lookups.size(), lookups.toString());
+
+        for (String sql : lookups) {
+            String plan = explain(sql, "test.user@test.test");
+
+            assertFalse(plan.contains("tableScan"), plan);
+            assertTrue(plan.toUpperCase().contains("UK_USERS_NORMALIZED_EMAIL"), plan);
+        }
+    }
+
+    // The email is the first parameter, a row limit after it gets 1
+    private String explain(String sql, String normalizedEmail) {
+        Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(args, 1);
+        args[0] = normalizedEmail;
+
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+    }
+}
@@ -16,13 +16,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.shelflife.project.exception.ItemNotFoundException;
 import com.shelflife.project.model.User;
+import com.shelflife.project.repository.StorageRepository;
 import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.UserSearchIndex;
 import com.shelflife.project.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +33,21 @@ public class RemoveUserTests {
     @Mock
     UserRepository repo;
 
+    @Mock
+    StorageRepository storageRepo;
+
     @Mock
     PasswordEncoder encoder;
 
     @Mock
     Authentication auth;
 
+    @Mock
+    UserSearchIndex searchIndex;
+
+    @Mock
+    ApplicationEventPublisher events;
+
     @Spy
     @InjectMocks
     UserService service;
@@ -0,0 +1,97 @@
+package com.shelflife.project.userservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+
+import com.shelflife.project.dto.BulkOutcome;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.StorageRepository;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.UserSearchIndex;
+import com.shelflife.project.service.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class RemoveUsersTests {
+    @Mock
+    UserRepository repo;
+
+    @Mock
+    StorageRepository storageRepo;
+
+    @Mock
+    Authentication auth;
+
+    @Mock
+    UserSearchIndex searchIndex;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    @Spy
+    @InjectMocks
+    UserService service;
+
+    @Test
+    void throwsAccessDeniedAsUser() {
+        User user = new User();
+        user.setAdmin(false);
+
+        when(service.getUserByAuth(auth)).thenReturn(Optional.of(user));
+
+        assertThrows(AccessDeniedException.class, () -> service.removeUsers(List.of(2L), auth));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void throwsIllegalArgumentOnNullId() {
+        User admin = new User();
+        admin.setAdmin(true);
+
+        when(service.getUserByAuth(auth)).thenReturn(Optional.of(admin));
+
+        List<Long> ids = new ArrayList<>();
+        ids.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.removeUsers(ids, auth));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void deletesInChunks() {
+        User admin = new User();
+        admin.setId(1);
+        admin.setAdmin(true);
+
+        when(service.getUserByAuth(auth)).thenReturn(Optional.of(admin));
+        when(repo.findExistingIds(anyCollection())).thenAnswer(i -> new ArrayList<>(i.getArgument(0)));
+
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+        Map<Long, BulkOutcome> outcomes = service.removeUsers(ids, auth);
+
+        verify(repo, times(3)).findExistingIds(anyCollection());
+        verify(repo, times(3)).deleteAllByIdIn(anyCollection());
+        assertEquals(BulkOutcome.FORBIDDEN, outcomes.get(1L));
+        assertEquals(1199, outcomes.values().stream().filter(BulkOutcome.DELETED::equals).count());
+    }
+}
@@ -0,0 +1,90 @@
+package com.shelflife.project.userservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.shelflife.project.dto.UserSearchResult;
+import com.shelflife.project.model.User;
+import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.UserSearchIndex;
+import com.shelflife.project.service.UserService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SearchUsersTests {
+    private static final String[] NAMES = { "anna", "bob", "Ann_Marie", "annabel", "bobby", "100%fresh", "rob",
+            "Anne", "marie", "robert" };
+    private static final String[] DOMAINS = { "test.test", "example.com", "ANN.org", "fresh_mail.net" };
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setup() {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            User user = new User();
+            user.setEmail(name + i + "@" + DOMAINS[random.nextInt(DOMAINS.length)]);
+            user.setUsername(NAMES[random.nextInt(NAMES.length)] + (random.nextBoolean() ? i : ""));
+            user.setPassword("x");
+            users.add(user);
+        }
+
+        userRepository.saveAll(users);
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        userRepository.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void indexMatchesDatabaseLike() {
+        for (String query : List.of("a", "an", "ann", "ANNA", "bob", "rob", "marie", "_", "n_m", "%", "0%f",
+                "@ann.org", "12", "example", "fresh_", "zzz", " bobby ")) {
+            List<Long> fromIndex = ids(searchIndex.search(query));
+            List<Long> fromDatabase = ids(userService.searchUsersInDatabase(query));
+
+            assertEquals(fromDatabase, fromIndex, "Results differ for query '" + query + "'");
+        }
+    }
+
+    @Test
+    void wildcardsAreLiteral() {
+        assertFalse(searchIndex.search("_").isEmpty());
+        assertEquals(ids(searchIndex.search("n_m")), ids(userService.searchUsersInDatabase("n_m")));
+        assertEquals(0, userService.searchUsersInDatabase("a_n_a").size());
+    }
+
+    @Test
+    void blankQueryFindsNothing() {
+        assertEquals(0, searchIndex.search("  ").size());
+        assertEquals(0, userService.searchUsersInDatabase("").size());
+    }
+
+    private static List<Long> ids(List<UserSearchResult> results) {
+        return results.stream().map(UserSearchResult::getId).toList();
+    }
+}
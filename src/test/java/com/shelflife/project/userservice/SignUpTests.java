@@ -3,8 +3,9 @@ package com.shelflife.project.userservice;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -12,12 +13,14 @@ import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,8 +28,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import com.shelflife.project.dto.SignUpRequest;
 import com.shelflife.project.exception.EmailExistsException;
 import com.shelflife.project.exception.PasswordsDontMatchException;
+import com.shelflife.project.model.OutboxMessage;
 import com.shelflife.project.model.User;
+import com.shelflife.project.outbox.Outbox;
 import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.UserSearchIndex;
 import com.shelflife.project.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +47,12 @@ public class SignUpTests {
     @Mock
     Authentication auth;
 
+    @Mock
+    UserSearchIndex searchIndex;
+
+    @Mock
+    Outbox outbox;
+
     @InjectMocks
     @Spy
     UserService service;
@@ -59,14 +71,28 @@ public class SignUpTests {
     @Test
     void throwsEmailExistsWhenEmailAlreadyUsed() {
         when(service.getUserByAuth(auth)).thenReturn(Optional.empty());
-        when(repo.existsByEmail("test@test.test")).thenReturn(true);
+        when(repo.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(violation("uk_users_normalized_email")).when(repo).flush();
 
         assertThrows(EmailExistsException.class, () -> {
             service.signUp(validRequest(), auth);
         });
 
-        assertTrue(repo.existsByEmail("test@test.test"));
-        verify(repo, never()).save(any());
+        verify(repo, never()).existsByEmail(any());
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void rethrowsOtherConstraintViolations() {
+        when(service.getUserByAuth(auth)).thenReturn(Optional.empty());
+        when(repo.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(violation("uk_users_username")).when(repo).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            service.signUp(validRequest(), auth);
+        });
+
+        verifyNoInteractions(outbox);
     }
 
     @Test
@@ -76,8 +102,6 @@ public class SignUpTests {
 
         when(service.getUserByAuth(auth))
                 .thenReturn(Optional.empty());
-        when(repo.existsByEmail(req.getEmail()))
-                .thenReturn(false);
 
         assertThrows(PasswordsDontMatchException.class, () -> {
             service.signUp(req, auth);
@@ -92,8 +116,6 @@ public class SignUpTests {
 
         when(service.getUserByAuth(auth))
                 .thenReturn(Optional.empty());
-        when(repo.existsByEmail(req.getEmail()))
-                .thenReturn(false);
         when(encoder.encode("password"))
                 .thenReturn("encoded-password");
 
@@ -108,6 +130,8 @@ public class SignUpTests {
         assertFalse(result.isAdmin());
 
         verify(repo).save(any(User.class));
+        verify(repo).flush();
+        verify(outbox).enqueue(eq("test@test.test"), eq(OutboxMessage.Kind.WELCOME), any(), any());
     }
 
     private SignUpRequest validRequest() {
@@ -118,4 +142,9 @@ public class SignUpTests {
         req.setPasswordRepeat("password");
         return req;
     }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", null, constraint));
+    }
 }
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -12,19 +13,23 @@ import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 
 import com.shelflife.project.dto.ChangeUserDataRequest;
 import com.shelflife.project.exception.EmailExistsException;
+import com.shelflife.project.exception.VersionMismatchException;
 import com.shelflife.project.model.User;
 import com.shelflife.project.repository.UserRepository;
+import com.shelflife.project.service.UserSearchIndex;
 import com.shelflife.project.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +40,9 @@ public class UpdateUserTests {
     @Mock
     Authentication auth;
 
+    @Mock
+    UserSearchIndex searchIndex;
+
     @InjectMocks
     @Spy
     UserService service;
@@ -67,10 +75,10 @@ public class UpdateUserTests {
 
         when(service.getUserByAuth(auth)).thenReturn(Optional.of(current));
         when(repo.findById(1L)).thenReturn(Optional.of(current));
-        when(repo.existsByEmail("exists@test.test")).thenReturn(true);
+        when(repo.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(violation("uk_users_normalized_email")).when(repo).flush();
 
         assertThrows(EmailExistsException.class, () -> service.updateUser(1L, req, auth));
-        verify(repo, never()).save(any());
     }
 
     @Test
@@ -137,6 +145,21 @@ public class UpdateUserTests {
         verify(repo).save(current);
     }
 
+    @Test
+    void throwsVersionMismatchOnStaleVersion() {
+        User current = testUser(1L, false);
+        current.setVersion(3);
+
+        ChangeUserDataRequest req = new ChangeUserDataRequest();
+        req.setUsername("newname");
+
+        when(service.getUserByAuth(auth)).thenReturn(Optional.of(current));
+        when(repo.findById(1L)).thenReturn(Optional.of(current));
+
+        assertThrows(VersionMismatchException.class, () -> service.updateUser(1L, req, auth, 2L));
+        verify(repo, never()).save(any());
+    }
+
     private User testUser(long id, boolean admin) {
         User u = new User();
         u.setId(id);
@@ -149,4 +172,9 @@ public class UpdateUserTests {
     private ChangeUserDataRequest emptyRequest() {
         return new ChangeUserDataRequest();
     }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", null, constraint));
+    }
 }
@@ -0,0 +1,162 @@
+package com.shelflife.project.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class IngredientIndexTests {
+
+    private static List<Long> ids(List<IngredientIndex.Match> matches) {
+        return matches.stream().map(IngredientIndex.Match::recipeId).toList();
+    }
+
+    @Test
+    void ranksByCoverageThenExpiring() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10, 11, 12, 13 }); // 2 of 4
+        index.put(2, new long[] { 10, 11 }); // 2 of 2
+        index.put(3, new long[] { 11, 14 }); // 1 of 2, one missing
+        index.put(4, new long[] { 12, 15 }); // 1 of 2, uses the expiring one
+        index.put(5, new long[] { 20, 21 }); // nothing on hand
+
+        List<IngredientIndex.Match> matches = index.topK(new long[] { 10, 11, 15 }, new long[] { 15 }, 10);
+
+        assertEquals(List.of(2L, 4L, 3L, 1L), ids(matches));
+        assertEquals(1.0, matches.get(0).coverage());
+        assertEquals(1, matches.get(1).expiring());
+        assertEquals(4, matches.get(3).ingredients());
+        assertEquals(2, matches.get(3).matched());
+    }
+
+    @Test
+    void fewerMissingWinsOnEqualCoverage() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10, 11, 12, 13 });
+        index.put(2, new long[] { 10, 12 });
+
+        assertEquals(List.of(2L, 1L), ids(index.topK(new long[] { 10, 11 }, new long[0], 10)));
+    }
+
+    @Test
+    void emptyPantryMatchesNothing() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10 });
+
+        assertTrue(index.topK(new long[0], new long[0], 10).isEmpty());
+        assertTrue(index.topK(new long[] { 99 }, new long[0], 10).isEmpty());
+    }
+
+    @Test
+    void putReplacesIngredients() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10, 11 });
+        index.put(1, new long[] { 12 });
+
+        assertEquals(1, index.size());
+        assertTrue(index.topK(new long[] { 10, 11 }, new long[0], 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.topK(new long[] { 12 }, new long[0], 10)));
+    }
+
+    @Test
+    void rejectedPutLeavesTheIndexAlone() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10 });
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, new long[Short.MAX_VALUE + 1]));
+        assertThrows(IllegalArgumentException.class, () -> index.put(2, new long[Short.MAX_VALUE + 1]));
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), ids(index.topK(new long[] { 10 }, new long[0], 10)));
+    }
+
+    @Test
+    void removeFreesTheSlotForTheNextRecipe() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10 });
+        index.put(2, new long[] { 10, 11 });
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        index.put(3, new long[] { 11 });
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(3L, 2L), ids(index.topK(new long[] { 11 }, new long[0], 10)));
+    }
+
+    @Test
+    void removedProductLeavesItsRecipes() {
+        IngredientIndex index = new IngredientIndex();
+        index.put(1, new long[] { 10, 11 });
+        index.removeProduct(11);
+
+        IngredientIndex.Match match = index.topK(new long[] { 10, 11 }, new long[0], 10).get(0);
+        assertEquals(1, match.ingredients());
+        assertEquals(1.0, match.coverage());
+    }
+
+    // Compares against scoring every recipe and sorting the lot
+    @Test
+    void topKMatchesFullSort() {
+        Random random = new Random(47);
+        IngredientIndex index = new IngredientIndex(4);
+        Map<Long, Set<Long>> recipes = new HashMap<>();
+
+        for (long recipeId = 1; recipeId <= 3000; recipeId++) {
+            Set<Long> ingredients = new HashSet<>();
+            for (int i = 2 + random.nextInt(8); i > 0; i--)
+                ingredients.add((long) random.nextInt(300));
+            recipes.put(recipeId, ingredients);
+            index.put(recipeId, ingredients.stream().mapToLong(Long::longValue).toArray());
+        }
+        for (long recipeId = 1; recipeId <= 3000; recipeId += 7) {
+            index.remove(recipeId);
+            recipes.remove(recipeId);
+        }
+
+        for (int round = 0; round < 20; round++) {
+            Set<Long> pantry = new HashSet<>();
+            for (int i = 5 + random.nextInt(60); i > 0; i--)
+                pantry.add((long) random.nextInt(300));
+            Set<Long> expiring = new HashSet<>();
+            for (long productId : pantry)
+                if (random.nextInt(5) == 0)
+                    expiring.add(productId);
+
+            List<IngredientIndex.Match> expected = new ArrayList<>();
+            recipes.forEach((recipeId, ingredients) -> {
+                int matched = 0;
+                int used = 0;
+                for (long productId : ingredients) {
+                    if (pantry.contains(productId))
+                        matched++;
+                    if (expiring.contains(productId))
+                        used++;
+                }
+                if (matched > 0)
+                    expected.add(new IngredientIndex.Match(recipeId, ingredients.size(), matched, used));
+            });
+            expected.sort(Comparator.comparingDouble(IngredientIndex.Match::coverage).reversed()
+                    .thenComparing(Comparator.comparingInt(IngredientIndex.Match::expiring).reversed())
+                    .thenComparingInt(m -> m.ingredients() - m.matched())
+                    .thenComparingLong(IngredientIndex.Match::recipeId));
+
+            int k = 1 + random.nextInt(30);
+            List<IngredientIndex.Match> actual = index.topK(pantry.stream().mapToLong(Long::longValue).toArray(),
+                    expiring.stream().mapToLong(Long::longValue).toArray(), k);
+
+            assertEquals(expected.subList(0, Math.min(k, expected.size())), actual, "round " + round);
+        }
+    }
+}
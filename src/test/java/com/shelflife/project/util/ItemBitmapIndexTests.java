@@ -0,0 +1,161 @@
+package com.shelflife.project.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ItemBitmapIndexTests {
+    private static final int TYPES = 4;
+    private static final int NONE = ItemBitmapIndex.NO_EXPIRY;
+
+    @Test
+    void filtersByTypeAndExpiry() {
+        ItemBitmapIndex index = new ItemBitmapIndex(TYPES);
+        index.put(1, 100, 10, 0, 20);
+        index.put(2, 100, 11, 1, 25);
+        index.put(3, 100, 12, 1, NONE);
+        index.put(4, 100, 10, 0, 30);
+        index.put(5, 200, 10, 0, 20);
+
+        ItemBitmapIndex.Result all = index.query(100, new int[0], NONE);
+        assertArrayEquals(new long[] { 1, 2, 3, 4 }, all.itemIds());
+        assertArrayEquals(new int[] { 2, 2, 0, 0 }, all.typeCounts());
+
+        ItemBitmapIndex.Result dairy = index.query(100, new int[] { 0 }, NONE);
+        assertArrayEquals(new long[] { 1, 4 }, dairy.itemIds());
+        // Counts ignore the type filter
+        assertArrayEquals(new int[] { 2, 2, 0, 0 }, dairy.typeCounts());
+
+        ItemBitmapIndex.Result soon = index.query(100, new int[0], 26);
+        assertArrayEquals(new long[] { 1, 2 }, soon.itemIds());
+        assertArrayEquals(new int[] { 1, 1, 0, 0 }, soon.typeCounts());
+
+        assertArrayEquals(new long[] { 2 }, index.query(100, new int[] { 1, 2 }, 26).itemIds());
+        assertEquals(0, index.query(300, new int[0], NONE).itemIds().length);
+    }
+
+    @Test
+    void putMovesAnItem() {
+        ItemBitmapIndex index = new ItemBitmapIndex(TYPES);
+        index.put(1, 100, 10, 0, 20);
+        index.put(1, 200, 10, 0, 40);
+
+        assertEquals(1, index.size());
+        assertEquals(0, index.query(100, new int[0], NONE).itemIds().length);
+        assertArrayEquals(new long[] { 1 }, index.query(200, new int[0], 41).itemIds());
+        assertEquals(0, index.query(200, new int[0], 40).itemIds().length);
+    }
+
+    @Test
+    void removals() {
+        ItemBitmapIndex index = new ItemBitmapIndex(TYPES);
+        index.put(1, 100, 10, 0, 20);
+        index.put(2, 100, 11, 1, 20);
+        index.put(3, 200, 11, 1, 20);
+        index.put(4, 300, 12, 2, 20);
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        index.removeProduct(11);
+        assertEquals(0, index.query(100, new int[0], NONE).itemIds().length);
+        assertEquals(0, index.query(200, new int[0], NONE).itemIds().length);
+
+        index.removeStorage(300);
+        assertEquals(0, index.size());
+
+        // Freed slots are reused
+        index.put(5, 100, 10, 3, NONE);
+        assertArrayEquals(new long[] { 5 }, index.query(100, new int[] { 3 }, NONE).itemIds());
+    }
+
+    @Test
+    void productTypeChangeMovesItsItems() {
+        ItemBitmapIndex index = new ItemBitmapIndex(TYPES);
+        index.put(1, 100, 10, 0, NONE);
+        index.put(2, 100, 10, 0, NONE);
+        index.put(3, 100, 11, 0, NONE);
+
+        index.setProductType(10, 2);
+
+        ItemBitmapIndex.Result result = index.query(100, new int[] { 2 }, NONE);
+        assertArrayEquals(new long[] { 1, 2 }, result.itemIds());
+        assertArrayEquals(new int[] { 1, 0, 2, 0 }, result.typeCounts());
+    }
+
+    private record Item(long storage, long product, int type, int day) {
+    }
+
+    // Compares against filtering a plain map of every item
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(48);
+        ItemBitmapIndex index = new ItemBitmapIndex(TYPES);
+        Map<Long, Item> items = new HashMap<>();
+        Map<Long, Integer> productTypes = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long id = 1 + random.nextInt(800);
+            int action = random.nextInt(10);
+
+            if (action < 6) {
+                long product = random.nextInt(40);
+                int type = productTypes.computeIfAbsent(product, p -> random.nextInt(TYPES));
+                int day = random.nextInt(5) == 0 ? NONE : random.nextInt(60);
+                Item item = new Item(random.nextInt(6), product, type, day);
+                items.put(id, item);
+                index.put(id, item.storage(), item.product(), item.type(), item.day());
+            } else if (action < 8) {
+                items.remove(id);
+                index.remove(id);
+            } else if (action == 8) {
+                long product = random.nextInt(40);
+                int type = random.nextInt(TYPES);
+                productTypes.put(product, type);
+                items.replaceAll((key, item) -> item.product() == product
+                        ? new Item(item.storage(), product, type, item.day())
+                        : item);
+                index.setProductType(product, type);
+            } else {
+                long storage = random.nextInt(6);
+                items.values().removeIf(item -> item.storage() == storage);
+                index.removeStorage(storage);
+            }
+        }
+
+        assertEquals(items.size(), index.size());
+
+        for (int round = 0; round < 200; round++) {
+            long storage = random.nextInt(6);
+            int before = random.nextBoolean() ? NONE : random.nextInt(60);
+            int[] types = random.nextBoolean() ? new int[0] : new int[] { random.nextInt(TYPES), random.nextInt(TYPES) };
+
+            List<Long> expected = new ArrayList<>();
+            int[] counts = new int[TYPES];
+            items.forEach((id, item) -> {
+                if (item.storage() != storage || (before != NONE && (item.day() == NONE || item.day() >= before)))
+                    return;
+                counts[item.type()]++;
+                for (int type : types)
+                    if (type == item.type()) {
+                        expected.add(id);
+                        return;
+                    }
+                if (types.length == 0)
+                    expected.add(id);
+            });
+
+            ItemBitmapIndex.Result result = index.query(storage, types, before);
+            assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), result.itemIds());
+            assertArrayEquals(counts, result.typeCounts());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.shelflife.project.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongLongHashMapTests {
+
+    @Test
+    void putGetRemove() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        assertEquals(LongLongHashMap.NO_VALUE, map.put(5901234123457L, 1));
+        assertEquals(1, map.get(5901234123457L));
+        assertEquals(1, map.put(5901234123457L, 2));
+        assertEquals(2, map.get(5901234123457L));
+        assertEquals(1, map.size());
+
+        assertEquals(2, map.remove(5901234123457L));
+        assertEquals(LongLongHashMap.NO_VALUE, map.get(5901234123457L));
+        assertEquals(LongLongHashMap.NO_VALUE, map.remove(5901234123457L));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void zeroIsAValidKey() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        assertFalse(map.containsKey(0));
+        map.put(0, 7);
+        assertEquals(7, map.get(0));
+        assertEquals(1, map.size());
+
+        map.remove(0);
+        assertFalse(map.containsKey(0));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void noValueCantBeStored() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, LongLongHashMap.NO_VALUE));
+    }
+
+    @Test
+    void presizedTableDoesNotGrow() {
+        LongLongHashMap map = new LongLongHashMap(1_000_000);
+        int capacity = map.capacity();
+
+        for (long i = 1; i <= 1_000_000; i++)
+            map.put(i, i);
+
+        assertEquals(capacity, map.capacity());
+        assertEquals(1 << 21, capacity);
+        assertEquals(32L * 1024 * 1024, map.tableBytes());
+    }
+
+    // Sequential keys collide in runs, which exercises removal inside probe chains
+    @Test
+    void matchesHashMapUnderRandomChanges() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        List<Long> keys = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(4) == 0 ? random.nextLong() : 4_000_000_000_000L + random.nextInt(50_000);
+            int op = random.nextInt(3);
+
+            if (op == 2 && !keys.isEmpty()) {
+                long existing = keys.get(random.nextInt(keys.size()));
+                Long removed = expected.remove(existing);
+                assertEquals(removed == null ? LongLongHashMap.NO_VALUE : removed, map.remove(existing));
+            } else {
+                long value = random.nextInt(Integer.MAX_VALUE);
+                Long previous = expected.put(key, value);
+                assertEquals(previous == null ? LongLongHashMap.NO_VALUE : previous, map.put(key, value));
+                keys.add(key);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key : keys) {
+            Long value = expected.get(key);
+            assertEquals(value == null ? LongLongHashMap.NO_VALUE : value, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.shelflife.project.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LruBudgetTests {
+
+    @Test
+    void evictsLeastRecentlyUsedFirst() {
+        LruBudget<String> lru = new LruBudget<>(100);
+        assertEquals(List.of(), lru.add("a", 40));
+        assertEquals(List.of(), lru.add("b", 40));
+
+        assertTrue(lru.touch("a"));
+        assertEquals(List.of("b"), lru.add("c", 40));
+
+        assertTrue(lru.contains("a"));
+        assertFalse(lru.contains("b"));
+        assertEquals(80, lru.totalBytes());
+    }
+
+    @Test
+    void evictsAsManyAsNeeded() {
+        LruBudget<String> lru = new LruBudget<>(100);
+        lru.add("a", 30);
+        lru.add("b", 30);
+        lru.add("c", 30);
+
+        assertEquals(List.of("a", "b"), lru.add("d", 60));
+        assertEquals(90, lru.totalBytes());
+        assertEquals(2, lru.size());
+    }
+
+    @Test
+    void replacingAnEntryCountsTheNewSize() {
+        LruBudget<String> lru = new LruBudget<>(100);
+        lru.add("a", 30);
+        lru.add("a", 50);
+        assertEquals(50, lru.totalBytes());
+
+        assertTrue(lru.remove("a"));
+        assertFalse(lru.remove("a"));
+        assertFalse(lru.touch("a"));
+        assertEquals(0, lru.totalBytes());
+    }
+
+    @Test
+    void entryLargerThanTheBudgetIsEvictedRightAway() {
+        LruBudget<String> lru = new LruBudget<>(100);
+        lru.add("a", 10);
+
+        assertEquals(List.of("a", "b"), lru.add("b", 150));
+        assertEquals(0, lru.size());
+        assertEquals(0, lru.totalBytes());
+    }
+}
@@ -0,0 +1,190 @@
+package com.shelflife.project.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class NamePrefixIndexTests {
+
+    private static List<Long> ids(List<NamePrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(NamePrefixIndex.Suggestion::id).toList();
+    }
+
+    @Test
+    void matchesThePrefixOfAnyWord() {
+        NamePrefixIndex index = new NamePrefixIndex();
+        index.put(1, "Semi-skimmed Milk", 5);
+        index.put(2, "Milk chocolate", 3);
+        index.put(3, "Mineral water", 1);
+
+        assertEquals(List.of(1L, 2L), ids(index.top("mil", 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.top("M", 10)));
+        assertEquals(List.of(1L), ids(index.top("SKIM", 10)));
+        assertEquals(List.of(1L), ids(index.top("semi sk", 10)));
+        assertEquals(List.of(), ids(index.top("semi milk", 10)));
+        assertEquals(List.of(), ids(index.top("x", 10)));
+        assertEquals(List.of(), ids(index.top("  ", 10)));
+
+        assertEquals("Semi-skimmed Milk", index.top("milk", 1).get(0).name());
+    }
+
+    @Test
+    void foldsAccentsAndPunctuation() {
+        NamePrefixIndex index = new NamePrefixIndex();
+        index.put(1, "Crème fraîche", 0);
+        index.put(2, "Túró Rudi", 0);
+
+        assertEquals(List.of(1L), ids(index.top("creme fr", 10)));
+        assertEquals(List.of(1L), ids(index.top("FRAICHE!", 10)));
+        assertEquals(List.of(2L), ids(index.top("turo-r", 10)));
+        assertEquals("creme fraiche", NamePrefixIndex.normalize("  Crème -- fraîche "));
+    }
+
+    @Test
+    void popularityRanksFirstThenFirstWordThenShorterNames() {
+        NamePrefixIndex index = new NamePrefixIndex();
+        index.put(1, "Milk chocolate", 0);
+        index.put(2, "Milk", 0);
+        index.put(3, "Oat milk", 0);
+        index.put(4, "Milkshake powder", 9);
+
+        assertEquals(List.of(4L, 2L, 1L, 3L), ids(index.top("milk", 10)));
+        assertEquals(List.of(4L, 2L), ids(index.top("milk", 2)));
+
+        index.addPopularity(3, 20);
+        assertEquals(List.of(3L, 4L, 2L, 1L), ids(index.top("milk", 10)));
+
+        index.setPopularity(3, 0);
+        assertEquals(List.of(4L, 2L, 1L, 3L), ids(index.top("milk", 10)));
+    }
+
+    @Test
+    void renameAndRemove() {
+        NamePrefixIndex index = new NamePrefixIndex();
+        index.put(1, "Butter", 4);
+        index.put(2, "Buttermilk", 1);
+
+        index.put(1, "Margarine");
+        assertEquals(List.of(2L), ids(index.top("butter", 10)));
+        assertEquals(4, index.top("marg", 10).get(0).popularity());
+
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        assertEquals(List.of(), ids(index.top("b", 10)));
+        assertEquals(1, index.size());
+        assertTrue(index.garbageChars() > 0);
+
+        index.put(3, "Bread", 0);
+        assertEquals(List.of(3L), ids(index.top("b", 10)));
+    }
+
+    @Test
+    void compactedCopyKeepsTheLiveNames() {
+        NamePrefixIndex index = new NamePrefixIndex();
+        for (int i = 0; i < 100; i++)
+            index.put(i, "Product " + i, i);
+        for (int i = 0; i < 100; i += 2)
+            index.remove(i);
+
+        NamePrefixIndex copy = index.compacted();
+        assertEquals(50, copy.size());
+        assertEquals(0, copy.garbageChars());
+        assertTrue(copy.textChars() < index.textChars());
+        assertEquals(ids(index.top("prod", 20)), ids(copy.top("prod", 20)));
+        assertEquals(ids(index.top("product 9", 20)), ids(copy.top("product 9", 20)));
+    }
+
+    @Test
+    void loadingRanksLikePut() {
+        String[] words = { "milk", "oat", "oats", "bread", "salt", "salmon", "1l", "500g" };
+        Random random = new Random(3);
+        NamePrefixIndex put = new NamePrefixIndex();
+        NamePrefixIndex loaded = new NamePrefixIndex();
+
+        for (int id = 0; id < 500; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            // Distinct popularity, so there are no ties to break differently
+            put.put(id, name, id * 7 % 500);
+            loaded.load(id, name, id * 7 % 500);
+        }
+        loaded.finishLoad();
+
+        for (String prefix : new String[] { "m", "oat", "sal", "1", "500g", "b" })
+            assertEquals(ids(put.top(prefix, 20)), ids(loaded.top(prefix, 20)), prefix);
+    }
+
+    // Random puts, renames, removals and popularity changes, every query
+    // checked against ranking all matching names
+    @Test
+    void sameRanksAsAFullScan() {
+        String[] words = { "milk", "mild", "mint", "oat", "oats", "bread", "brie", "bean", "beans", "salt", "salmon",
+                "sauce", "soy", "tomato", "tea", "te" };
+        Random random = new Random(11);
+        NamePrefixIndex index = new NamePrefixIndex();
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Integer> popularity = new HashMap<>();
+
+        for (int round = 0; round < 3000; round++) {
+            long id = random.nextInt(300);
+            int op = random.nextInt(10);
+
+            if (op < 6) {
+                StringBuilder name = new StringBuilder();
+                for (int w = 0; w <= random.nextInt(3); w++)
+                    name.append(w > 0 ? " " : "").append(words[random.nextInt(words.length)]);
+                int value = random.nextInt(50);
+                index.put(id, name.toString(), value);
+                names.put(id, name.toString());
+                popularity.put(id, value);
+            } else if (op < 8) {
+                index.remove(id);
+                names.remove(id);
+                popularity.remove(id);
+            } else if (names.containsKey(id)) {
+                int value = random.nextInt(50);
+                index.setPopularity(id, value);
+                popularity.put(id, value);
+            }
+
+            String word = words[random.nextInt(words.length)];
+            String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+            int k = 1 + random.nextInt(8);
+
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<Long, String> entry : names.entrySet()) {
+                int rank = rank(entry.getValue(), popularity.get(entry.getKey()), prefix);
+                if (rank >= 0)
+                    expected.add(rank);
+            }
+            expected.sort((a, b) -> Integer.compare(b, a));
+            expected = expected.subList(0, Math.min(k, expected.size()));
+
+            List<Integer> actual = new ArrayList<>();
+            for (NamePrefixIndex.Suggestion suggestion : index.top(prefix, k))
+                actual.add(rank(names.get(suggestion.id()), popularity.get(suggestion.id()), prefix));
+
+            assertEquals(expected, actual, "prefix " + prefix + " in round " + round);
+        }
+
+        assertEquals(names.size(), index.size());
+    }
+
+    private static int rank(String name, int popularity, String prefix) {
+        String key = NamePrefixIndex.normalize(name);
+        int lengthBonus = 63 - Math.min(63, key.length());
+
+        if (key.startsWith(prefix))
+            return popularity << 7 | 1 << 6 | lengthBonus;
+        if (key.contains(" " + prefix))
+            return popularity << 7 | lengthBonus;
+        return -1;
+    }
+}
@@ -0,0 +1,91 @@
+package com.shelflife.project.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTests {
+
+    @Test
+    void firesAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 3);
+        wheel.schedule("a", 5);
+        wheel.schedule("b", 100);
+
+        assertEquals(List.of(), wheel.advanceTo(4));
+        assertEquals(List.of("a"), wheel.advanceTo(5));
+        assertEquals(List.of(), wheel.advanceTo(99));
+        assertEquals(List.of("b"), wheel.advanceTo(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 2);
+        wheel.advanceTo(20);
+        wheel.schedule("late", 3);
+
+        assertEquals(List.of("late"), wheel.advanceTo(21));
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(8, 2);
+        TimingWheel.Timer<String> timer = wheel.schedule("a", 30);
+        wheel.schedule("b", 30);
+
+        assertTrue(wheel.cancel(timer));
+        assertFalse(wheel.cancel(timer));
+        assertEquals(List.of("b"), wheel.advanceTo(40));
+    }
+
+    @Test
+    void deadlineBeyondTopLevel() {
+        // Two levels of 4 span 16 ticks
+        TimingWheel<String> wheel = new TimingWheel<>(4, 2);
+        wheel.schedule("far", 1000);
+
+        assertEquals(List.of(), wheel.advanceTo(999));
+        assertEquals(List.of("far"), wheel.advanceTo(1000));
+    }
+
+    @Test
+    void matchesDeadlinesUnderRandomChanges() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(16, 3);
+        Map<Integer, TimingWheel.Timer<Integer>> live = new HashMap<>();
+        Random random = new Random(42);
+        int next = 0;
+
+        for (int step = 0; step < 2000; step++) {
+            for (int i = 0; i < 5; i++) {
+                int id = next++;
+                live.put(id, wheel.schedule(id, wheel.currentTick() + 1 + random.nextInt(10_000)));
+            }
+
+            if (random.nextBoolean() && !live.isEmpty()) {
+                List<Integer> ids = new ArrayList<>(live.keySet());
+                wheel.cancel(live.remove(ids.get(random.nextInt(ids.size()))));
+            }
+
+            long target = wheel.currentTick() + random.nextInt(20);
+            for (int id : wheel.advanceTo(target)) {
+                TimingWheel.Timer<Integer> timer = live.remove(id);
+                assertTrue(timer.getDeadline() <= target);
+                assertTrue(timer.getDeadline() > target - 20);
+            }
+
+            for (TimingWheel.Timer<Integer> timer : live.values())
+                assertTrue(timer.getDeadline() > target);
+        }
+
+        assertEquals(live.size(), wheel.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.shelflife.project.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.shelflife.project.repository.UserRepository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=3",
+        "app.warmup.password-iterations=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class WarmUpTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void warmUpRunsBeforeReady() throws Exception {
+        assertEquals(3, warmUpRunner.getLastIterations());
+        assertNotNull(warmUpRunner.getLastDuration());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    @Test
+    void warmUpDoesNotPersistUser() {
+        assertFalse(userRepository.existsByEmail("warmup@shelflife.invalid"));
+    }
+}